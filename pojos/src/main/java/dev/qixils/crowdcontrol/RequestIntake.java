@@ -0,0 +1,44 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A consumer of incoming {@link Request}s which receives requests only when it has signalled
+ * demand for them, such as the subscriber of a reactive stream.
+ * <p>
+ * While an intake is open, connections deliver their requests to it instead of handing them to
+ * {@link RequestManager#handle(Request)}. When the intake has no demand, connections stop reading
+ * until demand is signalled, so a slow consumer throttles the clients rather than accumulating
+ * an unbounded backlog of requests.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public interface RequestIntake {
+	/**
+	 * Delivers a request to the consumer if it has demand for one.
+	 * This may be called by several threads at once, including the threads which read from the
+	 * connections, so it must return quickly and must not handle the request on the calling thread.
+	 *
+	 * @param request the incoming request
+	 * @return true if the request was delivered, or false if the consumer has no demand
+	 *         or the intake has been closed
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	boolean offer(@NotNull Request request);
+
+	/**
+	 * Registers a callback to be run once, as soon as the consumer has demand for a request or
+	 * the intake has been closed. If either is already the case, the callback is run immediately.
+	 * <p>
+	 * Callbacks may be run by the thread which signals demand, so they must return quickly.
+	 *
+	 * @param callback the callback to run
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	void onDemand(@NotNull Runnable callback);
+}
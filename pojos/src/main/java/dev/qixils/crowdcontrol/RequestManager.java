@@ -4,6 +4,7 @@ import dev.qixils.crowdcontrol.socket.Request;
 import dev.qixils.crowdcontrol.socket.SocketManager;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A class that holds variables for a {@link SocketManager} and can process incoming data from
@@ -20,4 +21,16 @@ public interface RequestManager extends ServiceManager {
 	 */
 	@ApiStatus.AvailableSince("3.3.0")
 	void handle(@NotNull Request request);
+
+	/**
+	 * Gets the intake which incoming requests should be delivered to instead of
+	 * {@link #handle(Request)}.
+	 *
+	 * @return the open request intake, or null if requests should be handled directly
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	default @Nullable RequestIntake getRequestIntake() {
+		return null;
+	}
 }
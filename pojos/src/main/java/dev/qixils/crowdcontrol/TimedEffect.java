@@ -3,6 +3,7 @@ package dev.qixils.crowdcontrol;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
 import dev.qixils.crowdcontrol.socket.Request;
 import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.util.TimingWheel;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -15,9 +16,6 @@ import javax.annotation.ParametersAreNullableByDefault;
 import java.time.Duration;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -32,21 +30,30 @@ import java.util.function.Function;
  * or {@link #complete() stopped}.
  * </p>
  * This class can be constructed via {@link Builder}.
+ * <p>
+ * Timed effects may be queued, paused, resumed, and completed from any thread. Queueing an effect
+ * atomically checks and claims its effect group for each of its targets, so only one of several
+ * effects queued at the same time for the same group and target will start.
+ * </p>
+ * <p>
+ * Effects are completed by a {@link TimingWheel} once their duration elapses, so the
+ * {@link Builder#completionCallback() completion callback} of an effect which was not completed
+ * manually runs on the timer's thread and should return quickly.
+ * </p>
  *
  * @since 2.1.0
  */
 @ApiStatus.AvailableSince("2.1.0")
 public final class TimedEffect {
 
-	private static final Map<MapKey, TimedEffect> ACTIVE_EFFECTS = new HashMap<>();
-	private static final Map<UUID, TimedEffect> ALL_ACTIVE_EFFECTS = new HashMap<>();
-	private static final Map<UUID, TimedEffect> ALL_PAUSED_EFFECTS = new HashMap<>();
-	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor();
+	private static final TimedEffectEngine ENGINE = TimedEffectEngine.INSTANCE;
+	private static final TimingWheel TIMER = TimingWheel.shared();
 	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/TimedEffect");
+
 	private final @NotNull UUID id = UUID.randomUUID();
 	private final @NotNull Request request;
-	private final @NotNull MapKey globalKey;
-	private final MapKey @NotNull [] mapKeys;
+	private final TimedEffectEngine.@NotNull Key globalKey;
+	private final TimedEffectEngine.@NotNull Key @NotNull [] mapKeys;
 	private final @NotNull String effectGroup;
 	private final @NotNull Function<@NotNull TimedEffect, Response.@Nullable Builder> callback;
 	private final @Nullable Consumer<@NotNull TimedEffect> pauseCallback;
@@ -55,11 +62,11 @@ public final class TimedEffect {
 	private final long originalDuration;
 	private final boolean waitsForOthers;
 	private final boolean blocksOthers;
-	private long startedAt = -1;
-	private long duration;
-	private boolean paused = false;
-	private boolean queued = false;
-	private @Nullable ScheduledFuture<?> future;
+	private volatile long startedAt = -1; // written while holding this
+	private volatile long duration; // written while holding this
+	private volatile boolean paused = false; // written while holding this
+	private boolean queued = false; // guarded by this
+	private TimingWheel.@Nullable Timeout future; // guarded by this
 
 	/**
 	 * Pauses all active effects.
@@ -68,13 +75,14 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("3.5.3")
 	public static void pauseAll() {
-		for (Map.Entry<UUID, TimedEffect> entry : ALL_ACTIVE_EFFECTS.entrySet()) {
-			if (ALL_PAUSED_EFFECTS.containsKey(entry.getKey()))
+		for (TimedEffect effect : ENGINE.active.values()) {
+			// claim the effect first so that concurrent calls do not pause it twice
+			if (ENGINE.paused.putIfAbsent(effect.id, effect) != null)
 				continue;
 			try {
-				entry.getValue().pause();
-				ALL_PAUSED_EFFECTS.put(entry.getKey(), entry.getValue());
+				effect.pause();
 			} catch (IllegalStateException e) {
+				ENGINE.paused.remove(effect.id, effect);
 				logger.debug("Failed to pause effect", e);
 			}
 		}
@@ -87,15 +95,14 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("3.5.3")
 	public static void resumeAll() {
-		Iterator<TimedEffect> iterator = ALL_PAUSED_EFFECTS.values().iterator();
-		while (iterator.hasNext()) {
-			TimedEffect effect = iterator.next();
+		for (TimedEffect effect : ENGINE.paused.values()) {
+			if (!ENGINE.paused.remove(effect.id, effect))
+				continue;
 			try {
 				effect.resume();
 			} catch (IllegalStateException e) {
 				logger.debug("Failed to resume effect", e);
 			}
-			iterator.remove();
 		}
 	}
 
@@ -107,20 +114,13 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("3.9.0")
 	public static void stopAll(Request.@Nullable Target target) {
-		Iterator<Map.Entry<UUID, TimedEffect>> iterator = ALL_ACTIVE_EFFECTS.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry<UUID, TimedEffect> entry = iterator.next();
-			boolean stop = false;
-			for (MapKey key : entry.getValue().mapKeys) {
+		for (TimedEffect effect : ENGINE.active.values()) {
+			for (TimedEffectEngine.Key key : effect.mapKeys) {
 				if (Objects.equals(target, key.target)) {
-					stop = true;
+					effect.complete();
 					break;
 				}
 			}
-			if (stop) {
-				iterator.remove(); // remove first to prevent CME from #complete
-				entry.getValue().complete();
-			}
 		}
 	}
 
@@ -135,7 +135,7 @@ public final class TimedEffect {
 						boolean blocksOthers) throws IllegalArgumentException {
 		this.request = ExceptionUtil.validateNotNull(request, "request");
 		this.effectGroup = ExceptionUtil.validateNotNullElseGet(effectGroup, request::getEffect);
-		this.globalKey = new MapKey(this.effectGroup);
+		this.globalKey = new TimedEffectEngine.Key(this.effectGroup, null);
 		if (duration != null)
 			this.duration = duration.toMillis();
 		else if (request.getDuration() != null)
@@ -153,9 +153,9 @@ public final class TimedEffect {
 		this.blocksOthers = blocksOthers;
 
 		Request.Target[] targets = request.getTargets();
-		mapKeys = new MapKey[targets.length];
+		mapKeys = new TimedEffectEngine.Key[targets.length];
 		for (int i = 0; i < targets.length; i++) {
-			mapKeys[i] = new MapKey(this.effectGroup, targets[i]);
+			mapKeys[i] = new TimedEffectEngine.Key(this.effectGroup, targets[i]);
 		}
 	}
 
@@ -178,18 +178,7 @@ public final class TimedEffect {
 	public static boolean isActive(@Nullable String effectGroup, Request.Target @Nullable ... targets) {
 		if (effectGroup == null)
 			return false;
-		if (targets != null) {
-			for (Request.Target target : targets) {
-				if (target == null)
-					throw new IllegalArgumentException("targets cannot be null");
-				MapKey key = new MapKey(effectGroup, target);
-				if (ACTIVE_EFFECTS.containsKey(key) && !ACTIVE_EFFECTS.get(key).isComplete())
-					return true;
-			}
-		}
-
-		MapKey globalKey = new MapKey(effectGroup, null);
-		return ACTIVE_EFFECTS.containsKey(globalKey) && !ACTIVE_EFFECTS.get(globalKey).isComplete();
+		return ENGINE.isActive(effectGroup, targets);
 	}
 
 	/**
@@ -234,6 +223,8 @@ public final class TimedEffect {
 	@NotNull
 	public Duration getCurrentDuration() {
 		final long value;
+		final long duration = this.duration;
+		final long startedAt = this.startedAt;
 		if (duration == -1)
 			value = 0;
 		else if (startedAt == -1)
@@ -252,78 +243,49 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("2.1.0")
 	public void queue() throws IllegalStateException {
-		if (queued)
-			throw new IllegalStateException("Effect was already queued");
-		queued = true;
-
-		// force start if it doesn't wait for others
-		if (!waitsForOthers) {
-			start();
-			return;
+		synchronized (this) {
+			if (queued)
+				throw new IllegalStateException("Effect was already queued");
+			queued = true;
 		}
 
-		// check if a global effect is running
-		TimedEffect globalActiveEffect = ACTIVE_EFFECTS.get(globalKey);
-		if (globalActiveEffect != null && !globalActiveEffect.isComplete()) {
+		// atomically check that no effect is running on any targeted streamer and claim them
+		if (!ENGINE.acquire(this)) {
 			try {
-				request.buildResponse().type(Response.ResultType.RETRY).message("Timed effect is already running").send();
+				request.buildResponse().type(Response.ResultType.RETRY).message("Timed effect is already running").sendAsync();
 			} catch (Exception e) {
 				logger.error("Failed to send retry response", e);
 			}
 			return;
 		}
 
-		// check if a per-streamer effect is running (on any targeted streamer)
-		for (MapKey mapKey : mapKeys) {
-			TimedEffect activeEffect = ACTIVE_EFFECTS.get(mapKey);
-			if (activeEffect != null && !activeEffect.isComplete()) {
-				try {
-					request.buildResponse().type(Response.ResultType.RETRY).message("Timed effect is already running").send();
-				} catch (Exception e) {
-					logger.error("Failed to send retry response", e);
-				}
-				return;
-			}
-		}
-
 		// start
 		start();
 	}
 
 	private void start() {
-		ALL_ACTIVE_EFFECTS.put(id, this);
-		// add to active effects if it blocks others
-		if (blocksOthers) {
-			if (mapKeys.length == 0)
-				ACTIVE_EFFECTS.put(globalKey, this);
-			else {
-				for (MapKey mapKey : mapKeys)
-					ACTIVE_EFFECTS.put(mapKey, this);
-			}
-		}
 		// update vars and run callback
-		startedAt = System.currentTimeMillis();
-		duration = originalDuration;
+		synchronized (this) {
+			startedAt = System.currentTimeMillis();
+			duration = originalDuration;
+		}
+		ENGINE.active.put(id, this);
 		Response.Builder response;
 		try {
 			response = callback.apply(this);
 		} catch (Throwable exception) {
 			logger.error("Exception occurred during starting callback", exception);
 			try {
-				request.buildResponse().type(Response.ResultType.FAILURE).message("Requested effect failed to execute").send();
+				request.buildResponse().type(Response.ResultType.FAILURE).message("Requested effect failed to execute").sendAsync();
 			} catch (Exception e) {
 				logger.error("Failed to send failure response", e);
 			}
 
-			duration = -1;
-			if (blocksOthers) {
-				if (mapKeys.length == 0)
-					ACTIVE_EFFECTS.remove(globalKey, this);
-				else {
-					for (MapKey mapKey : mapKeys)
-						ACTIVE_EFFECTS.remove(mapKey, this);
-				}
+			synchronized (this) {
+				duration = -1;
 			}
+			ENGINE.active.remove(id, this);
+			ENGINE.release(this);
 			return;
 		}
 
@@ -338,12 +300,16 @@ public final class TimedEffect {
 		if (response.type() == null)
 			response.type(Response.ResultType.SUCCESS);
 		if (response.type() == Response.ResultType.SUCCESS) {
-			response.timeRemaining(duration);
-			future = EXECUTOR.schedule(() -> complete(), duration, TimeUnit.MILLISECONDS);
+			synchronized (this) {
+				response.timeRemaining(duration);
+				// the callback may have already paused or completed the effect
+				if (!paused && duration != -1)
+					future = TIMER.schedule(() -> complete(), duration, TimeUnit.MILLISECONDS);
+			}
 		}
 
 		try {
-			response.send();
+			response.sendAsync();
 		} catch (Exception e) {
 			logger.error("Failed to send start response", e);
 		}
@@ -357,18 +323,23 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("2.1.0")
 	public void pause() throws IllegalStateException { // TODO: change to boolean return in major version
-		if (future == null || startedAt == -1)
-			throw new IllegalStateException("Effect has not started");
-		if (paused)
-			throw new IllegalStateException("Effect is already paused");
-		if (duration == -1)
-			throw new IllegalStateException("Effect has already completed");
-
-		duration = getCurrentDuration().toMillis();
-		if (duration <= 0)
-			throw new IllegalStateException("Effect has already completed");
-
-		future.cancel(false);
+		long remaining;
+		synchronized (this) {
+			if (future == null || startedAt == -1)
+				throw new IllegalStateException("Effect has not started");
+			if (paused)
+				throw new IllegalStateException("Effect is already paused");
+			if (duration == -1)
+				throw new IllegalStateException("Effect has already completed");
+
+			remaining = getCurrentDuration().toMillis();
+			if (remaining <= 0)
+				throw new IllegalStateException("Effect has already completed");
+
+			future.cancel();
+			duration = remaining;
+			paused = true;
+		}
 
 		Consumer<TimedEffect> callback = pauseCallback != null ? pauseCallback : completionCallback;
 		if (callback != null) {
@@ -379,9 +350,8 @@ public final class TimedEffect {
 			}
 		}
 
-		paused = true;
 		try {
-			request.buildResponse().type(Response.ResultType.PAUSED).timeRemaining(duration).send();
+			request.buildResponse().type(Response.ResultType.PAUSED).timeRemaining(remaining).sendAsync();
 		} catch (Exception e) {
 			logger.error("Failed to send pause response", e);
 		}
@@ -395,12 +365,19 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("2.1.0")
 	public void resume() throws IllegalStateException {
-		if (!paused)
-			throw new IllegalStateException("Effect was not paused");
-		if (duration <= 0)
-			throw new IllegalStateException("Effect has already completed");
-		if (startedAt == -1)
-			throw new IllegalStateException("Effect has not started");
+		long remaining;
+		synchronized (this) {
+			if (!paused)
+				throw new IllegalStateException("Effect was not paused");
+			if (duration <= 0)
+				throw new IllegalStateException("Effect has already completed");
+			if (startedAt == -1)
+				throw new IllegalStateException("Effect has not started");
+
+			remaining = duration;
+			paused = false;
+			startedAt = System.currentTimeMillis();
+		}
 
 		Consumer<TimedEffect> callback = resumeCallback != null ? resumeCallback : this.callback::apply;
 		try {
@@ -409,14 +386,16 @@ public final class TimedEffect {
 			logger.error("Exception occurred during resume callback", e);
 		}
 
-		paused = false;
-		startedAt = System.currentTimeMillis();
 		try {
-			request.buildResponse().type(Response.ResultType.RESUMED).timeRemaining(duration).send();
+			request.buildResponse().type(Response.ResultType.RESUMED).timeRemaining(remaining).sendAsync();
 		} catch (Exception e) {
 			logger.error("Failed to send resumed response", e);
 		}
-		future = EXECUTOR.schedule(() -> complete(), duration, TimeUnit.MILLISECONDS);
+		synchronized (this) {
+			// the callback may have already paused or completed the effect
+			if (!paused && duration != -1)
+				future = TIMER.schedule(() -> complete(), duration - (System.currentTimeMillis() - startedAt), TimeUnit.MILLISECONDS);
+		}
 	}
 
 	/**
@@ -446,25 +425,22 @@ public final class TimedEffect {
 	 */
 	@ApiStatus.AvailableSince("3.3.3")
 	public boolean complete(boolean executeCompletionCallback) throws IllegalStateException {
-		if (startedAt == -1)
-			throw new IllegalStateException("Effect has not started");
-		if (duration == -1)
-			return false;
-		duration = -1;
-
-		ALL_ACTIVE_EFFECTS.remove(id, this);
-		ALL_PAUSED_EFFECTS.remove(id, this);
-		if (blocksOthers) {
-			if (mapKeys.length == 0)
-				ACTIVE_EFFECTS.remove(globalKey, this);
-			else {
-				for (MapKey mapKey : mapKeys)
-					ACTIVE_EFFECTS.remove(mapKey, this);
-			}
+		synchronized (this) {
+			if (startedAt == -1)
+				throw new IllegalStateException("Effect has not started");
+			if (duration == -1)
+				return false;
+			duration = -1;
+			if (future != null)
+				future.cancel();
 		}
 
+		ENGINE.active.remove(id, this);
+		ENGINE.paused.remove(id, this);
+		ENGINE.release(this);
+
 		try {
-			request.buildResponse().type(Response.ResultType.FINISHED).send();
+			request.buildResponse().type(Response.ResultType.FINISHED).sendAsync();
 		} catch (Exception e) {
 			logger.error("Failed to send finished response", e);
 		}
@@ -595,33 +571,12 @@ public final class TimedEffect {
 		return new Builder(this);
 	}
 
-	// key class
-
-	private static final class MapKey {
-		private final @NotNull String effectGroup;
-		private final Request.@Nullable Target target;
-
-		private MapKey(@NotNull String effectGroup) {
-			this(effectGroup, null);
-		}
-
-		private MapKey(@NotNull String effectGroup, Request.@Nullable Target target) {
-			this.effectGroup = effectGroup;
-			this.target = target;
-		}
-
-		@Override
-		public boolean equals(Object o) {
-			if (this == o) return true;
-			if (o == null || getClass() != o.getClass()) return false;
-			MapKey mapKey = (MapKey) o;
-			return effectGroup.equals(mapKey.effectGroup) && Objects.equals(target, mapKey.target);
-		}
+	TimedEffectEngine.@NotNull Key globalKey() {
+		return globalKey;
+	}
 
-		@Override
-		public int hashCode() {
-			return Objects.hash(effectGroup, target);
-		}
+	TimedEffectEngine.@NotNull Key @NotNull [] keys() {
+		return mapKeys;
 	}
 
 	/**
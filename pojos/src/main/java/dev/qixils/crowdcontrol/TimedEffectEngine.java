@@ -0,0 +1,147 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks the state of every {@link TimedEffect} so that it may be safely read and modified by any
+ * number of threads.
+ * <p>
+ * Blocking effects are keyed by their effect group and target. Reads never lock, while claiming or
+ * releasing the keys of an effect locks one of several stripes selected by the effect's group, so
+ * that an effect claims all of its keys atomically without contending with unrelated groups.
+ */
+final class TimedEffectEngine {
+	static final @NotNull TimedEffectEngine INSTANCE = new TimedEffectEngine();
+	private final @NotNull ConcurrentMap<Key, TimedEffect> blocking = new ConcurrentHashMap<>();
+	final @NotNull ConcurrentMap<UUID, TimedEffect> active = new ConcurrentHashMap<>();
+	final @NotNull ConcurrentMap<UUID, TimedEffect> paused = new ConcurrentHashMap<>();
+	private final @NotNull Object @NotNull [] stripes;
+
+	TimedEffectEngine() {
+		int count = 1;
+		while (count < Runtime.getRuntime().availableProcessors() * 4)
+			count <<= 1;
+		stripes = new Object[count];
+		for (int i = 0; i < count; i++)
+			stripes[i] = new Object();
+	}
+
+	private @NotNull Object stripe(@NotNull String effectGroup) {
+		int hash = effectGroup.hashCode();
+		return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+	}
+
+	/**
+	 * Determines if an incomplete effect is blocking a key.
+	 *
+	 * @param key key to check
+	 * @return true if the key is blocked
+	 */
+	private boolean isBlocked(@NotNull Key key) {
+		TimedEffect effect = blocking.get(key);
+		return effect != null && !effect.isComplete();
+	}
+
+	/**
+	 * Determines if a blocking effect is active for the global key of an effect group or for any of
+	 * the given targets.
+	 *
+	 * @param effectGroup effect group
+	 * @param targets     targeted streamers
+	 * @return true if an effect is active
+	 */
+	boolean isActive(@NotNull String effectGroup, Request.@Nullable Target @Nullable [] targets) {
+		if (targets != null) {
+			for (Request.Target target : targets) {
+				if (target == null)
+					throw new IllegalArgumentException("targets cannot be null");
+				if (isBlocked(new Key(effectGroup, target)))
+					return true;
+			}
+		}
+		return isBlocked(new Key(effectGroup, null));
+	}
+
+	/**
+	 * Atomically checks that an effect is not blocked and, if it blocks others, claims its keys.
+	 *
+	 * @param effect effect which is starting
+	 * @return true if the effect may start, or false if it is blocked by another effect
+	 */
+	boolean acquire(@NotNull TimedEffect effect) {
+		Key[] keys = effect.keys();
+		synchronized (stripe(effect.getEffectGroup())) {
+			if (effect.waits()) {
+				if (isBlocked(effect.globalKey()))
+					return false;
+				for (Key key : keys) {
+					if (isBlocked(key))
+						return false;
+				}
+			}
+			if (effect.blocks()) {
+				if (keys.length == 0)
+					blocking.put(effect.globalKey(), effect);
+				else {
+					for (Key key : keys)
+						blocking.put(key, effect);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Releases the keys claimed by an effect.
+	 *
+	 * @param effect effect which is no longer running
+	 */
+	void release(@NotNull TimedEffect effect) {
+		if (!effect.blocks())
+			return;
+		Key[] keys = effect.keys();
+		synchronized (stripe(effect.getEffectGroup())) {
+			if (keys.length == 0)
+				blocking.remove(effect.globalKey(), effect);
+			else {
+				for (Key key : keys)
+					blocking.remove(key, effect);
+			}
+		}
+	}
+
+	/**
+	 * The effect group and target which a blocking effect is claiming.
+	 */
+	static final class Key {
+		private final @NotNull String effectGroup;
+		final Request.@Nullable Target target;
+		private final int hash;
+
+		Key(@NotNull String effectGroup, Request.@Nullable Target target) {
+			this.effectGroup = effectGroup;
+			this.target = target;
+			this.hash = 31 * effectGroup.hashCode() + Objects.hashCode(target);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return hash == key.hash && effectGroup.equals(key.effectGroup) && Objects.equals(target, key.target);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -13,7 +13,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.function.Function;
 
 class ByteAdapter<T extends ByteObject> extends TypeAdapter<T> {
 	static final @NotNull Gson GSON = new GsonBuilder()
@@ -23,11 +22,12 @@ class ByteAdapter<T extends ByteObject> extends TypeAdapter<T> {
 			.registerTypeAdapter(Response.PacketType.class, new ByteAdapter<>(Response.PacketType::from))
 			.registerTypeAdapter(IdType.class, new ByteAdapter<>(IdType::from))
 			.registerTypeAdapter(Duration.class, new DurationAdapter())
+			.registerTypeAdapterFactory(new PacketAdapterFactory())
 			.create();
 
-	private final @NotNull Function<@NotNull Byte, @Nullable T> fromByte;
+	private final @NotNull Decoder<T> fromByte;
 
-	public ByteAdapter(@NotNull Function<@NotNull Byte, @NotNull T> fromByte) {
+	public ByteAdapter(@NotNull Decoder<T> fromByte) {
 		this.fromByte = ExceptionUtil.validateNotNull(fromByte, "fromByte");
 	}
 
@@ -49,6 +49,22 @@ class ByteAdapter<T extends ByteObject> extends TypeAdapter<T> {
 			in.nextNull();
 			return null;
 		}
-		return fromByte.apply((byte) in.nextInt());
+		return fromByte.from((byte) in.nextInt());
+	}
+
+	/**
+	 * Maps an encoded byte to its corresponding object without boxing it.
+	 *
+	 * @param <T> the type of the object
+	 */
+	@FunctionalInterface
+	interface Decoder<T> {
+		/**
+		 * Gets the object corresponding to an encoded byte.
+		 *
+		 * @param encodedByte byte used in JSON encoding
+		 * @return corresponding object if applicable
+		 */
+		@Nullable T from(byte encodedByte);
 	}
 }
@@ -0,0 +1,228 @@
+package dev.qixils.crowdcontrol.socket;
+
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.CheckReturnValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a stream of 0x00-terminated packets into individual frames.
+ * <p>
+ * Unlike {@link JsonObject#fromInputStream(InputStream, java.util.function.Function)}, which
+ * reads a single byte at a time, this decoder reads from the underlying stream in bulk and
+ * retains any bytes belonging to subsequent frames for the next call. A single decoder should
+ * therefore be created per connection and reused for its entire lifetime.
+ * <p>
+ * Frames returned by this decoder are views of its internal buffer and are only valid until
+ * the next call to {@link #readFrame()}, {@link #pollFrame()}, or {@link #feed(ByteBuffer)}.
+ * This class is not thread-safe.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.Internal
+@ApiStatus.AvailableSince("3.10.0")
+public final class FrameDecoder {
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	private final @Nullable InputStream input;
+	private byte @NotNull [] buffer;
+	private int start = 0; // start of the first unconsumed frame
+	private int scanned = 0; // bytes before this index are known to not contain a terminator
+	private int end = 0; // end of the buffered data
+	private boolean endOfStream = false;
+	private final @NotNull CharsetDecoder charsetDecoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/**
+	 * Creates a new decoder which reads from the provided input stream.
+	 *
+	 * @param input an input stream of 0x00-terminated packets
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public FrameDecoder(@NotNull InputStream input) {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new decoder which reads from the provided input stream.
+	 *
+	 * @param input      an input stream of 0x00-terminated packets
+	 * @param bufferSize initial size of the read buffer
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public FrameDecoder(@NotNull InputStream input, int bufferSize) {
+		this.input = ExceptionUtil.validateNotNull(input, "input");
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("bufferSize must be positive");
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * Creates a new decoder which is not attached to a stream.
+	 * Data must instead be supplied using {@link #feed(ByteBuffer)}.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public FrameDecoder() {
+		this.input = null;
+		this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+	}
+
+	/**
+	 * Appends the remaining bytes of the provided buffer to this decoder.
+	 *
+	 * @param data incoming data
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void feed(@NotNull ByteBuffer data) {
+		ExceptionUtil.validateNotNull(data, "data");
+		int length = data.remaining();
+		ensureCapacity(length);
+		data.get(buffer, end, length);
+		end += length;
+	}
+
+	/**
+	 * Returns the next complete frame held in the buffer, excluding its terminator,
+	 * without reading from the underlying stream.
+	 *
+	 * @return the next frame, or {@code null} if no complete frame has been buffered
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public @Nullable ByteBuffer pollFrame() {
+		for (int i = scanned; i < end; i++) {
+			if (buffer[i] == 0) {
+				ByteBuffer frame = ByteBuffer.wrap(buffer, start, i - start).slice();
+				start = i + 1;
+				scanned = start;
+				return frame;
+			}
+		}
+		scanned = end;
+		return null;
+	}
+
+	/**
+	 * Reads the next frame from the underlying stream, excluding its terminator.
+	 * If the stream ends before a terminator is found, the remaining data (which may be empty)
+	 * is returned as the final frame.
+	 *
+	 * @return the next frame
+	 * @throws IOException if an I/O error occurs in the input stream
+	 * @throws IllegalStateException if this decoder is not attached to a stream
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@NotNull
+	public ByteBuffer readFrame() throws IOException, IllegalStateException {
+		if (input == null)
+			throw new IllegalStateException("Decoder is not attached to a stream");
+
+		while (true) {
+			ByteBuffer frame = pollFrame();
+			if (frame != null)
+				return frame;
+
+			if (endOfStream) {
+				frame = ByteBuffer.wrap(buffer, start, end - start).slice();
+				start = end;
+				scanned = end;
+				return frame;
+			}
+
+			ensureCapacity(1);
+			int read = input.read(buffer, end, buffer.length - end);
+			if (read == -1)
+				endOfStream = true;
+			else
+				end += read;
+		}
+	}
+
+	/**
+	 * Creates a reader which decodes the UTF-8 contents of a frame returned by this decoder.
+	 * The reader is only valid until the next frame is requested.
+	 *
+	 * @param frame a frame returned by this decoder
+	 * @return a reader of the frame's characters
+	 */
+	@NotNull
+	Reader openReader(@NotNull ByteBuffer frame) {
+		return new FrameReader(frame, charsetDecoder);
+	}
+
+	/**
+	 * Ensures that at least {@code length} bytes may be appended to the buffer,
+	 * discarding consumed frames and growing the buffer as necessary.
+	 *
+	 * @param length number of bytes to be appended
+	 */
+	private void ensureCapacity(int length) {
+		if (buffer.length - end >= length)
+			return;
+
+		// discard consumed frames
+		if (start > 0) {
+			System.arraycopy(buffer, start, buffer, 0, end - start);
+			end -= start;
+			scanned -= start;
+			start = 0;
+		}
+
+		// grow buffer
+		if (buffer.length - end < length) {
+			int size = buffer.length;
+			while (size - end < length)
+				size *= 2;
+			buffer = Arrays.copyOf(buffer, size);
+		}
+	}
+
+	/**
+	 * Determines if the provided string consists solely of whitespace.
+	 *
+	 * @param string string to check
+	 * @return true if the string is empty or only contains whitespace
+	 */
+	static boolean isBlank(@NotNull String string) {
+		for (int i = 0; i < string.length(); i++) {
+			if (!Character.isWhitespace(string.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if the provided UTF-8 frame consists solely of whitespace without decoding it.
+	 * Only the ASCII characters considered whitespace by {@link Character#isWhitespace(char)}
+	 * are recognized; as JSON does not permit any others outside of strings, frames containing
+	 * other whitespace are left for the JSON parser to reject.
+	 *
+	 * @param frame frame to check
+	 * @return true if the frame is empty or only contains whitespace
+	 */
+	static boolean isBlank(@NotNull ByteBuffer frame) {
+		for (int i = frame.position(); i < frame.limit(); i++) {
+			byte b = frame.get(i);
+			if (b != ' ' && (b < 0x09 || b > 0x0D) && (b < 0x1C || b > 0x1F))
+				return false;
+		}
+		return true;
+	}
+}
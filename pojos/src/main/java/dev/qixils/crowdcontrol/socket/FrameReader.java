@@ -0,0 +1,67 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Decodes the UTF-8 contents of a single frame directly into the caller's character buffer,
+ * avoiding the creation of an intermediate {@link String} for the entire frame.
+ */
+final class FrameReader extends Reader {
+	private final @NotNull ByteBuffer frame;
+	private final @NotNull CharsetDecoder decoder;
+	private final @NotNull CharBuffer spill = CharBuffer.allocate(2);
+	private boolean flushed = false;
+
+	FrameReader(@NotNull ByteBuffer frame, @NotNull CharsetDecoder decoder) {
+		this.frame = frame;
+		this.decoder = decoder;
+		decoder.reset();
+	}
+
+	@Override
+	public int read(char @NotNull [] cbuf, int off, int len) {
+		if (len == 0)
+			return 0;
+
+		// emit the remainder of a surrogate pair which did not fit in the previous call
+		if (spill.position() > 0) {
+			spill.flip();
+			cbuf[off] = spill.get();
+			spill.compact();
+			return 1;
+		}
+
+		if (flushed)
+			return -1;
+
+		CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+		CoderResult result = decoder.decode(frame, out, true);
+		if (result.isOverflow() && out.position() == off) {
+			// a surrogate pair does not fit in the caller's buffer; split it up
+			decoder.decode(frame, spill, true);
+			spill.flip();
+			cbuf[off] = spill.get();
+			spill.compact();
+			return 1;
+		}
+		if (result.isUnderflow() && !frame.hasRemaining()) {
+			// input exhausted; emit any trailing state
+			if (decoder.flush(out).isUnderflow())
+				flushed = true;
+		}
+
+		int read = out.position() - off;
+		return read == 0 && flushed ? -1 : read;
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+}
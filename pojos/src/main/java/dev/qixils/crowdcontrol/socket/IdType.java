@@ -5,8 +5,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.CheckReturnValue;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * A type of effect identifier.
@@ -45,13 +43,11 @@ public enum IdType implements ByteObject {
 		return encodedByte;
 	}
 
-	private static final @NotNull Map<@NotNull Byte, @NotNull IdType> BY_BYTE;
+	private static final IdType @NotNull [] BY_BYTE = new IdType[256];
 
 	static {
-		Map<Byte, IdType> map = new HashMap<>(values().length);
 		for (IdType type : values())
-			map.put(type.getEncodedByte(), type);
-		BY_BYTE = map;
+			BY_BYTE[type.getEncodedByte() & 0xFF] = type;
 	}
 
 	/**
@@ -65,6 +61,6 @@ public enum IdType implements ByteObject {
 	@ApiStatus.Internal
 	@CheckReturnValue
 	public static @Nullable IdType from(byte encodedByte) {
-		return BY_BYTE.get(encodedByte);
+		return BY_BYTE[encodedByte & 0xFF];
 	}
 }
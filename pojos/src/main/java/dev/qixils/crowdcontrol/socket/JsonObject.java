@@ -8,6 +8,8 @@ import org.jetbrains.annotations.Nullable;
 import javax.annotation.CheckReturnValue;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.function.Function;
@@ -28,8 +30,10 @@ public interface JsonObject {
 	 * @return the parsed POJO
 	 * @throws IOException if an I/O error occurs in the input stream
 	 * @since 3.3.0
+	 * @deprecated reads a single byte at a time; use {@link #fromFrameDecoder(FrameDecoder, Function)}
 	 */
 	@Nullable
+	@Deprecated
 	@CheckReturnValue
 	@ApiStatus.Internal
 	@ApiStatus.AvailableSince("3.3.0")
@@ -61,14 +65,7 @@ public interface JsonObject {
 		String inJSON = new String(buffer, StandardCharsets.UTF_8);
 
 		// ensure string is not blank
-		boolean eligible = false;
-		for (char chr : inJSON.toCharArray()) {
-			if (!Character.isWhitespace(chr)) {
-				eligible = true;
-				break;
-			}
-		}
-		if (!eligible)
+		if (FrameDecoder.isBlank(inJSON))
 			return null;
 
 		//LoggerFactory.getLogger("CrowdControl/JsonObject").info(inJSON);
@@ -77,6 +74,54 @@ public interface JsonObject {
 		return jsonMapper.apply(inJSON);
 	}
 
+	/**
+	 * Obtains a JSON object from the next frame of a connection's {@link FrameDecoder}.
+	 *
+	 * The frame is decoded directly from the decoder's buffer without being copied into a
+	 * {@link String}.
+	 *
+	 * @param decoder    the decoder of the connection
+	 * @param jsonMapper a function that maps a reader of JSON data to a POJO
+	 * @param <T>        the type of the POJO
+	 * @return the parsed POJO, or {@code null} if the frame was blank
+	 * @throws IOException if an I/O error occurs in the input stream
+	 * @since 3.10.0
+	 */
+	@Nullable
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	static <T> T fromFrameDecoder(@NotNull FrameDecoder decoder, @NotNull Function<@NotNull Reader, @Nullable T> jsonMapper) throws IOException {
+		ExceptionUtil.validateNotNull(decoder, "decoder");
+		ExceptionUtil.validateNotNull(jsonMapper, "jsonMapper");
+
+		return fromFrame(decoder, decoder.readFrame(), jsonMapper);
+	}
+
+	/**
+	 * Obtains a JSON object from a frame which was returned by a {@link FrameDecoder}.
+	 *
+	 * @param decoder    the decoder which returned the frame
+	 * @param frame      the frame to parse
+	 * @param jsonMapper a function that maps a reader of JSON data to a POJO
+	 * @param <T>        the type of the POJO
+	 * @return the parsed POJO, or {@code null} if the frame was blank
+	 * @since 3.10.0
+	 */
+	@Nullable
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	static <T> T fromFrame(@NotNull FrameDecoder decoder, @NotNull ByteBuffer frame, @NotNull Function<@NotNull Reader, @Nullable T> jsonMapper) {
+		ExceptionUtil.validateNotNull(decoder, "decoder");
+		ExceptionUtil.validateNotNull(frame, "frame");
+		ExceptionUtil.validateNotNull(jsonMapper, "jsonMapper");
+
+		if (FrameDecoder.isBlank(frame))
+			return null;
+		return jsonMapper.apply(decoder.openReader(frame));
+	}
+
 	/**
 	 * Converts this object to its JSON representation.
 	 *
@@ -0,0 +1,161 @@
+package dev.qixils.crowdcontrol.socket;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GSON factory which supplies the hand-written adapters of {@link Request}, {@link Request.Target},
+ * and {@link Response}.
+ * <p>
+ * These adapters stream each field directly instead of relying on GSON's reflective adapter.
+ * Their output must remain identical to that of the reflective adapter, so fields are written in
+ * declaration order, null fields are omitted, and values are read using the same coercion rules
+ * as GSON's built-in adapters.
+ */
+class PacketAdapterFactory implements TypeAdapterFactory {
+
+	/**
+	 * Constructs a new {@link PacketAdapterFactory}.
+	 */
+	public PacketAdapterFactory() {
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable TypeAdapter<T> create(@NotNull Gson gson, @NotNull TypeToken<T> type) {
+		Class<? super T> rawType = type.getRawType();
+		if (rawType == Request.class)
+			return (TypeAdapter<T>) new Request.Adapter(gson);
+		if (rawType == Request.Target.class)
+			return (TypeAdapter<T>) new Request.Target.Adapter();
+		if (rawType == Response.class)
+			return (TypeAdapter<T>) new Response.Adapter(gson);
+		return null;
+	}
+
+	/**
+	 * Reads a nullable string, coercing booleans and numbers like GSON's built-in adapter.
+	 *
+	 * @param in JSON reader
+	 * @return read string
+	 * @throws IOException the string could not be read
+	 */
+	static @Nullable String readString(@NotNull JsonReader in) throws IOException {
+		JsonToken peek = in.peek();
+		if (peek == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		if (peek == JsonToken.BOOLEAN)
+			return Boolean.toString(in.nextBoolean());
+		return in.nextString();
+	}
+
+	/**
+	 * Reads a nullable integer like GSON's built-in adapter.
+	 *
+	 * @param in JSON reader
+	 * @return read integer
+	 * @throws IOException the integer could not be read
+	 */
+	static @Nullable Integer readInteger(@NotNull JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		try {
+			return in.nextInt();
+		} catch (NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	/**
+	 * Reads a nullable boolean, coercing strings like GSON's built-in adapter.
+	 *
+	 * @param in JSON reader
+	 * @return read boolean
+	 * @throws IOException the boolean could not be read
+	 */
+	static @Nullable Boolean readBoolean(@NotNull JsonReader in) throws IOException {
+		JsonToken peek = in.peek();
+		if (peek == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		if (peek == JsonToken.STRING)
+			return Boolean.parseBoolean(in.nextString());
+		return in.nextBoolean();
+	}
+
+	/**
+	 * Reads a nullable array of strings.
+	 *
+	 * @param in JSON reader
+	 * @return read array
+	 * @throws IOException the array could not be read
+	 */
+	static String @Nullable [] readStringArray(@NotNull JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		List<String> list = new ArrayList<>();
+		in.beginArray();
+		while (in.hasNext())
+			list.add(readString(in));
+		in.endArray();
+		return list.toArray(new String[0]);
+	}
+
+	/**
+	 * Writes the encoded byte of a {@link ByteObject} like {@link ByteAdapter}.
+	 *
+	 * @param out   JSON writer
+	 * @param name  name of the field
+	 * @param value value to write, or {@code null} to omit the field
+	 * @throws IOException the value could not be written
+	 */
+	static void writeByte(@NotNull JsonWriter out, @NotNull String name, @Nullable ByteObject value) throws IOException {
+		if (value == null) return;
+		out.name(name).value(value.getEncodedByte() & 0xFF);
+	}
+
+	/**
+	 * Writes a string field.
+	 *
+	 * @param out   JSON writer
+	 * @param name  name of the field
+	 * @param value value to write, or {@code null} to omit the field
+	 * @throws IOException the value could not be written
+	 */
+	static void writeString(@NotNull JsonWriter out, @NotNull String name, @Nullable String value) throws IOException {
+		if (value == null) return;
+		out.name(name).value(value);
+	}
+
+	/**
+	 * Writes a numeric field.
+	 *
+	 * @param out   JSON writer
+	 * @param name  name of the field
+	 * @param value value to write, or {@code null} to omit the field
+	 * @throws IOException the value could not be written
+	 */
+	static void writeInteger(@NotNull JsonWriter out, @NotNull String name, @Nullable Integer value) throws IOException {
+		if (value == null) return;
+		out.name(name).value(value.longValue());
+	}
+}
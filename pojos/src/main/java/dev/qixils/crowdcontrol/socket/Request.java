@@ -1,7 +1,13 @@
 package dev.qixils.crowdcontrol.socket;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.qixils.crowdcontrol.TriState;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
 import dev.qixils.crowdcontrol.util.PostProcessable;
@@ -13,12 +19,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
+import java.io.IOException;
+import java.io.Reader;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
 import java.time.Duration;
 import java.util.*;
 
+import static dev.qixils.crowdcontrol.socket.PacketAdapterFactory.*;
 import static dev.qixils.crowdcontrol.util.StringUtils.repr;
 
 /**
@@ -32,6 +41,7 @@ public class Request implements JsonObject, Respondable {
 	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/Request");
 	private transient @Nullable SocketManager originatingSocket;
 	private transient @Nullable Source source;
+	private transient long receivedTime;
 	private int id;
 	private Type type;
 	@SerializedName("code")
@@ -153,6 +163,27 @@ public class Request implements JsonObject, Respondable {
 		return ByteAdapter.GSON.fromJson(json, Request.class);
 	}
 
+	/**
+	 * Creates a {@link Request} object from a reader of JSON data.
+	 *
+	 * @param json reader of input json data from the Crowd Control TCP server
+	 * @return a new Request object
+	 * @throws JsonParseException the JSON failed to be parsed
+	 * @since 3.10.0
+	 */
+	@NotNull
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public static Request fromJSON(@NotNull Reader json) throws JsonParseException {
+		ExceptionUtil.validateNotNull(json, "json");
+		Request request = ByteAdapter.GSON.fromJson(json, Request.class);
+		if (request == null)
+			throw new JsonSyntaxException("Packet is empty");
+		logger.debug("Incoming Packet: {}", request);
+		return request;
+	}
+
 	/**
 	 * Gets the ID of the incoming packet. Corresponds to a unique transaction.
 	 *
@@ -395,6 +426,33 @@ public class Request implements JsonObject, Respondable {
 		this.originatingSocket = originatingSocket;
 	}
 
+	/**
+	 * Gets the time at which this {@link Request} was received from its socket, as measured by
+	 * {@link System#nanoTime()}.
+	 *
+	 * @return receive time in nanoseconds, or {@code 0} if the request was not received from a socket
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public long getReceivedTime() {
+		return receivedTime;
+	}
+
+	/**
+	 * Sets the time at which this {@link Request} was received from its socket.
+	 * <p>
+	 * This method is for internal use only.
+	 *
+	 * @param receivedTime receive time as measured by {@link System#nanoTime()}
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@ApiStatus.Internal
+	public void setReceivedTime(long receivedTime) {
+		this.receivedTime = receivedTime;
+	}
+
 	/**
 	 * Gets the {@link Source streamer} that this {@link Request} originated from.
 	 *
@@ -576,13 +634,11 @@ public class Request implements JsonObject, Respondable {
 		@ApiStatus.Internal
 		KEEP_ALIVE(TriState.FALSE, (byte) 0xFF); // 255
 
-		private static final @NotNull Map<Byte, Type> BY_BYTE;
+		private static final Type @NotNull [] BY_BYTE = new Type[256];
 
 		static {
-			Map<Byte, Type> map = new HashMap<>(values().length);
 			for (Type type : values())
-				map.put(type.encodedByte, type);
-			BY_BYTE = map;
+				BY_BYTE[type.encodedByte & 0xFF] = type;
 		}
 
 		private final @NotNull TriState isStandard;
@@ -609,7 +665,7 @@ public class Request implements JsonObject, Respondable {
 		@ApiStatus.AvailableSince("3.0.0")
 		@CheckReturnValue
 		public static @Nullable Type from(byte encodedByte) {
-			return BY_BYTE.get(encodedByte);
+			return BY_BYTE[encodedByte & 0xFF];
 		}
 
 		@ApiStatus.Internal
@@ -1080,6 +1136,68 @@ public class Request implements JsonObject, Respondable {
 				return new Target(this);
 			}
 		}
+
+		/**
+		 * Streams the fields of a {@link Target} without reflection.
+		 */
+		static final class Adapter extends TypeAdapter<Target> {
+
+			@Override
+			public void write(@NotNull JsonWriter out, @Nullable Target value) throws IOException {
+				if (value == null) {
+					out.nullValue();
+					return;
+				}
+				out.beginObject();
+				writeString(out, "id", value.id);
+				writeString(out, "name", value.name);
+				writeString(out, "login", value.login);
+				writeString(out, "avatar", value.avatar);
+				writeString(out, "service", value.service);
+				writeString(out, "ccUID", value.ccUID);
+				out.endObject();
+			}
+
+			@Override
+			public @Nullable Target read(@NotNull JsonReader in) throws IOException {
+				if (in.peek() == JsonToken.NULL) {
+					in.nextNull();
+					return null;
+				}
+				Target target = new Target();
+				in.beginObject();
+				while (in.hasNext()) {
+					switch (in.nextName()) {
+						case "id":
+						case "originID":
+							target.id = readString(in);
+							break;
+						case "name":
+							target.name = readString(in);
+							break;
+						case "login":
+							target.login = readString(in);
+							break;
+						case "avatar":
+						case "image":
+							target.avatar = readString(in);
+							break;
+						case "service":
+						case "profile":
+							target.service = readString(in);
+							break;
+						case "ccUID":
+							target.ccUID = readString(in);
+							break;
+						default:
+							in.skipValue();
+					}
+				}
+				in.endObject();
+				target.postProcess();
+				return target;
+			}
+		}
 	}
 
 	/**
@@ -1905,4 +2023,124 @@ public class Request implements JsonObject, Respondable {
 			return new Builder(this);
 		}
 	}
+
+	/**
+	 * Streams the fields of a {@link Request} without reflection.
+	 */
+	static final class Adapter extends TypeAdapter<Request> {
+		private final @NotNull TypeAdapter<Type> typeAdapter;
+		private final @NotNull TypeAdapter<Target> targetAdapter;
+		private final @NotNull TypeAdapter<Duration> durationAdapter;
+		private final @NotNull TypeAdapter<Object> objectAdapter;
+
+		Adapter(@NotNull Gson gson) {
+			this.typeAdapter = gson.getAdapter(Type.class);
+			this.targetAdapter = gson.getAdapter(Target.class);
+			this.durationAdapter = gson.getAdapter(Duration.class);
+			this.objectAdapter = gson.getAdapter(Object.class);
+		}
+
+		@Override
+		public void write(@NotNull JsonWriter out, @Nullable Request value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name("id").value(value.id);
+			writeByte(out, "type", value.type);
+			writeString(out, "code", value.effect);
+			writeString(out, "message", value.message);
+			writeString(out, "viewer", value.viewer);
+			writeInteger(out, "cost", value.cost);
+			if (value.targets != null) {
+				out.name("targets").beginArray();
+				for (Target target : value.targets)
+					targetAdapter.write(out, target);
+				out.endArray();
+			}
+			if (value.duration != null)
+				durationAdapter.write(out.name("duration"), value.duration);
+			if (value.value != null)
+				objectAdapter.write(out.name("value"), value.value);
+			writeInteger(out, "quantity", value.quantity);
+			writeString(out, "login", value.login);
+			writeString(out, "password", value.password);
+			if (value.player != null)
+				targetAdapter.write(out.name("player"), value.player);
+			out.endObject();
+		}
+
+		@Override
+		public @Nullable Request read(@NotNull JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			Request request = new Request();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "id":
+						Integer id = readInteger(in);
+						if (id != null)
+							request.id = id;
+						break;
+					case "type":
+						request.type = typeAdapter.read(in);
+						break;
+					case "code":
+						request.effect = readString(in);
+						break;
+					case "message":
+						request.message = readString(in);
+						break;
+					case "viewer":
+						request.viewer = readString(in);
+						break;
+					case "cost":
+						request.cost = readInteger(in);
+						break;
+					case "targets":
+						request.targets = readTargets(in);
+						break;
+					case "duration":
+						request.duration = durationAdapter.read(in);
+						break;
+					case "value":
+						request.value = objectAdapter.read(in);
+						break;
+					case "quantity":
+						request.quantity = readInteger(in);
+						break;
+					case "login":
+						request.login = readString(in);
+						break;
+					case "password":
+						request.password = readString(in);
+						break;
+					case "player":
+						request.player = targetAdapter.read(in);
+						break;
+					default:
+						in.skipValue();
+				}
+			}
+			in.endObject();
+			return request;
+		}
+
+		private Target @Nullable [] readTargets(@NotNull JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			List<Target> targets = new ArrayList<>();
+			in.beginArray();
+			while (in.hasNext())
+				targets.add(targetAdapter.read(in));
+			in.endArray();
+			return targets.toArray(new Target[0]);
+		}
+	}
 }
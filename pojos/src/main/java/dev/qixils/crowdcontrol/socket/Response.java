@@ -1,7 +1,14 @@
 package dev.qixils.crowdcontrol.socket;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
 import org.jetbrains.annotations.*;
 import org.slf4j.Logger;
@@ -9,14 +16,19 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
 import java.io.IOException;
+import java.io.Reader;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
+import static dev.qixils.crowdcontrol.socket.PacketAdapterFactory.*;
 import static dev.qixils.crowdcontrol.util.StringUtils.repr;
 
 /**
@@ -54,6 +66,7 @@ public class Response implements JsonObject {
 	private String eventType;
 	@Nullable
 	private Boolean internal;
+	private transient volatile byte @Nullable [] encoded;
 
 	/**
 	 * Instantiates an empty {@link Response}.
@@ -136,6 +149,25 @@ public class Response implements JsonObject {
 		return ByteAdapter.GSON.fromJson(json, Response.class);
 	}
 
+	/**
+	 * Creates a {@link Response} object from a reader of JSON data.
+	 *
+	 * @param json reader of input json data from the Crowd Control game
+	 * @return a new Response object
+	 * @throws JsonParseException the JSON failed to be parsed
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@NotNull
+	@CheckReturnValue
+	public static Response fromJSON(@NotNull Reader json) throws JsonParseException {
+		ExceptionUtil.validateNotNull(json, "json");
+		Response response = ByteAdapter.GSON.fromJson(json, Response.class);
+		if (response == null)
+			throw new JsonSyntaxException("Packet is empty");
+		return response;
+	}
+
 	/**
 	 * Creates a {@link Response} indicating that the socket connection is being terminated.
 	 *
@@ -358,6 +390,26 @@ public class Response implements JsonObject {
 		return ByteAdapter.GSON.toJson(this);
 	}
 
+	/**
+	 * Outputs this object as a 0x00-terminated UTF-8 JSON packet.
+	 * <p>
+	 * The packet is encoded once and cached so that a response which is broadcast to several
+	 * connections is only serialized a single time. The returned array must not be modified.
+	 *
+	 * @return encoded packet
+	 */
+	@ApiStatus.Internal
+	byte @NotNull [] toBytes() {
+		byte[] bytes = encoded;
+		if (bytes == null) {
+			byte[] json = toJSON().getBytes(StandardCharsets.UTF_8);
+			// array copy adds the 0x00 byte which indicates the end of the packet
+			bytes = Arrays.copyOf(json, json.length + 1);
+			encoded = bytes;
+		}
+		return bytes;
+	}
+
 	/**
 	 * Creates a mutable {@link Builder} with a copy of the data in this {@link Response}.
 	 *
@@ -464,6 +516,31 @@ public class Response implements JsonObject {
 		}
 	}
 
+	/**
+	 * Sends this {@link Response} to the client or server that delivered the related {@link Request}
+	 * without waiting for it to be written to the socket.
+	 * <p>
+	 * This is preferable to {@link #send()} when responding from a thread which should not block
+	 * on network I/O, such as a game's main thread.
+	 *
+	 * @return a future which completes with whether the response was successfully sent
+	 *         (false if an IOException occurred, true otherwise)
+	 * @throws IllegalStateException if {@link #isOriginKnown()} returns false
+	 *                               (i.e. the response was created without a {@link Request})
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull CompletableFuture<@NotNull Boolean> sendAsync() throws IllegalStateException {
+		return rawSendAsync().handle((ignored, exc) -> {
+			if (exc == null)
+				return true;
+			if (exc instanceof CompletionException && exc.getCause() != null)
+				exc = exc.getCause();
+			logger.warn("Failed to write response to socket", exc);
+			return false;
+		});
+	}
+
 	void rawSend() throws IllegalStateException, IOException {
 		if (originatingSocket == null) {
 			throw new IllegalStateException("Response was constructed without a Request and thus cannot find where to be sent");
@@ -476,6 +553,18 @@ public class Response implements JsonObject {
 		originatingSocket.write(this);
 	}
 
+	@NotNull CompletableFuture<Void> rawSendAsync() throws IllegalStateException {
+		if (originatingSocket == null) {
+			throw new IllegalStateException("Response was constructed without a Request and thus cannot find where to be sent");
+		}
+
+		if (originatingSocket.isClosed()) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return originatingSocket.writeAsync(this);
+	}
+
 	/**
 	 * Determines the type of packet being sent.
 	 *
@@ -548,13 +637,11 @@ public class Response implements JsonObject {
 		@ApiStatus.Internal
 		KEEP_ALIVE(false, false, (byte) 0xFF); // 255
 
-		private static final Map<Byte, PacketType> BY_BYTE;
+		private static final PacketType @NotNull [] BY_BYTE = new PacketType[256];
 
 		static {
-			Map<Byte, PacketType> map = new HashMap<>(values().length);
 			for (PacketType type : values())
-				map.put(type.encodedByte, type);
-			BY_BYTE = map;
+				BY_BYTE[type.encodedByte & 0xFF] = type;
 		}
 
 		private final byte encodedByte;
@@ -584,7 +671,7 @@ public class Response implements JsonObject {
 		@ApiStatus.Internal
 		@CheckReturnValue
 		public static @Nullable PacketType from(byte encodedByte) {
-			return BY_BYTE.get(encodedByte);
+			return BY_BYTE[encodedByte & 0xFF];
 		}
 
 		@ApiStatus.AvailableSince("3.0.0")
@@ -735,13 +822,11 @@ public class Response implements JsonObject {
 		@ApiStatus.Internal
 		NOT_READY(true, false, (byte) 0xFF); // 255
 
-		private static final Map<Byte, ResultType> BY_BYTE;
+		private static final ResultType @NotNull [] BY_BYTE = new ResultType[256];
 
 		static {
-			Map<Byte, ResultType> map = new HashMap<>(values().length);
 			for (ResultType type : values())
-				map.put(type.encodedByte, type);
-			BY_BYTE = map;
+				BY_BYTE[type.encodedByte & 0xFF] = type;
 		}
 
 		private final boolean terminating;
@@ -771,7 +856,7 @@ public class Response implements JsonObject {
 		@ApiStatus.Internal
 		@CheckReturnValue
 		public static @Nullable ResultType from(byte encodedByte) {
-			return BY_BYTE.get(encodedByte);
+			return BY_BYTE[encodedByte & 0xFF];
 		}
 
 		@ApiStatus.AvailableSince("3.0.0")
@@ -1462,6 +1547,20 @@ public class Response implements JsonObject {
 			build().send();
 		}
 
+		/**
+		 * Builds this {@link Response} and then queues it to be sent to the client or server that
+		 * delivered the related {@link Request} without waiting for it to be written to the socket.
+		 *
+		 * @return a future which completes with whether the response was successfully sent
+		 * @throws IllegalStateException if the response was created without a {@link Request}
+		 * @see Response#sendAsync()
+		 * @since 3.10.0
+		 */
+		@ApiStatus.AvailableSince("3.10.0")
+		public @NotNull CompletableFuture<@NotNull Boolean> sendAsync() throws IllegalStateException {
+			return build().sendAsync();
+		}
+
 		/**
 		 * Creates a new {@link Builder} object with the same parameters.
 		 *
@@ -1475,4 +1574,114 @@ public class Response implements JsonObject {
 			return new Builder(this);
 		}
 	}
+
+	/**
+	 * Streams the fields of a {@link Response} without reflection.
+	 */
+	static final class Adapter extends TypeAdapter<Response> {
+		private static final @NotNull TypeToken<Map<String, Object>> DATA_TYPE = new TypeToken<Map<String, Object>>() {
+		};
+		private final @NotNull TypeAdapter<PacketType> packetTypeAdapter;
+		private final @NotNull TypeAdapter<ResultType> resultTypeAdapter;
+		private final @NotNull TypeAdapter<IdType> idTypeAdapter;
+		private final @NotNull TypeAdapter<Duration> durationAdapter;
+		private final @NotNull TypeAdapter<Object[]> argsAdapter;
+		private final @NotNull TypeAdapter<Map<String, Object>> dataAdapter;
+
+		Adapter(@NotNull Gson gson) {
+			this.packetTypeAdapter = gson.getAdapter(PacketType.class);
+			this.resultTypeAdapter = gson.getAdapter(ResultType.class);
+			this.idTypeAdapter = gson.getAdapter(IdType.class);
+			this.durationAdapter = gson.getAdapter(Duration.class);
+			this.argsAdapter = gson.getAdapter(Object[].class);
+			this.dataAdapter = gson.getAdapter(DATA_TYPE);
+		}
+
+		@Override
+		public void write(@NotNull JsonWriter out, @Nullable Response value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			writeByte(out, "type", value.packetType);
+			out.name("id").value(value.id);
+			writeByte(out, "status", value.type);
+			writeString(out, "message", value.message);
+			if (value.timeRemaining != null)
+				durationAdapter.write(out.name("timeRemaining"), value.timeRemaining);
+			if (value.ids != null) {
+				out.name("ids").beginArray();
+				for (String id : value.ids)
+					out.value(id);
+				out.endArray();
+			}
+			writeByte(out, "idType", value.idType);
+			writeString(out, "method", value.method);
+			if (value.args != null)
+				argsAdapter.write(out.name("args"), value.args);
+			if (value.data != null)
+				dataAdapter.write(out.name("data"), value.data);
+			writeString(out, "eventType", value.eventType);
+			if (value.internal != null)
+				out.name("internal").value(value.internal);
+			out.endObject();
+		}
+
+		@Override
+		public @Nullable Response read(@NotNull JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			Response response = new Response();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "type":
+						response.packetType = packetTypeAdapter.read(in);
+						break;
+					case "id":
+						Integer id = readInteger(in);
+						if (id != null)
+							response.id = id;
+						break;
+					case "status":
+						response.type = resultTypeAdapter.read(in);
+						break;
+					case "message":
+						response.message = readString(in);
+						break;
+					case "timeRemaining":
+						response.timeRemaining = durationAdapter.read(in);
+						break;
+					case "ids":
+						response.ids = readStringArray(in);
+						break;
+					case "idType":
+						response.idType = idTypeAdapter.read(in);
+						break;
+					case "method":
+						response.method = readString(in);
+						break;
+					case "args":
+						response.args = argsAdapter.read(in);
+						break;
+					case "data":
+						response.data = dataAdapter.read(in);
+						break;
+					case "eventType":
+						response.eventType = readString(in);
+						break;
+					case "internal":
+						response.internal = readBoolean(in);
+						break;
+					default:
+						in.skipValue();
+				}
+			}
+			in.endObject();
+			return response;
+		}
+	}
 }
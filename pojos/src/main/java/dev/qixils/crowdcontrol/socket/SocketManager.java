@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -156,4 +157,27 @@ public interface SocketManager extends Respondable {
 	 */
 	@ApiStatus.AvailableSince("3.7.0")
 	void write(@NotNull Response response) throws IOException;
+
+	/**
+	 * Queues a {@link Response} to be written to the connected server or clients
+	 * without waiting for it to be transmitted.
+	 * <p>
+	 * The default implementation writes the response synchronously.
+	 *
+	 * @param response the response to write
+	 * @return a future which completes once the response has been written,
+	 *         or completes exceptionally if it could not be written
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	default @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			write(response);
+			future.complete(null);
+		} catch (IOException | RuntimeException exc) {
+			future.completeExceptionally(exc);
+		}
+		return future;
+	}
 }
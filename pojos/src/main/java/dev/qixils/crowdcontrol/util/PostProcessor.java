@@ -13,6 +13,9 @@ import java.io.IOException;
 @ApiStatus.Internal
 public class PostProcessor implements TypeAdapterFactory {
 	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		if (!PostProcessable.class.isAssignableFrom(type.getRawType()))
+			return null;
+
 		final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
 
 		return new TypeAdapter<T>() {
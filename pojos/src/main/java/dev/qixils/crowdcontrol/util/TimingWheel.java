@@ -0,0 +1,320 @@
+package dev.qixils.crowdcontrol.util;
+
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hierarchical timing wheel which runs tasks after a delay.
+ * <p>
+ * Time is divided into ticks of a fixed resolution. Tasks are stored in wheels of
+ * {@value #WHEEL_SIZE} buckets, where each bucket of the first wheel spans one tick and each
+ * bucket of every following wheel spans all buckets of the previous wheel. When a bucket of an
+ * outer wheel is reached, its tasks are redistributed to the inner wheels, and every task in the
+ * current bucket of the innermost wheel is run in a single batch.
+ * <p>
+ * Scheduling and cancelling a task only adds it to a lock-free queue, and the wheel's thread
+ * links it into or out of its bucket in constant time, so neither operation contends with other
+ * threads or leaves cancelled tasks behind. Tasks are run on the wheel's thread and should
+ * therefore return quickly. The thread sleeps while no tasks are scheduled.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+@ApiStatus.Internal
+public final class TimingWheel {
+	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/TimingWheel");
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 4; // 64^4 ticks, or about two days at the default resolution
+	private static final @NotNull Duration DEFAULT_TICK = Duration.ofMillis(10);
+	private static volatile @Nullable TimingWheel shared;
+	private final long tickNanos;
+	private final @NotNull String name;
+	private final @NotNull Timeout @NotNull [] @NotNull [] buckets = new Timeout[LEVELS][WHEEL_SIZE]; // sentinels
+	private final @NotNull Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+	private final @NotNull Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+	private final long startTime = System.nanoTime();
+	private long tick = 0; // accessed only by the wheel's thread
+	private int size = 0; // timeouts linked into buckets; accessed only by the wheel's thread
+	private volatile @Nullable Thread thread; // written while holding this
+	private volatile boolean idle = false;
+
+	/**
+	 * Creates a new timing wheel. Its thread is started once the first task is scheduled.
+	 *
+	 * @param tick resolution of the wheel; tasks may run up to one tick late
+	 * @param name name of the wheel's thread
+	 * @throws IllegalArgumentException {@code tick} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public TimingWheel(@NotNull Duration tick, @NotNull String name) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(tick, "tick");
+		if (tick.isNegative() || tick.isZero())
+			throw new IllegalArgumentException("tick must be positive");
+		this.tickNanos = tick.toNanos();
+		this.name = ExceptionUtil.validateNotNull(name, "name");
+		for (Timeout[] level : buckets) {
+			for (int i = 0; i < WHEEL_SIZE; i++)
+				level[i] = new Timeout(this, -1, null);
+		}
+	}
+
+	/**
+	 * Gets the timing wheel shared by the timers of the Crowd Control libraries.
+	 * Its resolution may be set in milliseconds using the {@code crowdcontrol.timer.tick}
+	 * system property and defaults to 10 milliseconds.
+	 *
+	 * @return shared timing wheel
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public static @NotNull TimingWheel shared() {
+		TimingWheel wheel = shared;
+		if (wheel == null) {
+			synchronized (TimingWheel.class) {
+				wheel = shared;
+				if (wheel == null) {
+					Duration tick = DEFAULT_TICK;
+					Long millis = Long.getLong("crowdcontrol.timer.tick");
+					if (millis != null && millis > 0)
+						tick = Duration.ofMillis(millis);
+					shared = wheel = new TimingWheel(tick, "CrowdControl Timer");
+				}
+			}
+		}
+		return wheel;
+	}
+
+	/**
+	 * Schedules a task to be run once a delay has passed.
+	 *
+	 * @param task  task to run on the wheel's thread
+	 * @param delay time to wait before running the task
+	 * @param unit  unit of {@code delay}
+	 * @return handle which may be used to cancel the task
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull Timeout schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+		ExceptionUtil.validateNotNull(task, "task");
+		long elapsed = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+		// round up so that tasks never run early
+		Timeout timeout = new Timeout(this, (elapsed + tickNanos - 1) / tickNanos, task);
+		added.add(timeout);
+		Thread worker = thread;
+		if (worker == null)
+			start();
+		else if (idle)
+			LockSupport.unpark(worker);
+		return timeout;
+	}
+
+	private synchronized void start() {
+		if (thread != null)
+			return;
+		Thread worker = new Thread(this::run, name);
+		worker.setDaemon(true);
+		worker.start();
+		thread = worker;
+	}
+
+	private void run() {
+		List<Timeout> expired = new ArrayList<>();
+		tick = (System.nanoTime() - startTime) / tickNanos;
+		while (true) {
+			if (size == 0 && added.isEmpty()) {
+				// nothing is scheduled, so sleep until something is, skipping the ticks in between
+				idle = true;
+				if (added.isEmpty())
+					LockSupport.park(this);
+				idle = false;
+				tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+				continue;
+			}
+
+			long wait = startTime + (tick + 1) * tickNanos - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(this, wait);
+				continue;
+			}
+			tick++;
+
+			Timeout timeout;
+			while ((timeout = cancelled.poll()) != null) {
+				if (timeout.unlink())
+					size--;
+			}
+			while ((timeout = added.poll()) != null) {
+				if (timeout.state == Timeout.PENDING)
+					insert(timeout, expired);
+			}
+			cascade(expired);
+			drain(buckets[0][(int) (tick & WHEEL_MASK)], expired);
+
+			for (Timeout task : expired)
+				task.expire();
+			expired.clear();
+		}
+	}
+
+	/**
+	 * Links a timeout into the bucket of its deadline, or marks it as expired if it is already due.
+	 */
+	private void insert(@NotNull Timeout timeout, @NotNull List<Timeout> expired) {
+		long delta = timeout.deadline - tick;
+		if (delta <= 0) {
+			expired.add(timeout);
+			return;
+		}
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1)))
+			level++;
+		timeout.link(buckets[level][(int) ((timeout.deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK)]);
+		size++;
+	}
+
+	/**
+	 * Redistributes the buckets of the outer wheels which begin at the current tick, outermost first.
+	 */
+	private void cascade(@NotNull List<Timeout> expired) {
+		int level = 0;
+		while (level < LEVELS - 1 && (tick & ((1L << (WHEEL_BITS * (level + 1))) - 1)) == 0)
+			level++;
+		for (; level > 0; level--) {
+			Timeout sentinel = buckets[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+			if (sentinel.next == sentinel)
+				continue;
+			// detach the bucket first, as timeouts beyond the outermost wheel return to the same bucket
+			Timeout timeout = sentinel.next;
+			sentinel.prev.next = null;
+			sentinel.prev = sentinel.next = sentinel;
+			while (timeout != null) {
+				Timeout next = timeout.next;
+				timeout.prev = timeout.next = timeout;
+				size--;
+				insert(timeout, expired);
+				timeout = next;
+			}
+		}
+	}
+
+	/**
+	 * Collects the timeouts of the current bucket of the innermost wheel.
+	 */
+	private void drain(@NotNull Timeout sentinel, @NotNull List<Timeout> expired) {
+		Timeout timeout;
+		while ((timeout = sentinel.next) != sentinel) {
+			timeout.unlink();
+			size--;
+			expired.add(timeout);
+		}
+	}
+
+	/**
+	 * A task which has been scheduled on a {@link TimingWheel}.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@ApiStatus.Internal
+	public static final class Timeout {
+		private static final int PENDING = 0;
+		private static final int CANCELLED = 1;
+		private static final int EXPIRED = 2;
+		private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+		private final @NotNull TimingWheel wheel;
+		private final long deadline; // in ticks
+		private final @Nullable Runnable task;
+		private volatile int state = PENDING;
+		private @NotNull Timeout prev = this; // accessed only by the wheel's thread
+		private @NotNull Timeout next = this; // accessed only by the wheel's thread
+
+		private Timeout(@NotNull TimingWheel wheel, long deadline, @Nullable Runnable task) {
+			this.wheel = wheel;
+			this.deadline = deadline;
+			this.task = task;
+		}
+
+		private void link(@NotNull Timeout sentinel) {
+			prev = sentinel.prev;
+			next = sentinel;
+			sentinel.prev.next = this;
+			sentinel.prev = this;
+		}
+
+		private boolean unlink() {
+			if (next == this)
+				return false;
+			prev.next = next;
+			next.prev = prev;
+			prev = next = this;
+			return true;
+		}
+
+		private void expire() {
+			if (!STATE.compareAndSet(this, PENDING, EXPIRED) || task == null)
+				return;
+			try {
+				task.run();
+			} catch (Throwable exc) {
+				logger.error("Timer task threw an exception", exc);
+			}
+		}
+
+		/**
+		 * Cancels the task if it has not yet run.
+		 *
+		 * @return true if the task was cancelled, or false if it has already run or been cancelled
+		 * @since 3.10.0
+		 */
+		@ApiStatus.AvailableSince("3.10.0")
+		public boolean cancel() {
+			if (!STATE.compareAndSet(this, PENDING, CANCELLED))
+				return false;
+			wheel.cancelled.add(this);
+			return true;
+		}
+
+		/**
+		 * Determines if the task was cancelled before it ran.
+		 *
+		 * @return true if the task was cancelled
+		 * @since 3.10.0
+		 */
+		@ApiStatus.AvailableSince("3.10.0")
+		@CheckReturnValue
+		public boolean isCancelled() {
+			return state == CANCELLED;
+		}
+
+		/**
+		 * Determines if the task has been run or is running.
+		 *
+		 * @return true if the task's delay has passed
+		 * @since 3.10.0
+		 */
+		@ApiStatus.AvailableSince("3.10.0")
+		@CheckReturnValue
+		public boolean isExpired() {
+			return state == EXPIRED;
+		}
+	}
+}
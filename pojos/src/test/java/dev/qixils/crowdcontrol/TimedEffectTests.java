@@ -8,7 +8,9 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -197,4 +199,54 @@ public class TimedEffectTests {
 		Assertions.assertDoesNotThrow(() -> TimedEffect.isActive(null, (Request.Target) null));
 		Assertions.assertDoesNotThrow(() -> TimedEffect.isActive(null, (Request.Target[]) null));
 	}
+
+	@Test
+	public void concurrencyTest() throws InterruptedException {
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger completed = new AtomicInteger();
+		CountDownLatch ready = new CountDownLatch(1);
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < 100; i++) {
+					new TimedEffect.Builder()
+							.request(request)
+							.effectGroup("concurrency" + i)
+							.duration(Duration.ofMinutes(1))
+							.startCallback($ -> {
+								started.incrementAndGet();
+								return null;
+							})
+							.pauseCallback($ -> {
+							})
+							.resumeCallback($ -> {
+							})
+							.completionCallback($ -> completed.incrementAndGet())
+							.build()
+							.queue();
+				}
+			});
+			threads[t].start();
+		}
+		ready.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		// exactly one effect in each group may start
+		Assertions.assertEquals(100, started.get());
+		for (int i = 0; i < 100; i++)
+			Assertions.assertTrue(TimedEffect.isActive("concurrency" + i, request));
+
+		TimedEffect.pauseAll();
+		TimedEffect.resumeAll();
+		TimedEffect.stopAll(SOURCE.target());
+		Assertions.assertEquals(100, completed.get());
+		for (int i = 0; i < 100; i++)
+			Assertions.assertFalse(TimedEffect.isActive("concurrency" + i, request));
+	}
 }
@@ -0,0 +1,74 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+@SuppressWarnings("ConstantConditions")
+public class FrameDecoderTests {
+	private static String str(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void streamTest() throws IOException {
+		byte[] data = "first\0second\0\0third".getBytes(StandardCharsets.UTF_8);
+		// tiny buffer to exercise compaction & growth
+		FrameDecoder decoder = new FrameDecoder(new ByteArrayInputStream(data), 2);
+		Assertions.assertEquals("first", str(decoder.readFrame()));
+		Assertions.assertEquals("second", str(decoder.readFrame()));
+		Assertions.assertEquals("", str(decoder.readFrame()));
+		Assertions.assertEquals("third", str(decoder.readFrame()));
+		Assertions.assertEquals("", str(decoder.readFrame()));
+	}
+
+	@Test
+	public void feedTest() {
+		FrameDecoder decoder = new FrameDecoder();
+		Assertions.assertThrows(IllegalStateException.class, decoder::readFrame);
+		Assertions.assertNull(decoder.pollFrame());
+
+		decoder.feed(ByteBuffer.wrap("{\"id\":1}\0{\"id\"".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertEquals("{\"id\":1}", str(decoder.pollFrame()));
+		Assertions.assertNull(decoder.pollFrame());
+
+		decoder.feed(ByteBuffer.wrap(":2}\0".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertEquals("{\"id\":2}", str(decoder.pollFrame()));
+		Assertions.assertNull(decoder.pollFrame());
+	}
+
+	@Test
+	public void jsonTest() throws IOException {
+		byte[] data = "{\"id\":1,\"type\":0}\0  \0".getBytes(StandardCharsets.UTF_8);
+		FrameDecoder decoder = new FrameDecoder(new ByteArrayInputStream(data));
+		Response response = JsonObject.fromFrameDecoder(decoder, Response::fromJSON);
+		Assertions.assertNotNull(response);
+		Assertions.assertEquals(1, response.getId());
+		Assertions.assertNull(JsonObject.fromFrameDecoder(decoder, Response::fromJSON));
+	}
+
+	@Test
+	public void readerTest() throws IOException {
+		String text = "{\"message\":\"h\u00e9llo \ud83d\udc4b\"}";
+		FrameDecoder decoder = new FrameDecoder(new ByteArrayInputStream((text + '\0').getBytes(StandardCharsets.UTF_8)));
+		Reader reader = decoder.openReader(decoder.readFrame());
+		// read one char at a time to split the surrogate pair across calls
+		StringBuilder sb = new StringBuilder();
+		char[] buffer = new char[1];
+		int read;
+		while ((read = reader.read(buffer, 0, 1)) != -1) {
+			Assertions.assertEquals(1, read);
+			sb.append(buffer[0]);
+		}
+		Assertions.assertEquals(text, sb.toString());
+		Assertions.assertFalse(FrameDecoder.isBlank(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertTrue(FrameDecoder.isBlank(ByteBuffer.wrap(" \t\r\n".getBytes(StandardCharsets.UTF_8))));
+	}
+}
@@ -1,10 +1,15 @@
 package dev.qixils.crowdcontrol.socket;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dev.qixils.crowdcontrol.util.PostProcessor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.net.InetAddress;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 
 @SuppressWarnings("ConstantConditions")
 public class RequestTests {
@@ -311,4 +316,42 @@ public class RequestTests {
 		Assertions.assertEquals(request, Request.fromJSON(json), () -> "JSONs: " + request.toJSON() + " vs " + json);
 		Assertions.assertEquals(Request.fromJSON(request.toJSON()), Request.fromJSON(json), () -> "JSONs: " + request.toJSON() + " vs " + json);
 	}
+
+	@Test
+	public void adapterTest() {
+		// the hand-written adapters must produce the same JSON as GSON's reflective adapter
+		Gson reflective = new GsonBuilder()
+				.registerTypeAdapterFactory(new PostProcessor())
+				.registerTypeAdapter(Request.Type.class, new ByteAdapter<>(Request.Type::from))
+				.registerTypeAdapter(Duration.class, new DurationAdapter())
+				.create();
+		Request request = new Request.Builder()
+				.id(1)
+				.type(Request.Type.START)
+				.effect("summon")
+				.viewer("qixils")
+				.message("<Hello> & \"goodbye\"")
+				.cost(10)
+				.duration(Duration.ofSeconds(10))
+				.targets(
+						new Request.Target.Builder().id("493").name("epic streamer 493").login("streamer").avatar("https://i.qixils.dev/favicon.png").service("TWITCH").build(),
+						new Request.Target.Builder().build())
+				.quantity(3)
+				.login("qixils")
+				.password("password")
+				.player(new Request.Target.Builder().id("493").ccUID("blahblah").build())
+				.build();
+		Assertions.assertEquals(reflective.toJson(request), request.toJSON());
+		Assertions.assertEquals(request, Request.fromJSON(reflective.toJson(request)));
+
+		Request result = new Request.Builder()
+				.type(Request.Type.REMOTE_FUNCTION_RESULT)
+				.value(Collections.singletonMap("key", Arrays.asList(1, "two", null, true)))
+				.build();
+		Assertions.assertEquals(reflective.toJson(result), result.toJSON());
+
+		Request keepAlive = new Request.Builder().type(Request.Type.KEEP_ALIVE).build();
+		Assertions.assertEquals(reflective.toJson(keepAlive), keepAlive.toJSON());
+		Assertions.assertEquals(Request.Type.KEEP_ALIVE, Request.fromJSON("{\"type\":255,\"unknown\":[{}]}").getType());
+	}
 }
@@ -1,5 +1,7 @@
 package dev.qixils.crowdcontrol.socket;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -109,4 +111,27 @@ public class ResponseTests {
 		Assertions.assertEquals(1, response.getId());
 		Assertions.assertFalse(response.isOriginKnown());
 	}
+
+	@Test
+	public void adapterTest() {
+		// the hand-written adapters must produce the same JSON as GSON's reflective adapter
+		Gson reflective = new GsonBuilder()
+				.registerTypeAdapter(Response.ResultType.class, new ByteAdapter<>(Response.ResultType::from))
+				.registerTypeAdapter(Response.PacketType.class, new ByteAdapter<>(Response.PacketType::from))
+				.registerTypeAdapter(IdType.class, new ByteAdapter<>(IdType::from))
+				.registerTypeAdapter(Duration.class, new DurationAdapter())
+				.create();
+		Response[] responses = new Response[]{
+				new Response.Builder().id(1).type(Response.ResultType.SUCCESS).message("<ok> & 'done'").timeRemaining(Duration.ofSeconds(1)).build(),
+				new Response.Builder().packetType(Response.PacketType.EFFECT_STATUS).type(Response.ResultType.VISIBLE).ids("a", "b").idType(IdType.GROUP).build(),
+				new Response.Builder().packetType(Response.PacketType.REMOTE_FUNCTION).method("test").addArguments(1, "two", null, 3.5d).internal(true).build(),
+				new Response.Builder().packetType(Response.PacketType.GENERIC_EVENT).eventType("event").putData("key", Arrays.asList(1, 2)).putData("null", null).build(),
+				new Response.Builder().packetType(Response.PacketType.KEEP_ALIVE).build(),
+		};
+		for (Response response : responses) {
+			String json = reflective.toJson(response);
+			Assertions.assertEquals(json, response.toJSON());
+			Assertions.assertEquals(reflective.toJson(reflective.fromJson(json, Response.class)), Response.fromJSON(json).toJSON());
+		}
+	}
 }
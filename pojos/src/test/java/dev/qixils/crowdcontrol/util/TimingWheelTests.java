@@ -0,0 +1,71 @@
+package dev.qixils.crowdcontrol.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelTests {
+	@Test
+	public void orderTest() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), "TimingWheelTests");
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(4);
+		// 150 milliseconds is beyond the innermost wheel and must be cascaded into it
+		for (int delay : new int[]{150, 0, 40, 10}) {
+			wheel.schedule(() -> {
+				order.add(delay);
+				latch.countDown();
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+		Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Arrays.asList(0, 10, 40, 150), order);
+	}
+
+	@Test
+	public void delayTest() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel(Duration.ofMillis(5), "TimingWheelTests");
+		CountDownLatch latch = new CountDownLatch(1);
+		long start = System.nanoTime();
+		TimingWheel.Timeout timeout = wheel.schedule(latch::countDown, 100, TimeUnit.MILLISECONDS);
+		Assertions.assertFalse(timeout.isExpired());
+		Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+		Assertions.assertTrue(timeout.isExpired());
+		Assertions.assertFalse(timeout.cancel());
+		Assertions.assertFalse(timeout.isCancelled());
+
+		// the wheel resumes after sleeping while empty
+		Thread.sleep(50);
+		CountDownLatch second = new CountDownLatch(1);
+		wheel.schedule(second::countDown, 20, TimeUnit.MILLISECONDS);
+		Assertions.assertTrue(second.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void cancelTest() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), "TimingWheelTests");
+		AtomicInteger ran = new AtomicInteger();
+		List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++)
+			timeouts.add(wheel.schedule(ran::incrementAndGet, 200 + (i % 100), TimeUnit.MILLISECONDS));
+		for (int i = 0; i < timeouts.size(); i += 2) {
+			Assertions.assertTrue(timeouts.get(i).cancel());
+			Assertions.assertTrue(timeouts.get(i).isCancelled());
+			Assertions.assertFalse(timeouts.get(i).cancel());
+		}
+		CountDownLatch latch = new CountDownLatch(1);
+		wheel.schedule(latch::countDown, 400, TimeUnit.MILLISECONDS);
+		Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(5_000, ran.get());
+		for (int i = 0; i < timeouts.size(); i++)
+			Assertions.assertEquals(i % 2 == 1, timeouts.get(i).isExpired());
+	}
+}
@@ -0,0 +1,375 @@
+package dev.qixils.crowdcontrol.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a registrar for each class containing {@code @Subscribe} methods, allowing
+ * {@code CrowdControl#registerHandlers(Object)} to register them without the use of reflection.
+ * <p>
+ * Methods which would be rejected by {@code registerHandlers} at runtime are instead reported as
+ * compilation errors. Classes which cannot be referenced from their package, such as private or
+ * anonymous classes, are validated but do not receive a registrar, and so continue to be
+ * registered reflectively.
+ *
+ * @since 3.10.0
+ */
+@SupportedAnnotationTypes(SubscribeProcessor.SUBSCRIBE)
+public final class SubscribeProcessor extends AbstractProcessor {
+	static final String SUBSCRIBE = "dev.qixils.crowdcontrol.Subscribe";
+	static final String REGISTRAR = "dev.qixils.crowdcontrol.SubscribeRegistrar";
+	static final String CROWD_CONTROL = "dev.qixils.crowdcontrol.CrowdControl";
+	static final String BULKHEAD = "dev.qixils.crowdcontrol.Bulkhead";
+	static final String REQUEST = "dev.qixils.crowdcontrol.socket.Request";
+	static final String RESPONSE = "dev.qixils.crowdcontrol.socket.Response";
+	static final String BUILDER = RESPONSE + ".Builder";
+	static final String COMPLETION_STAGE = "java.util.concurrent.CompletionStage";
+	static final String SUFFIX = "_CrowdControlRegistrar";
+
+	/**
+	 * The manner in which the result of a method is handled.
+	 */
+	private enum Kind {
+		RESPONSE,
+		BUILDER,
+		ASYNC,
+		VOID
+	}
+
+	/**
+	 * A method which may be registered.
+	 */
+	private static final class Subscriber {
+		final ExecutableElement method;
+		final String effect;
+		final Kind kind;
+		final int maxConcurrent;
+		final int maxQueued;
+
+		Subscriber(ExecutableElement method, String effect, Kind kind, int maxConcurrent, int maxQueued) {
+			this.method = method;
+			this.effect = effect;
+			this.kind = kind;
+			this.maxConcurrent = maxConcurrent;
+			this.maxQueued = maxQueued;
+		}
+	}
+
+	/**
+	 * Creates a new processor.
+	 */
+	public SubscribeProcessor() {
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Elements elements = processingEnv.getElementUtils();
+		TypeElement subscribe = elements.getTypeElement(SUBSCRIBE);
+		TypeElement request = elements.getTypeElement(REQUEST);
+		TypeElement response = elements.getTypeElement(RESPONSE);
+		TypeElement builder = elements.getTypeElement(BUILDER);
+		TypeElement stage = elements.getTypeElement(COMPLETION_STAGE);
+		if (annotations.isEmpty() || subscribe == null || request == null || response == null || builder == null || stage == null)
+			return false;
+
+		// stages which complete with either a response or a builder
+		Types typeUtils = processingEnv.getTypeUtils();
+		List<TypeMirror> stages = Arrays.asList(
+				typeUtils.getDeclaredType(stage, typeUtils.getWildcardType(response.asType(), null)),
+				typeUtils.getDeclaredType(stage, typeUtils.getWildcardType(builder.asType(), null))
+		);
+
+		Set<TypeElement> types = new LinkedHashSet<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(subscribe)) {
+			Element enclosing = element.getEnclosingElement();
+			if (enclosing instanceof TypeElement)
+				types.add((TypeElement) enclosing);
+		}
+		for (TypeElement type : types)
+			processType(type, subscribe, request.asType(), response.asType(), builder.asType(), stages);
+		return false;
+	}
+
+	private void processType(TypeElement type, TypeElement subscribe, TypeMirror request, TypeMirror response, TypeMirror builder, List<TypeMirror> stages) {
+		Elements elements = processingEnv.getElementUtils();
+		Types types = processingEnv.getTypeUtils();
+		Messager messager = processingEnv.getMessager();
+
+		boolean valid = true;
+		Map<String, ExecutableElement> effects = new HashMap<>();
+		List<Subscriber> subscribers = new ArrayList<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+			AnnotationMirror annotation = getAnnotation(method, subscribe);
+			if (annotation == null)
+				continue;
+			// registerHandlers never sees inherited methods which are not public
+			boolean declared = method.getEnclosingElement().equals(type);
+			if (!declared && !method.getModifiers().contains(Modifier.PUBLIC))
+				continue;
+
+			String error = null;
+			String effect = getEffect(annotation);
+			int maxConcurrent = getInt(annotation, "maxConcurrent");
+			int maxQueued = getInt(annotation, "maxQueued");
+			Kind kind = null;
+			if (effect.isEmpty()) {
+				error = "effect name cannot be empty";
+			} else if (maxConcurrent < 0 || maxQueued < 0) {
+				error = "concurrency limits cannot be negative";
+			} else if (maxConcurrent == 0 && maxQueued > 0) {
+				error = "maxQueued requires maxConcurrent to be set";
+			} else if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+				error = "should be public";
+			} else if (method.getParameters().size() != 1) {
+				error = "expected 1 input parameter, received " + method.getParameters().size();
+			} else if (!types.isSameType(method.getParameters().get(0).asType(), request)) {
+				error = "expected input parameter of type Request, received " + method.getParameters().get(0).asType();
+			} else {
+				TypeMirror returnType = method.getReturnType();
+				if (returnType.getKind() == TypeKind.VOID)
+					kind = Kind.VOID;
+				else if (types.isSameType(returnType, response))
+					kind = Kind.RESPONSE;
+				else if (types.isSameType(returnType, builder))
+					kind = Kind.BUILDER;
+				else if (isAssignableToAny(types, returnType, stages))
+					kind = Kind.ASYNC;
+				else
+					error = "unknown return type: " + returnType;
+			}
+
+			if (error == null) {
+				ExecutableElement duplicate = effects.putIfAbsent(effect.toLowerCase(Locale.ENGLISH), method);
+				if (duplicate != null)
+					error = "handler by the name '" + effect.toLowerCase(Locale.ENGLISH) + "' is already registered by " + duplicate.getSimpleName();
+			}
+
+			if (error == null) {
+				subscribers.add(new Subscriber(method, effect, kind, maxConcurrent, maxQueued));
+			} else if (declared) {
+				valid = false;
+				messager.printMessage(Diagnostic.Kind.ERROR, "Method " + method.getSimpleName() + " is improperly configured: " + error, method, annotation);
+			} else {
+				messager.printMessage(Diagnostic.Kind.WARNING, "Inherited method " + method.getSimpleName() + " is improperly configured: " + error, type);
+			}
+		}
+
+		if (valid && isRegistrable(type)) {
+			try {
+				writeRegistrar(type, subscribers);
+			} catch (IOException e) {
+				messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write registrar: " + e.getMessage(), type);
+			}
+		}
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, TypeElement annotationType) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (annotation.getAnnotationType().asElement().equals(annotationType))
+				return annotation;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the effect name of a {@code @Subscribe} annotation, preferring {@code value} over the
+	 * deprecated {@code effect}.
+	 */
+	private String getEffect(AnnotationMirror annotation) {
+		String value = "";
+		String effect = "";
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			String name = entry.getKey().getSimpleName().toString();
+			Object raw = entry.getValue().getValue();
+			if (!(raw instanceof String))
+				continue;
+			if (name.equals("value"))
+				value = (String) raw;
+			else if (name.equals("effect"))
+				effect = (String) raw;
+		}
+		return value.isEmpty() ? effect : value;
+	}
+
+	/**
+	 * Gets the value of an integer attribute of an annotation, or 0 if it does not exist.
+	 */
+	private int getInt(AnnotationMirror annotation, String attribute) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			Object raw = entry.getValue().getValue();
+			if (entry.getKey().getSimpleName().contentEquals(attribute) && raw instanceof Integer)
+				return (Integer) raw;
+		}
+		return 0;
+	}
+
+	/**
+	 * Determines if a registrar in the same package as the type could reference it, and if the
+	 * type could be the runtime class of a registered object.
+	 */
+	private static boolean isRegistrable(TypeElement type) {
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+			return false;
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			TypeElement current = (TypeElement) element;
+			NestingKind nesting = current.getNestingKind();
+			if (nesting != NestingKind.TOP_LEVEL && nesting != NestingKind.MEMBER)
+				return false;
+			if (current.getModifiers().contains(Modifier.PRIVATE))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the source representation of a type, using wildcards for any type parameters.
+	 */
+	private static String typeName(TypeElement type) {
+		String name;
+		Element enclosing = type.getEnclosingElement();
+		String enclosingName = enclosing instanceof TypeElement ? typeName((TypeElement) enclosing) : null;
+		if (enclosingName != null && enclosingName.indexOf('<') != -1 && !type.getModifiers().contains(Modifier.STATIC))
+			name = enclosingName + '.' + type.getSimpleName();
+		else
+			name = type.getQualifiedName().toString();
+
+		int params = type.getTypeParameters().size();
+		if (params == 0)
+			return name;
+		StringBuilder builder = new StringBuilder(name).append('<');
+		for (int i = 0; i < params; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append('?');
+		}
+		return builder.append('>').toString();
+	}
+
+	private static String quote(String value) {
+		StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+		for (char c : value.toCharArray()) {
+			switch (c) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				default:
+					if (c < ' ' || c > '~')
+						builder.append(String.format("\\u%04x", (int) c));
+					else
+						builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	private static boolean isAssignableToAny(Types types, TypeMirror type, List<TypeMirror> targets) {
+		for (TypeMirror target : targets) {
+			if (types.isAssignable(type, target))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Maps the binary name of a class, excluding its package, to the simple name of its registrar.
+	 * Underscores are doubled and nesting separators become {@code _$} so that distinct classes,
+	 * such as {@code Outer$Inner} and {@code Outer_Inner}, never share a registrar.
+	 * This must match {@code CrowdControl#loadRegistrar}.
+	 */
+	static String registrarName(String binaryName) {
+		return binaryName.replace("_", "__").replace("$", "_$") + SUFFIX;
+	}
+
+	private void writeRegistrar(TypeElement type, List<Subscriber> subscribers) throws IOException {
+		Elements elements = processingEnv.getElementUtils();
+		PackageElement pkg = elements.getPackageOf(type);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(type).toString();
+		String simpleName = registrarName(packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1));
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+		String typeName = typeName(type);
+		String handler = "java.util.function.Function<" + REQUEST + ", " + RESPONSE + ">";
+		String consumer = "java.util.function.Consumer<" + REQUEST + ">";
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+		try (Writer writer = file.openWriter()) {
+			if (!packageName.isEmpty())
+				writer.write("package " + packageName + ";\n\n");
+			writer.write("/**\n");
+			writer.write(" * Registers the effect handlers of {@link " + type.getQualifiedName() + "}.\n");
+			writer.write(" * Generated by " + SubscribeProcessor.class.getName() + ".\n");
+			writer.write(" */\n");
+			writer.write("public final class " + simpleName + " implements " + REGISTRAR + "<" + typeName + "> {\n");
+			writer.write("\t@Override\n");
+			writer.write("\tpublic Class<?> target() {\n");
+			writer.write("\t\treturn " + type.getQualifiedName() + ".class;\n");
+			writer.write("\t}\n\n");
+			writer.write("\t@Override\n");
+			writer.write("\tpublic void register(" + typeName + " handlers, " + CROWD_CONTROL + " crowdControl) {\n");
+			for (Subscriber subscriber : subscribers) {
+				String methodName = subscriber.method.getSimpleName().toString();
+				boolean isStatic = subscriber.method.getModifiers().contains(Modifier.STATIC);
+				String receiver = isStatic
+						? ((TypeElement) subscriber.method.getEnclosingElement()).getQualifiedName().toString()
+						: "handlers";
+				final String function;
+				switch (subscriber.kind) {
+					case RESPONSE:
+						function = "(" + handler + ") " + receiver + "::" + methodName;
+						break;
+					case BUILDER:
+						function = "(" + handler + ") request -> {\n"
+								+ "\t\t\t" + BUILDER + " builder = " + receiver + "." + methodName + "(request);\n"
+								+ "\t\t\treturn builder == null ? null : builder.build();\n"
+								+ "\t\t}";
+						break;
+					case ASYNC:
+						function = receiver + "::" + methodName;
+						break;
+					default:
+						function = "(" + consumer + ") " + receiver + "::" + methodName;
+				}
+				String bulkhead = subscriber.maxConcurrent > 0
+						? "new " + BULKHEAD + "(" + subscriber.maxConcurrent + ", " + subscriber.maxQueued + ")"
+						: "null";
+				String register = subscriber.kind == Kind.ASYNC ? "registerAsyncSubscriber" : "registerSubscriber";
+				writer.write("\t\tcrowdControl." + register + "(" + quote(methodName) + ", " + quote(subscriber.effect) + ", " + bulkhead + ", " + function + ");\n");
+			}
+			writer.write("\t}\n");
+			writer.write("}\n");
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package dev.qixils.crowdcontrol.processor;
+
+import dev.qixils.crowdcontrol.CrowdControl;
+import dev.qixils.crowdcontrol.SubscribeRegistrar;
+import dev.qixils.crowdcontrol.socket.Request;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SubscribeProcessorTests {
+	private static final int PORT = 57576;
+
+	private static final class Source extends SimpleJavaFileObject {
+		private final String code;
+
+		Source(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static File location(Class<?> clazz) throws URISyntaxException {
+		return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+	}
+
+	/**
+	 * Asserts that a class is registered by its generated registrar rather than by reflection.
+	 */
+	private static void assertRegistrar(Class<?> clazz) throws Exception {
+		Method load = CrowdControl.class.getDeclaredMethod("loadRegistrar", Class.class);
+		load.setAccessible(true);
+		SubscribeRegistrar<?> registrar = (SubscribeRegistrar<?>) load.invoke(null, clazz);
+		Assertions.assertNotNull(registrar, clazz.getName());
+		Assertions.assertSame(clazz, registrar.target());
+	}
+
+	private static List<Diagnostic<? extends JavaFileObject>> compile(Path output, String className, String code) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+			fileManager.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(location(CrowdControl.class), location(Request.class)));
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output.toFile()));
+			fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output.toFile()));
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null,
+					Collections.singletonList(new Source(className, code)));
+			task.setProcessors(Collections.singletonList(new SubscribeProcessor()));
+			task.call();
+		}
+		return diagnostics.getDiagnostics().stream()
+				.filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void registrarTest() throws Exception {
+		Path output = Files.createTempDirectory("crowd-control-processor");
+		List<Diagnostic<? extends JavaFileObject>> errors = compile(output, "example.Handlers", "package example;\n" +
+				"import dev.qixils.crowdcontrol.Subscribe;\n" +
+				"import dev.qixils.crowdcontrol.socket.Request;\n" +
+				"import dev.qixils.crowdcontrol.socket.Response;\n" +
+				"public class Handlers {\n" +
+				"	public static class Nested<T> {\n" +
+				"		@Subscribe(\"Nested\") public void nested(Request request) {}\n" +
+				"	}\n" +
+				"	@Subscribe(\"response\") public Response response(Request request) { return request.buildResponse().type(Response.ResultType.SUCCESS).build(); }\n" +
+				"	@Subscribe(\"builder\") public Response.Builder builder(Request request) { return null; }\n" +
+				"	@Subscribe(effect = \"void\") public void consumer(Request request) {}\n" +
+				"	@Subscribe(\"static\") public static Response staticResponse(Request request) { return null; }\n" +
+				"	@Subscribe(value = \"limited\", maxConcurrent = 2, maxQueued = 4) public void limited(Request request) {}\n" +
+				"	@Subscribe(\"future\") public java.util.concurrent.CompletableFuture<Response> future(Request request) { return null; }\n" +
+				"	@Subscribe(\"stage\") public java.util.concurrent.CompletionStage<Response.Builder> stage(Request request) { return null; }\n" +
+				"}\n");
+		Assertions.assertEquals(Collections.emptyList(), errors);
+		Assertions.assertTrue(Files.exists(output.resolve("example/Handlers_CrowdControlRegistrar.java")));
+		Assertions.assertTrue(Files.exists(output.resolve("example/Handlers_$Nested_CrowdControlRegistrar.java")));
+
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+			assertRegistrar(loader.loadClass("example.Handlers"));
+			assertRegistrar(loader.loadClass("example.Handlers$Nested"));
+			server.registerHandlers(loader.loadClass("example.Handlers").getConstructor().newInstance());
+			server.registerHandlers(loader.loadClass("example.Handlers$Nested").getConstructor().newInstance());
+		}
+		for (String effect : new String[]{"response", "builder", "void", "static", "nested", "limited", "future", "stage"})
+			Assertions.assertTrue(server.hasHandler(effect), effect);
+	}
+
+	@Test
+	public void collisionTest() throws Exception {
+		Path output = Files.createTempDirectory("crowd-control-processor");
+		Assertions.assertEquals(Collections.emptyList(), compile(output, "example.Outer", "package example;\n" +
+				"import dev.qixils.crowdcontrol.Subscribe;\n" +
+				"import dev.qixils.crowdcontrol.socket.Request;\n" +
+				"public class Outer {\n" +
+				"	public static class Inner {\n" +
+				"		@Subscribe(\"nested\") public void nested(Request request) {}\n" +
+				"	}\n" +
+				"}\n"));
+		Assertions.assertEquals(Collections.emptyList(), compile(output, "example.Outer_Inner", "package example;\n" +
+				"import dev.qixils.crowdcontrol.Subscribe;\n" +
+				"import dev.qixils.crowdcontrol.socket.Request;\n" +
+				"public class Outer_Inner {\n" +
+				"	@Subscribe(\"top\") public void top(Request request) {}\n" +
+				"}\n"));
+		Assertions.assertTrue(Files.exists(output.resolve("example/Outer_$Inner_CrowdControlRegistrar.java")));
+		Assertions.assertTrue(Files.exists(output.resolve("example/Outer__Inner_CrowdControlRegistrar.java")));
+
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+			assertRegistrar(loader.loadClass("example.Outer$Inner"));
+			assertRegistrar(loader.loadClass("example.Outer_Inner"));
+			server.registerHandlers(loader.loadClass("example.Outer$Inner").getConstructor().newInstance());
+			Assertions.assertTrue(server.hasHandler("nested"));
+			Assertions.assertFalse(server.hasHandler("top"));
+			server.registerHandlers(loader.loadClass("example.Outer_Inner").getConstructor().newInstance());
+			Assertions.assertTrue(server.hasHandler("top"));
+		}
+	}
+
+	@Test
+	public void errorTest() throws Exception {
+		Path output = Files.createTempDirectory("crowd-control-processor");
+		List<Diagnostic<? extends JavaFileObject>> errors = compile(output, "example.Invalid", "package example;\n" +
+				"import dev.qixils.crowdcontrol.Subscribe;\n" +
+				"import dev.qixils.crowdcontrol.socket.Request;\n" +
+				"import dev.qixils.crowdcontrol.socket.Response;\n" +
+				"public class Invalid {\n" +
+				"	@Subscribe public void empty(Request request) {}\n" +
+				"	@Subscribe(\"private\") private void hidden(Request request) {}\n" +
+				"	@Subscribe(\"params\") public void params(Request request, String extra) {}\n" +
+				"	@Subscribe(\"type\") public void type(String request) {}\n" +
+				"	@Subscribe(\"return\") public String string(Request request) { return null; }\n" +
+				"	@Subscribe(\"duplicate\") public void first(Request request) {}\n" +
+				"	@Subscribe(\"DUPLICATE\") public void second(Request request) {}\n" +
+				"	@Subscribe(value = \"negative\", maxConcurrent = -1) public void negative(Request request) {}\n" +
+				"	@Subscribe(value = \"queued\", maxQueued = 1) public void queued(Request request) {}\n" +
+				"	@Subscribe(\"future\") public java.util.concurrent.CompletableFuture<String> future(Request request) { return null; }\n" +
+				"}\n");
+		List<String> messages = errors.stream().map(diagnostic -> diagnostic.getMessage(null)).collect(Collectors.toList());
+		Assertions.assertEquals(9, messages.size(), messages.toString());
+		Assertions.assertTrue(messages.contains("Method empty is improperly configured: effect name cannot be empty"));
+		Assertions.assertTrue(messages.contains("Method hidden is improperly configured: should be public"));
+		Assertions.assertTrue(messages.contains("Method params is improperly configured: expected 1 input parameter, received 2"));
+		Assertions.assertTrue(messages.contains("Method type is improperly configured: expected input parameter of type Request, received java.lang.String"));
+		Assertions.assertTrue(messages.contains("Method string is improperly configured: unknown return type: java.lang.String"));
+		Assertions.assertTrue(messages.contains("Method second is improperly configured: handler by the name 'duplicate' is already registered by first"));
+		Assertions.assertTrue(messages.contains("Method negative is improperly configured: concurrency limits cannot be negative"));
+		Assertions.assertTrue(messages.contains("Method queued is improperly configured: maxQueued requires maxConcurrent to be set"));
+		Assertions.assertTrue(messages.contains("Method future is improperly configured: unknown return type: java.util.concurrent.CompletableFuture<java.lang.String>"));
+		Assertions.assertFalse(Files.exists(output.resolve("example/Invalid_CrowdControlRegistrar.java")));
+	}
+}
@@ -0,0 +1,156 @@
+package dev.qixils.crowdcontrol.reactor;
+
+import dev.qixils.crowdcontrol.CrowdControl;
+import dev.qixils.crowdcontrol.RequestIntake;
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import dev.qixils.crowdcontrol.socket.Request;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import javax.annotation.CheckReturnValue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exposes the requests received by a {@link CrowdControl} instance as a {@link Flux}.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public final class ReactiveRequests {
+	private ReactiveRequests() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Creates a {@link Flux} of the requests received by a {@link CrowdControl} instance.
+	 * <p>
+	 * Subscribing to the flux {@link CrowdControl#openRequestIntake(RequestIntake) opens} an
+	 * intake which receives every incoming request, so the subscriber becomes responsible for
+	 * handling them, typically by passing them to {@link CrowdControl#handle(Request)}.
+	 * Requests are only emitted as the subscriber requests them; while it has no outstanding
+	 * demand, connections stop reading from their clients instead of buffering requests.
+	 * <p>
+	 * Requests are emitted on the instance's {@link CrowdControl#getRequestExecutor() request executor},
+	 * which is the effect thread pool or the game thread if a
+	 * {@link dev.qixils.crowdcontrol.CrowdControlBuilder#tickExecutor(java.time.Duration) tick executor}
+	 * was configured, and never on the threads which read from the connections. The subscriber may
+	 * therefore call {@link CrowdControl#handle(Request)} directly, as in:
+	 * <pre>{@code
+	 * ReactiveRequests.requests(crowdControl)
+	 *     .filter(request -> !isBlocked(request.getViewer()))
+	 *     .subscribe(crowdControl::handle);
+	 * }</pre>
+	 * Subscribers which perform other slow work should move it to their own scheduler using
+	 * {@link Flux#publishOn(reactor.core.scheduler.Scheduler) publishOn}.
+	 * <p>
+	 * Only one subscription may be active at a time, and additional subscribers are signalled
+	 * an {@link IllegalStateException}. Once the subscription is cancelled, requests are handled
+	 * by the {@link CrowdControl} instance as usual.
+	 *
+	 * @param crowdControl the instance receiving requests
+	 * @return a flux of incoming requests
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public static @NotNull Flux<Request> requests(@NotNull CrowdControl crowdControl) {
+		ExceptionUtil.validateNotNull(crowdControl, "crowdControl");
+		return Flux.create(sink -> {
+			SinkIntake intake = new SinkIntake(sink, crowdControl);
+			try {
+				crowdControl.openRequestIntake(intake);
+			} catch (IllegalStateException exc) {
+				sink.error(exc);
+				return;
+			}
+			sink.onDispose(() -> {
+				crowdControl.closeRequestIntake(intake);
+				intake.close();
+			});
+			sink.onRequest(intake::request);
+		});
+	}
+
+	/**
+	 * An intake which emits requests to a sink only while its subscriber has outstanding demand.
+	 * Requests are emitted by the request executor of the {@link CrowdControl} instance so that
+	 * the subscriber never runs on a thread which reads from the connections.
+	 */
+	static final class SinkIntake implements RequestIntake {
+		private final @NotNull FluxSink<Request> sink;
+		private final @NotNull CrowdControl crowdControl;
+		private final @NotNull Executor executor;
+		private final @NotNull AtomicLong demand = new AtomicLong();
+		private final @NotNull Queue<Runnable> callbacks = new ConcurrentLinkedQueue<>();
+		private volatile boolean closed = false;
+
+		SinkIntake(@NotNull FluxSink<Request> sink, @NotNull CrowdControl crowdControl) {
+			this.sink = sink;
+			this.crowdControl = crowdControl;
+			this.executor = crowdControl.getRequestExecutor();
+		}
+
+		@Override
+		public boolean offer(@NotNull Request request) {
+			// reserve a unit of demand before emitting so that the sink never has to buffer
+			while (true) {
+				long current = demand.get();
+				if (current == 0 || closed)
+					return false;
+				if (current == Long.MAX_VALUE || demand.compareAndSet(current, current - 1))
+					break;
+			}
+			executor.execute(() -> emit(request));
+			return true;
+		}
+
+		private void emit(@NotNull Request request) {
+			// a request accepted just before the subscription was cancelled is handled as usual
+			if (sink.isCancelled())
+				crowdControl.handle(request);
+			else
+				sink.next(request);
+		}
+
+		@Override
+		public void onDemand(@NotNull Runnable callback) {
+			callbacks.add(callback);
+			// re-check after queueing so that demand signalled concurrently is not missed
+			if (demand.get() > 0 || closed)
+				runCallbacks();
+		}
+
+		/**
+		 * Adds demand signalled by the subscriber and resumes any waiting connections.
+		 *
+		 * @param n number of additional requests wanted
+		 */
+		void request(long n) {
+			demand.accumulateAndGet(n, (current, add) -> {
+				long sum = current + add;
+				return sum < 0 ? Long.MAX_VALUE : sum;
+			});
+			runCallbacks();
+		}
+
+		/**
+		 * Stops emitting requests and resumes any waiting connections so that they may hand their
+		 * requests to the {@link CrowdControl} instance instead.
+		 */
+		void close() {
+			closed = true;
+			runCallbacks();
+		}
+
+		private void runCallbacks() {
+			Runnable callback;
+			while ((callback = callbacks.poll()) != null)
+				callback.run();
+		}
+	}
+}
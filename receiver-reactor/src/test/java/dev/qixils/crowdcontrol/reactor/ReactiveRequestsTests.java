@@ -0,0 +1,139 @@
+package dev.qixils.crowdcontrol.reactor;
+
+import dev.qixils.crowdcontrol.CrowdControl;
+import dev.qixils.crowdcontrol.RequestIntake;
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+public class ReactiveRequestsTests {
+	private static final int PORT = 57577;
+
+	private static void awaitSize(List<?> list, int size) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 1000;
+		while (list.size() < size && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+	}
+
+	private static Response readPacket(InputStream input) throws IOException {
+		ByteArrayOutputStream packet = new ByteArrayOutputStream();
+		int b;
+		while ((b = input.read()) > 0)
+			packet.write(b);
+		if (b == -1)
+			throw new IOException("Stream ended");
+		return Response.fromJSON(new String(packet.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	private static void writePacket(OutputStream output, String json) throws IOException {
+		output.write((json + '\0').getBytes(StandardCharsets.UTF_8));
+		output.flush();
+	}
+
+	@Test
+	public void demandTest() throws InterruptedException {
+		CrowdControl crowdControl = CrowdControl.server().port(PORT).password("password").build();
+		try {
+			List<Request> received = Collections.synchronizedList(new ArrayList<>());
+			BaseSubscriber<Request> subscriber = new BaseSubscriber<Request>() {
+				@Override
+				protected void hookOnSubscribe(Subscription subscription) {
+					// request nothing until the test asks for it
+				}
+
+				@Override
+				protected void hookOnNext(Request request) {
+					received.add(request);
+				}
+			};
+			ReactiveRequests.requests(crowdControl).subscribe(subscriber);
+			RequestIntake intake = crowdControl.getRequestIntake();
+			Assertions.assertNotNull(intake);
+			Request request = new Request.Builder().id(1).effect("test").type(Request.Type.START).viewer("qixils").build();
+
+			// requests are withheld until the subscriber signals demand
+			Assertions.assertFalse(intake.offer(request));
+			AtomicBoolean resumed = new AtomicBoolean();
+			intake.onDemand(() -> resumed.set(true));
+			Assertions.assertFalse(resumed.get());
+			subscriber.request(1);
+			Assertions.assertTrue(resumed.get());
+			Assertions.assertTrue(intake.offer(request));
+			Assertions.assertFalse(intake.offer(request));
+			awaitSize(received, 1); // emitted by the request executor
+			Assertions.assertEquals(Collections.singletonList(request), received);
+
+			// only one subscription may be active at a time
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			ReactiveRequests.requests(crowdControl).subscribe($ -> {}, error::set);
+			Assertions.assertInstanceOf(IllegalStateException.class, error.get());
+			Assertions.assertSame(intake, crowdControl.getRequestIntake());
+
+			// cancelling closes the intake and resumes waiting connections
+			subscriber.request(1);
+			subscriber.dispose();
+			Assertions.assertNull(crowdControl.getRequestIntake());
+			Assertions.assertFalse(intake.offer(request));
+			resumed.set(false);
+			intake.onDemand(() -> resumed.set(true));
+			Assertions.assertTrue(resumed.get());
+			Assertions.assertEquals(1, received.size());
+		} finally {
+			crowdControl.shutdown("test");
+		}
+	}
+
+	@Test
+	public void connectionTest() throws IOException, InterruptedException {
+		CrowdControl crowdControl = CrowdControl.server().port(PORT + 2).password("password").selectorThreads(1).build();
+		List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		Disposable subscription = ReactiveRequests.requests(crowdControl).subscribe(request -> {
+			threads.add(Thread.currentThread().getName());
+			crowdControl.handle(request);
+		});
+		try (Socket client = new Socket()) {
+			crowdControl.registerHandler("test", (Function<Request, Response>) request -> request.buildResponse().type(Response.ResultType.SUCCESS).build());
+			Thread.sleep(50); // let the server bind
+			client.connect(new InetSocketAddress("localhost", PORT + 2), 1000);
+			client.setSoTimeout(2000);
+			InputStream input = client.getInputStream();
+			OutputStream output = client.getOutputStream();
+
+			Assertions.assertEquals(Response.PacketType.LOGIN, readPacket(input).getPacketType());
+			writePacket(output, "{\"id\":1,\"type\":240,\"password\":\"" + crowdControl.getPassword() + "\"}");
+			Assertions.assertEquals(Response.PacketType.LOGIN_SUCCESS, readPacket(input).getPacketType());
+			writePacket(output, "{\"id\":2,\"type\":1,\"code\":\"test\",\"viewer\":\"qixils\"}");
+
+			// the request is emitted off the selector thread and handled by the subscriber
+			Response response;
+			do {
+				response = readPacket(input);
+			} while (response.getPacketType() != Response.PacketType.EFFECT_RESULT);
+			Assertions.assertEquals(2, response.getId());
+			Assertions.assertEquals(Response.ResultType.SUCCESS, response.getResultType());
+			Assertions.assertEquals(1, threads.size());
+			Assertions.assertFalse(threads.get(0).startsWith("crowd-control-selector"), threads.get(0));
+		} finally {
+			subscription.dispose();
+			crowdControl.shutdown("test");
+		}
+	}
+}
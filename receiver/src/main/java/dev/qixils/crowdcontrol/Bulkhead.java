@@ -0,0 +1,113 @@
+package dev.qixils.crowdcontrol;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Limits the number of requests which may be handled concurrently by one or more effects.
+ * <p>
+ * Requests which exceed the concurrency limit are queued, up to a maximum queue depth, and then
+ * handled by whichever thread finishes handling an earlier request, so an effect never occupies
+ * more threads than its concurrency limit. Requests which exceed both limits are immediately
+ * answered with a {@link dev.qixils.crowdcontrol.socket.Response.ResultType#RETRY RETRY} response.
+ * <p>
+ * A bulkhead may be shared by several effects by passing the same instance to
+ * {@link CrowdControl#registerHandler(String, Function, Bulkhead)}, in which case the limits
+ * apply to the effects as a group. Only the synchronous execution of a handler counts towards the
+ * limit; work which a handler schedules to complete later is not tracked.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public final class Bulkhead {
+	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/Bulkhead");
+	private final int maxConcurrent;
+	private final int maxQueued;
+	private final @NotNull Queue<Runnable> queue = new ArrayDeque<>();
+	private int running = 0;
+
+	/**
+	 * Creates a new bulkhead.
+	 *
+	 * @param maxConcurrent maximum number of requests which may be handled at once
+	 * @param maxQueued     maximum number of requests which may wait to be handled,
+	 *                      or 0 to reject requests as soon as the concurrency limit is reached
+	 * @throws IllegalArgumentException {@code maxConcurrent} was not positive or {@code maxQueued} was negative
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public Bulkhead(int maxConcurrent, int maxQueued) throws IllegalArgumentException {
+		if (maxConcurrent < 1)
+			throw new IllegalArgumentException("maxConcurrent must be positive");
+		if (maxQueued < 0)
+			throw new IllegalArgumentException("maxQueued cannot be negative");
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueued = maxQueued;
+	}
+
+	/**
+	 * Gets the maximum number of requests which may be handled at once.
+	 *
+	 * @return concurrency limit
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	/**
+	 * Gets the maximum number of requests which may wait to be handled.
+	 *
+	 * @return queue depth
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public int getMaxQueued() {
+		return maxQueued;
+	}
+
+	/**
+	 * Runs a task if the concurrency limit permits, otherwise queues it if there is room.
+	 * If the task is run, the calling thread then also runs any tasks which are queued before it
+	 * releases its permit.
+	 *
+	 * @param task task to run
+	 * @return false if the task was rejected
+	 */
+	boolean execute(@NotNull Runnable task) {
+		synchronized (this) {
+			if (running >= maxConcurrent) {
+				if (queue.size() >= maxQueued)
+					return false;
+				queue.add(task);
+				return true;
+			}
+			running++;
+		}
+
+		while (task != null) {
+			try {
+				task.run();
+			} catch (Throwable exc) {
+				logger.error("Bulkhead task threw an exception", exc);
+			}
+			synchronized (this) {
+				task = queue.poll();
+				if (task == null)
+					running--;
+			}
+		}
+		return true;
+	}
+}
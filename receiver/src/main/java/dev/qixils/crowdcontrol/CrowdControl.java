@@ -3,6 +3,7 @@ package dev.qixils.crowdcontrol;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
 import dev.qixils.crowdcontrol.exceptions.NoApplicableTarget;
 import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.RequestExecutorProvider;
 import dev.qixils.crowdcontrol.socket.Response;
 import dev.qixils.crowdcontrol.socket.SocketManager;
 import org.jetbrains.annotations.ApiStatus;
@@ -13,12 +14,20 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.net.InetAddress;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -59,30 +68,62 @@ import java.util.function.Supplier;
  * <p>
  * To start handling incoming effects, you much register handlers for each effect
  * you want to handle using one of {@link #registerHandler(String, Consumer)},
- * {@link #registerHandler(String, Function)}, or {@link #registerHandlers(Object)}.
+ * {@link #registerHandler(String, Function)}, {@link #registerAsyncHandler(String, Function)},
+ * or {@link #registerHandlers(Object)}.
+ * Handlers may be registered or {@link #unregisterHandler(String) unregistered} at any time,
+ * including while requests are being processed.
  * </p>
  * <h2>Registering checks</h2>
  * <p>
  * Checks allow you to block an effect from being processed if certain conditions are not met.
  * This is typically used to ensure effects are not run before the game has loaded into a world.
  * You can register checks using {@link #registerCheck(Supplier)}
- * or {@link #registerCheck(Function)}.
+ * or {@link #registerCheck(Function)}, and unregister them using the corresponding
+ * {@code unregisterCheck} method.
+ * </p>
+ * <p>
+ * Similarly, {@link RateLimiter}s registered using {@link #registerRateLimiter(RateLimiter)}
+ * reject effects which are requested too often by a single viewer, streamer, or effect, and
+ * {@link #registerCoalescing(String, Duration) coalescing} merges bursts of identical requests
+ * into a single call to an effect's handler.
+ * </p>
+ * <p>
+ * Finally, {@link Interceptor}s registered using {@link #registerInterceptor(Interceptor)} wrap
+ * the handling of every request, allowing concerns such as metrics or auditing to be implemented
+ * in one place. Unlike checks, interceptors may observe requests after they have been handled
+ * and may answer requests with any response.
  * </p>
  *
  * @since 1.0.0
  */
 @ApiStatus.AvailableSince("1.0.0")
-public final class CrowdControl implements SocketManager, RequestManager {
+public final class CrowdControl implements SocketManager, RequestManager, RequestExecutorProvider {
 
 	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/Core");
 	private static final Map<Class<?>, Function<Object, Response>> RETURN_TYPE_PARSERS;
-	private final Map<String, Function<Request, Response>> effectHandlers = new HashMap<>();
-	private final Map<String, Consumer<Request>> asyncHandlers = new HashMap<>();
-	private final List<Function<Request, CheckResult>> globalChecks = new ArrayList<>();
+	private static final ClassValue<Optional<SubscribeRegistrar<?>>> REGISTRARS = new ClassValue<Optional<SubscribeRegistrar<?>>>() {
+		@Override
+		protected Optional<SubscribeRegistrar<?>> computeValue(@NotNull Class<?> type) {
+			return Optional.ofNullable(loadRegistrar(type));
+		}
+	};
+	private volatile @NotNull EffectRouter router = EffectRouter.EMPTY;
+	private final List<Function<Request, CheckResult>> globalChecks = new CopyOnWriteArrayList<>();
+	private volatile @NotNull RateLimiter @NotNull [] rateLimiters = new RateLimiter[0]; // written while holding this
+	private final List<Interceptor> interceptors = new ArrayList<>(); // guarded by this
+	private final Interceptor.@NotNull Chain terminal = this::process;
+	private volatile Interceptor.@NotNull Chain chain = terminal;
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+	private final Watchdog watchdog = new Watchdog();
+	private final AtomicReference<RequestIntake> intake = new AtomicReference<>();
+	private final AtomicLong ticks = new AtomicLong();
 	private final @Nullable InetAddress IP;
 	private final int port;
 	private final @Nullable String password;
 	private final SocketManager socketManager;
+	private final @NotNull Executor requestExecutor;
+	private final @Nullable TickExecutor tickExecutor;
+	private final long maxQueueAge; // nanoseconds, or 0 if unlimited
 
 	static {
 		Map<Class<?>, Function<Object, Response>> parsers = new HashMap<>(2);
@@ -97,15 +138,22 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 *
 	 * @param IP                   IP address to connect to
 	 * @param port                 port to listen on or connect to
+	 * @param tickExecutor         executor which handles requests when the game ticks, if enabled
+	 * @param maxQueueAge          maximum time a request may wait to be handled, if limited
 	 * @param socketManagerCreator creator of a new {@link SocketManager}
 	 */
 	CrowdControl(@NotNull InetAddress IP,
 				 int port,
+				 @Nullable TickExecutor tickExecutor,
+				 @Nullable Duration maxQueueAge,
 				 @NotNull Function<@NotNull CrowdControl, @NotNull SocketManager> socketManagerCreator) {
 		this.IP = ExceptionUtil.validateNotNull(IP, "IP");
 		this.port = port;
 		this.password = null;
+		this.tickExecutor = tickExecutor;
+		this.maxQueueAge = maxQueueAge == null ? 0 : maxQueueAge.toNanos();
 		this.socketManager = ExceptionUtil.validateNotNull(socketManagerCreator, "socketManagerCreator").apply(this);
+		this.requestExecutor = requestExecutor(socketManager);
 	}
 
 	/**
@@ -114,16 +162,23 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 * @param IP                   IP address to bind to (if applicable)
 	 * @param port                 port to listen on or connect to
 	 * @param password             password to use to connect to the server
+	 * @param tickExecutor         executor which handles requests when the game ticks, if enabled
+	 * @param maxQueueAge          maximum time a request may wait to be handled, if limited
 	 * @param socketManagerCreator creator of a new {@link SocketManager}
 	 */
 	CrowdControl(@Nullable InetAddress IP,
 				 int port,
 				 @NotNull String password,
+				 @Nullable TickExecutor tickExecutor,
+				 @Nullable Duration maxQueueAge,
 				 @NotNull Function<@NotNull CrowdControl, @NotNull SocketManager> socketManagerCreator) {
 		this.IP = IP;
 		this.port = port;
 		this.password = ServiceManager.encryptPassword(ExceptionUtil.validateNotNull(password, "password"));
+		this.tickExecutor = tickExecutor;
+		this.maxQueueAge = maxQueueAge == null ? 0 : maxQueueAge.toNanos();
 		this.socketManager = ExceptionUtil.validateNotNull(socketManagerCreator, "socketManagerCreator").apply(this);
+		this.requestExecutor = requestExecutor(socketManager);
 	}
 
 	/**
@@ -150,14 +205,56 @@ public final class CrowdControl implements SocketManager, RequestManager {
 		return new CrowdControlServerBuilder();
 	}
 
+	/**
+	 * Gets the executor which handles the requests received by a socket manager.
+	 *
+	 * @param socketManager socket manager of this instance
+	 * @return request executor, or the common pool if the socket manager does not have one
+	 */
+	private static @NotNull Executor requestExecutor(@NotNull SocketManager socketManager) {
+		if (socketManager instanceof RequestExecutorProvider)
+			return ((RequestExecutorProvider) socketManager).getRequestExecutor();
+		return ForkJoinPool.commonPool();
+	}
+
 	/**
 	 * Renders a warning for improperly configured {@link Subscribe} methods.
 	 *
-	 * @param method           improperly configured method
+	 * @param method           name of the improperly configured method
 	 * @param errorDescription issue with the method
 	 */
-	private static void methodHandlerWarning(@NotNull Method method, @NotNull String errorDescription) {
-		logger.warn("Method " + method.getName() + " is improperly configured: " + errorDescription);
+	private static void methodHandlerWarning(@NotNull String method, @NotNull String errorDescription) {
+		logger.warn("Method " + method + " is improperly configured: " + errorDescription);
+	}
+
+	/**
+	 * Loads the generated {@link SubscribeRegistrar} of a class.
+	 *
+	 * @param clazz class whose methods are being registered
+	 * @return the registrar, or null if the class was not processed by the annotation processor
+	 */
+	private static @Nullable SubscribeRegistrar<?> loadRegistrar(@NotNull Class<?> clazz) {
+		String name = clazz.getName();
+		Package pkg = clazz.getPackage();
+		String prefix = pkg == null || pkg.getName().isEmpty() ? "" : pkg.getName() + '.';
+		// underscores are escaped so that nested and top-level classes cannot share a registrar
+		String registrarName = prefix + name.substring(prefix.length()).replace("_", "__").replace("$", "_$") + SubscribeRegistrar.SUFFIX;
+		try {
+			Class<?> registrarClass = Class.forName(registrarName, true, clazz.getClassLoader());
+			if (!SubscribeRegistrar.class.isAssignableFrom(registrarClass))
+				return null;
+			SubscribeRegistrar<?> registrar = (SubscribeRegistrar<?>) registrarClass.getConstructor().newInstance();
+			if (registrar.target() != clazz) {
+				logger.warn(registrarName + " does not register " + name + "; falling back to reflection");
+				return null;
+			}
+			return registrar;
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			logger.warn("Failed to load " + registrarName + "; falling back to reflection", e);
+			return null;
+		}
 	}
 
 	@Override
@@ -241,84 +338,182 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 *     <li>a return type of one of the following:<ul>
 	 *         <li>{@link Response}</li>
 	 *         <li>{@link Response.Builder}</li>
+	 *         <li>a {@link CompletionStage} such as {@link CompletableFuture} which completes with a
+	 *         {@link Response} or {@link Response.Builder}</li>
 	 *         <li>Void (assumes you will call {@link Response#send()} yourself)</li>
 	 *     </ul></li>
 	 * </ul>
+	 * Exceptions thrown by these methods are handled in the same way as those thrown by handlers
+	 * registered using {@link #registerHandler(String, Function)}.
+	 * <p>
+	 * If the class was compiled with the {@code crowd-control-processor} annotation processor,
+	 * its methods are registered by the generated {@link SubscribeRegistrar} rather than by
+	 * reflection, and improperly configured methods are reported as compilation errors.
 	 *
 	 * @param object class instance to register
 	 * @since 1.0.0
 	 */
-	@SuppressWarnings("deprecation") // backwards compatibility
+	@SuppressWarnings({"deprecation", "unchecked"}) // backwards compatibility
 	@ApiStatus.AvailableSince("1.0.0")
 	public void registerHandlers(@NotNull Object object) {
 		Class<?> clazz = object.getClass();
+		SubscribeRegistrar<?> registrar = REGISTRARS.get(clazz).orElse(null);
+		if (registrar != null) {
+			((SubscribeRegistrar<Object>) registrar).register(object, this);
+			return;
+		}
+
 		for (Method method : clazz.getMethods()) {
 			if (!method.isAnnotationPresent(Subscribe.class)) continue;
 			Subscribe annotation = method.getAnnotation(Subscribe.class);
+			final String methodName = method.getName();
 			final String rawEffect;
 			if (!annotation.value().isEmpty())
 				rawEffect = annotation.value();
 			else if (!annotation.effect().isEmpty())
 				rawEffect = annotation.effect();
 			else {
-				methodHandlerWarning(method, "effect name cannot be empty");
-				continue;
-			}
-
-			final String effect = rawEffect.toLowerCase(Locale.ENGLISH);
-			if (effectHandlers.containsKey(effect) || asyncHandlers.containsKey(effect)) {
-				methodHandlerWarning(method, "handler by the name '" + effect + "' is already registered");
+				methodHandlerWarning(methodName, "effect name cannot be empty");
 				continue;
 			}
 
 			if (!Modifier.isPublic(method.getModifiers())) {
-				methodHandlerWarning(method, "should be public");
+				methodHandlerWarning(methodName, "should be public");
 				continue;
 			}
 
 			Parameter[] params = method.getParameters();
 			if (params.length != 1) {
-				methodHandlerWarning(method, "expected 1 input parameter, received " + params.length);
+				methodHandlerWarning(methodName, "expected 1 input parameter, received " + params.length);
 				continue;
 			}
 
 			Class<?> paramType = params[0].getType();
 			if (!Request.class.equals(paramType)) {
-				methodHandlerWarning(method, "expected input parameter of type Request, received " + paramType.getName());
+				methodHandlerWarning(methodName, "expected input parameter of type Request, received " + paramType.getName());
+				continue;
+			}
+
+			if (annotation.maxConcurrent() < 0 || annotation.maxQueued() < 0) {
+				methodHandlerWarning(methodName, "concurrency limits cannot be negative");
+				continue;
+			}
+
+			if (annotation.maxConcurrent() == 0 && annotation.maxQueued() > 0) {
+				methodHandlerWarning(methodName, "maxQueued requires maxConcurrent to be set");
 				continue;
 			}
 
+			Bulkhead bulkhead = annotation.maxConcurrent() > 0 ? new Bulkhead(annotation.maxConcurrent(), annotation.maxQueued()) : null;
 			Class<?> returnType = method.getReturnType();
-			if (RETURN_TYPE_PARSERS.containsKey(returnType)) {
-				Function<Object, Response> parser = RETURN_TYPE_PARSERS.get(returnType);
-				registerHandler(effect, request -> {
-					Response output;
-					try {
-						Object result = method.invoke(object, request);
-						output = result == null
-								? request.buildResponse().type(Response.ResultType.FAILURE).message("Effect handler returned a null response").build()
-								: parser.apply(result);
-					} catch (IllegalAccessException | InvocationTargetException e) {
-						logger.error("Failed to invoke method handler for effect \"" + effect + "\"", e);
-						output = request.buildResponse().type(Response.ResultType.FAILURE).message("Failed to invoke method handler").build();
-					}
-					return output;
-				});
-			} else if (returnType.equals(Void.TYPE)) {
-				registerHandler(effect, request -> {
-					try {
-						method.invoke(object, request);
-					} catch (IllegalAccessException | InvocationTargetException e) {
-						logger.error("Failed to invoke method handler for effect \"" + effect + "\"", e);
-						request.buildResponse().type(Response.ResultType.FAILURE).message("Failed to invoke method handler").send();
-					}
-				});
-			} else {
-				methodHandlerWarning(method, "unknown return type: " + returnType.getName());
+			try {
+				if (RETURN_TYPE_PARSERS.containsKey(returnType)) {
+					Function<Object, Response> parser = RETURN_TYPE_PARSERS.get(returnType);
+					Function<Request, Object> invoker = MethodInvokers.function(object, method);
+					registerSubscriber(methodName, rawEffect, bulkhead, request -> {
+						Object result = invoker.apply(request);
+						return result == null ? null : parser.apply(result);
+					});
+				} else if (CompletionStage.class.isAssignableFrom(returnType)) {
+					Function<Request, Object> invoker = MethodInvokers.function(object, method);
+					registerAsyncSubscriber(methodName, rawEffect, bulkhead, request -> (CompletionStage<?>) invoker.apply(request));
+				} else if (returnType.equals(Void.TYPE)) {
+					registerSubscriber(methodName, rawEffect, bulkhead, MethodInvokers.consumer(object, method));
+				} else {
+					methodHandlerWarning(methodName, "unknown return type: " + returnType.getName());
+				}
+			} catch (IllegalAccessException e) {
+				methodHandlerWarning(methodName, "could not be accessed (" + e.getMessage() + ")");
 			}
 		}
 	}
 
+	/**
+	 * Registers a {@link Subscribe} method which returns a {@link Response}.
+	 * A null response will be replaced with a {@link Response.ResultType#FAILURE FAILURE}.
+	 * This is intended only for use by {@link SubscribeRegistrar generated registrars}.
+	 *
+	 * @param method   name of the method
+	 * @param effect   name of the effect to handle
+	 * @param bulkhead limits on the concurrency of the method, if any
+	 * @param handler  function invoking the method
+	 * @since 3.10.0
+	 */
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized void registerSubscriber(@NotNull String method, @NotNull String effect, @Nullable Bulkhead bulkhead, @NotNull Function<Request, Response> handler) {
+		if (!checkSubscriber(method, effect))
+			return;
+		registerRoute(effect, new EffectRouter.Route(request -> {
+			Response response = handler.apply(request);
+			return response != null
+					? response
+					: request.buildResponse().type(Response.ResultType.FAILURE).message("Effect handler returned a null response").build();
+		}, bulkhead));
+	}
+
+	/**
+	 * Registers a {@link Subscribe} method which does not return a value.
+	 * This is intended only for use by {@link SubscribeRegistrar generated registrars}.
+	 *
+	 * @param method   name of the method
+	 * @param effect   name of the effect to handle
+	 * @param bulkhead limits on the concurrency of the method, if any
+	 * @param handler  consumer invoking the method
+	 * @since 3.10.0
+	 */
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized void registerSubscriber(@NotNull String method, @NotNull String effect, @Nullable Bulkhead bulkhead, @NotNull Consumer<Request> handler) {
+		if (!checkSubscriber(method, effect))
+			return;
+		registerRoute(effect, new EffectRouter.Route(handler, bulkhead));
+	}
+
+	/**
+	 * Registers a {@link Subscribe} method which returns a {@link CompletionStage} that completes with
+	 * a {@link Response} or {@link Response.Builder}. A null or unrecognized result will be replaced
+	 * with a {@link Response.ResultType#FAILURE FAILURE}.
+	 * This is intended only for use by {@link SubscribeRegistrar generated registrars}.
+	 *
+	 * @param method   name of the method
+	 * @param effect   name of the effect to handle
+	 * @param bulkhead limits on the concurrency of the method, if any
+	 * @param handler  function invoking the method
+	 * @since 3.10.0
+	 */
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized void registerAsyncSubscriber(@NotNull String method, @NotNull String effect, @Nullable Bulkhead bulkhead, @NotNull Function<Request, ? extends CompletionStage<?>> handler) {
+		if (!checkSubscriber(method, effect))
+			return;
+		registerRoute(effect, EffectRouter.Route.async(request -> {
+			CompletionStage<?> stage = handler.apply(request);
+			return stage == null ? null : stage.thenApply(result -> {
+				if (result instanceof Response)
+					return (Response) result;
+				if (result instanceof Response.Builder)
+					return ((Response.Builder) result).build();
+				return request.buildResponse().type(Response.ResultType.FAILURE).message("Effect handler returned an invalid response").build();
+			});
+		}, bulkhead));
+	}
+
+	/**
+	 * Determines if a {@link Subscribe} method may be registered, rendering a warning if not.
+	 *
+	 * @param method name of the method
+	 * @param effect name of the effect to handle
+	 * @return true if no handler for the effect has been registered
+	 */
+	private boolean checkSubscriber(@NotNull String method, @NotNull String effect) {
+		if (hasHandler(effect)) {
+			methodHandlerWarning(method, "handler by the name '" + effect.toLowerCase(Locale.ENGLISH) + "' is already registered");
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Registers a function to handle an effect.
 	 *
@@ -329,12 +524,22 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("1.0.0")
 	public void registerHandler(@Nullable String effect, @NotNull Function<Request, Response> handler) {
-		if (effect != null)
-			effect = effect.toLowerCase(Locale.ENGLISH);
-		if (effectHandlers.containsKey(effect) || asyncHandlers.containsKey(effect)) {
-			throw new IllegalArgumentException("The effect \"" + effect + "\" already has a handler.");
-		}
-		effectHandlers.put(effect, handler);
+		registerRoute(effect, new EffectRouter.Route(handler));
+	}
+
+	/**
+	 * Registers a function to handle an effect whose concurrency is limited by a {@link Bulkhead}.
+	 * Sharing a bulkhead between several effects limits their combined concurrency.
+	 *
+	 * @param effect   name of the effect to handle
+	 * @param handler  function to handle the effect
+	 * @param bulkhead limits on how many requests for the effect may be handled at once
+	 * @see #registerHandler(String, Function)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerHandler(@Nullable String effect, @NotNull Function<Request, Response> handler, @NotNull Bulkhead bulkhead) {
+		registerRoute(effect, new EffectRouter.Route(handler, ExceptionUtil.validateNotNull(bulkhead, "bulkhead")));
 	}
 
 	/**
@@ -348,18 +553,286 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("2.0.0")
 	public void registerHandler(@Nullable String effect, @NotNull Consumer<Request> handler) {
+		registerRoute(effect, new EffectRouter.Route(handler));
+	}
+
+	/**
+	 * Registers an effect handler which does not immediately return a {@link Response} and whose
+	 * concurrency is limited by a {@link Bulkhead}.
+	 * Sharing a bulkhead between several effects limits their combined concurrency.
+	 *
+	 * @param effect   name of the effect to handle
+	 * @param handler  function to handle the effect
+	 * @param bulkhead limits on how many requests for the effect may be handled at once
+	 * @see #registerHandler(String, Consumer)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerHandler(@Nullable String effect, @NotNull Consumer<Request> handler, @NotNull Bulkhead bulkhead) {
+		registerRoute(effect, new EffectRouter.Route(handler, ExceptionUtil.validateNotNull(bulkhead, "bulkhead")));
+	}
+
+	/**
+	 * Registers an effect handler which completes asynchronously, such as one which schedules its
+	 * work on the game's thread. The returned stage's {@link Response} is sent once it completes,
+	 * and exceptions it completes with are handled in the same way as those thrown by handlers
+	 * registered using {@link #registerHandler(String, Function)}. No thread is blocked while
+	 * waiting for the stage to complete.
+	 *
+	 * @param effect  name of the effect to handle
+	 * @param handler function to handle the effect
+	 * @see #registerHandler(String, Function)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerAsyncHandler(@Nullable String effect, @NotNull Function<Request, ? extends CompletionStage<Response>> handler) {
+		registerRoute(effect, EffectRouter.Route.async(ExceptionUtil.validateNotNull(handler, "handler"), null));
+	}
+
+	/**
+	 * Registers an effect handler which completes asynchronously and whose concurrency is limited by
+	 * a {@link Bulkhead}. Only the time taken by the handler to return its stage counts towards
+	 * the bulkhead's limit.
+	 *
+	 * @param effect   name of the effect to handle
+	 * @param handler  function to handle the effect
+	 * @param bulkhead limits on how many requests for the effect may be handled at once
+	 * @see #registerAsyncHandler(String, Function)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerAsyncHandler(@Nullable String effect, @NotNull Function<Request, ? extends CompletionStage<Response>> handler, @NotNull Bulkhead bulkhead) {
+		registerRoute(effect, EffectRouter.Route.async(ExceptionUtil.validateNotNull(handler, "handler"), ExceptionUtil.validateNotNull(bulkhead, "bulkhead")));
+	}
+
+	private synchronized void registerRoute(@Nullable String effect, @NotNull EffectRouter.Route route) {
 		if (effect != null)
 			effect = effect.toLowerCase(Locale.ENGLISH);
-		if (effectHandlers.containsKey(effect) || asyncHandlers.containsKey(effect)) {
+		if (router.id(effect) != EffectRouter.NOT_FOUND) {
 			throw new IllegalArgumentException("The effect \"" + effect + "\" already has a handler.");
 		}
-		asyncHandlers.put(effect, handler);
+		router = router.with(effect, route);
+	}
+
+	/**
+	 * Unregisters the handler of an effect. Requests for the effect which are already being
+	 * processed will still be handled by it.
+	 *
+	 * @param effect name of the effect
+	 * @return true if the effect had a handler
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized boolean unregisterHandler(@Nullable String effect) {
+		if (effect != null)
+			effect = effect.toLowerCase(Locale.ENGLISH);
+		EffectRouter router = this.router;
+		return (this.router = router.without(effect)) != router;
+	}
+
+	/**
+	 * Enables coalescing of identical {@link Request.Type#START START} requests for an effect.
+	 * <p>
+	 * Once a request for the effect is received, identical requests which arrive within the
+	 * given window are merged into it and the effect's handler is called once with the sum of
+	 * their {@link Request#getQuantityOrDefault() quantities}. Each of the merged requests still
+	 * receives its own copy of the handler's responses. Requests are identical if they were
+	 * received from the same streamer and share the same targets and duration; the handler only
+	 * sees the viewer and cost of the first request.
+	 * <p>
+	 * The first request of each batch is delayed by the window without holding a thread while it
+	 * waits, and is then handled by the same executor as other requests. If this instance was built
+	 * with a {@link CrowdControlBuilder#tickExecutor(Duration) tick executor}, the window is ignored
+	 * and requests are instead merged with identical requests that are handled in the same tick.
+	 * <p>
+	 * Coalescing should only be enabled for effects whose handlers respect the request's quantity.
+	 *
+	 * @param effect name of the effect
+	 * @param window time to wait for identical requests
+	 * @throws IllegalArgumentException {@code window} was negative
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerCoalescing(@NotNull String effect, @NotNull Duration window) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(effect, "effect");
+		if (ExceptionUtil.validateNotNull(window, "window").isNegative())
+			throw new IllegalArgumentException("window cannot be negative");
+		coalescer.register(effect.toLowerCase(Locale.ENGLISH), window);
+	}
+
+	/**
+	 * Disables coalescing of requests for an effect which was enabled using
+	 * {@link #registerCoalescing(String, Duration)}. Requests which are already waiting to be
+	 * merged are unaffected.
+	 *
+	 * @param effect name of the effect
+	 * @return true if coalescing was enabled for the effect
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public boolean unregisterCoalescing(@NotNull String effect) {
+		return coalescer.unregister(effect.toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Sets a deadline for the handler of an effect to respond to {@link Request.Type#START START}
+	 * and {@link Request.Type#TEST TEST} requests.
+	 * <p>
+	 * If the handler has not sent an effect result for a request once the deadline passes, the
+	 * request is answered with a {@link Response.ResultType#FAILURE FAILURE} response and any
+	 * results which the handler sends later are discarded. This prevents requests from hanging
+	 * when a handler fails to respond, such as when a {@link Consumer} handler never calls
+	 * {@link Response#send()}.
+	 *
+	 * @param effect  name of the effect
+	 * @param timeout time the handler has to respond
+	 * @throws IllegalArgumentException {@code timeout} was not positive
+	 * @see #registerTimeout(String, Duration, Response.ResultType, boolean)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerTimeout(@NotNull String effect, @NotNull Duration timeout) throws IllegalArgumentException {
+		registerTimeout(effect, timeout, Response.ResultType.FAILURE, false);
+	}
+
+	/**
+	 * Sets a deadline for the handler of an effect to respond to {@link Request.Type#START START}
+	 * and {@link Request.Type#TEST TEST} requests.
+	 * <p>
+	 * If the handler has not sent an effect result for a request once the deadline passes, the
+	 * request is answered with a response of the given type and any results which the handler
+	 * sends later are discarded. If {@code interrupt} is true and the handler is still running,
+	 * its thread is also {@link Thread#interrupt() interrupted} so that it may stop waiting; this
+	 * should not be enabled if handlers run on the game's thread.
+	 *
+	 * @param effect    name of the effect
+	 * @param timeout   time the handler has to respond
+	 * @param type      type of response sent once the deadline passes,
+	 *                  i.e. {@link Response.ResultType#FAILURE FAILURE} or {@link Response.ResultType#RETRY RETRY}
+	 * @param interrupt whether to interrupt the handler's thread once the deadline passes
+	 * @throws IllegalArgumentException {@code timeout} was not positive or {@code type} is not a result type for effects
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerTimeout(@NotNull String effect, @NotNull Duration timeout, Response.@NotNull ResultType type, boolean interrupt) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(effect, "effect");
+		ExceptionUtil.validateNotNull(timeout, "timeout");
+		if (timeout.isNegative() || timeout.isZero())
+			throw new IllegalArgumentException("timeout must be positive");
+		if (ExceptionUtil.validateNotNull(type, "type").isStatus())
+			throw new IllegalArgumentException("type must be a result type for effects");
+		watchdog.register(effect.toLowerCase(Locale.ENGLISH), new Watchdog.Timeout(timeout.toNanos(), type, interrupt));
+	}
+
+	/**
+	 * Removes the deadline of an effect which was set using {@link #registerTimeout(String, Duration)}.
+	 * Requests which are already being handled are unaffected.
+	 *
+	 * @param effect name of the effect
+	 * @return true if the effect had a deadline
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public boolean unregisterTimeout(@NotNull String effect) {
+		return watchdog.unregister(effect.toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Gets the number of requests for effects with a {@link #registerTimeout(String, Duration) deadline}
+	 * whose handlers have not yet responded.
+	 *
+	 * @return number of unanswered requests
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public int getInFlightRequests() {
+		return watchdog.inFlight();
+	}
+
+	/**
+	 * Gets the total number of requests whose handlers did not respond before their
+	 * {@link #registerTimeout(String, Duration) deadline}.
+	 *
+	 * @return number of requests which timed out
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public long getTimedOutRequests() {
+		return watchdog.timedOut();
+	}
+
+	/**
+	 * Opens an intake which all incoming requests will be delivered to instead of being handled
+	 * by this instance, until the intake is {@link #closeRequestIntake(RequestIntake) closed}.
+	 * <p>
+	 * The intake's consumer is responsible for passing the requests it receives to
+	 * {@link #handle(Request)}. Connections stop reading while the intake has no demand, which
+	 * allows a consumer such as a reactive stream to apply backpressure to the clients.
+	 * <p>
+	 * The intake is offered requests on the threads which read from the connections, such as the
+	 * selector threads of a {@link CrowdControlServerBuilder#selectorThreads(int) non-blocking server},
+	 * so it must not handle requests on the calling thread. It should instead hand them to the
+	 * {@link #getRequestExecutor() request executor}.
+	 *
+	 * @param intake the intake to open
+	 * @throws IllegalStateException another intake is already open
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void openRequestIntake(@NotNull RequestIntake intake) throws IllegalStateException {
+		ExceptionUtil.validateNotNull(intake, "intake");
+		if (!this.intake.compareAndSet(null, intake))
+			throw new IllegalStateException("A request intake is already open");
+	}
+
+	/**
+	 * Closes an intake which was opened using {@link #openRequestIntake(RequestIntake)}.
+	 * Requests which arrive afterwards are handled by this instance as usual.
+	 * <p>
+	 * Connections which are waiting for the intake to have demand are not resumed until the
+	 * intake runs its {@link RequestIntake#onDemand(Runnable) callbacks}, which it should do
+	 * once it has been closed.
+	 *
+	 * @param intake the intake to close
+	 * @return true if the intake was open
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public boolean closeRequestIntake(@NotNull RequestIntake intake) {
+		return this.intake.compareAndSet(ExceptionUtil.validateNotNull(intake, "intake"), null);
+	}
+
+	/**
+	 * Gets the executor which handles incoming requests, i.e. the
+	 * {@link CrowdControlBuilder#tickExecutor(Duration) tick executor} if one was configured,
+	 * or else the thread pool which runs effect handlers.
+	 * This is intended only for use by the library.
+	 *
+	 * @return request executor
+	 * @since 3.10.0
+	 */
+	@Override
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public @NotNull Executor getRequestExecutor() {
+		return requestExecutor;
+	}
+
+	@Override
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public @Nullable RequestIntake getRequestIntake() {
+		return intake.get();
 	}
 
 	/**
 	 * Registers a check which will be called for every incoming {@link Request}.
 	 * A resulting value of {@link CheckResult#DISALLOW} will result in a
-	 * {@link Response.ResultType#FAILURE FAILURE} response packet.
+	 * {@link Response.ResultType#FAILURE FAILURE} response packet, and neither the remaining
+	 * checks nor the effect's handler will be called.
 	 * <p>
 	 * This is used for validating that your service is accepting requests, and should return
 	 * {@link CheckResult#DISALLOW} if, for example, the game has not fully initialized or no
@@ -376,7 +849,8 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	/**
 	 * Registers a check which will be called for every incoming {@link Request}.
 	 * A resulting value of {@link CheckResult#DISALLOW} will result in a
-	 * {@link Response.ResultType#FAILURE FAILURE} response packet.
+	 * {@link Response.ResultType#FAILURE FAILURE} response packet, and neither the remaining
+	 * checks nor the effect's handler will be called.
 	 * <p>
 	 * This is used for validating that your service is accepting requests, and should return
 	 * {@link CheckResult#DISALLOW} if, for example, the game has not fully initialized or no
@@ -387,7 +861,156 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("3.2.1")
 	public void registerCheck(@NotNull Supplier<CheckResult> check) {
-		globalChecks.add($ -> check.get());
+		globalChecks.add(new SupplierCheck(check));
+	}
+
+	/**
+	 * Registers a check whose result is reused for all {@link Request}s received within the
+	 * provided duration of the check being called, avoiding repeated evaluations of expensive
+	 * checks during bursts of requests.
+	 *
+	 * @param check    global check to register
+	 * @param cacheFor how long the result of the check may be reused for
+	 * @throws IllegalArgumentException {@code cacheFor} is negative
+	 * @since 3.10.0
+	 * @see #registerCheck(Supplier)
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerCheck(@NotNull Supplier<CheckResult> check, @NotNull Duration cacheFor) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(cacheFor, "cacheFor");
+		if (cacheFor.isNegative())
+			throw new IllegalArgumentException("cacheFor cannot be negative");
+		globalChecks.add(new SupplierCheck(ExceptionUtil.validateNotNull(check, "check"), System::nanoTime, cacheFor.toNanos()));
+	}
+
+	/**
+	 * Registers a check whose result is reused for all {@link Request}s received until the next
+	 * call to {@link #tick()}. This is suited to checks whose result can only change between game
+	 * ticks, such as whether any players are online.
+	 *
+	 * @param check global check to register
+	 * @since 3.10.0
+	 * @see #registerCheck(Supplier)
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void registerTickCheck(@NotNull Supplier<CheckResult> check) {
+		globalChecks.add(new SupplierCheck(ExceptionUtil.validateNotNull(check, "check"), ticks::get, 1));
+	}
+
+	/**
+	 * Notifies the library that a game tick has elapsed, discarding the cached results of checks
+	 * registered using {@link #registerTickCheck(Supplier)}.
+	 * <p>
+	 * If this instance was built with a {@link CrowdControlBuilder#tickExecutor(Duration) tick executor},
+	 * this also handles the requests received since the previous tick on the calling thread.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public void tick() {
+		ticks.incrementAndGet();
+		if (tickExecutor != null)
+			tickExecutor.drain();
+	}
+
+	/**
+	 * Gets the number of requests awaiting the next {@link #tick()}.
+	 * This is always 0 unless this instance was built with a
+	 * {@link CrowdControlBuilder#tickExecutor(Duration) tick executor}.
+	 *
+	 * @return number of queued requests
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public int getQueuedRequests() {
+		return tickExecutor == null ? 0 : tickExecutor.size();
+	}
+
+	/**
+	 * Unregisters a check which was registered using {@link #registerCheck(Function)}.
+	 *
+	 * @param check global check to unregister
+	 * @return true if the check was registered
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public boolean unregisterCheck(@NotNull Function<Request, CheckResult> check) {
+		return globalChecks.remove(check);
+	}
+
+	/**
+	 * Unregisters a check which was registered using {@link #registerCheck(Supplier)},
+	 * {@link #registerCheck(Supplier, Duration)}, or {@link #registerTickCheck(Supplier)}.
+	 *
+	 * @param check global check to unregister
+	 * @return true if the check was registered
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public boolean unregisterCheck(@NotNull Supplier<CheckResult> check) {
+		return globalChecks.remove(new SupplierCheck(check));
+	}
+
+	/**
+	 * Registers a {@link RateLimiter} which limits how often effects may be requested.
+	 * Requests which exceed the limit are rejected before any checks or handlers are called.
+	 *
+	 * @param rateLimiter rate limiter to register
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized void registerRateLimiter(@NotNull RateLimiter rateLimiter) {
+		ExceptionUtil.validateNotNull(rateLimiter, "rateLimiter");
+		RateLimiter[] rateLimiters = Arrays.copyOf(this.rateLimiters, this.rateLimiters.length + 1);
+		rateLimiters[rateLimiters.length - 1] = rateLimiter;
+		this.rateLimiters = rateLimiters;
+	}
+
+	/**
+	 * Unregisters a {@link RateLimiter} which was registered using {@link #registerRateLimiter(RateLimiter)}.
+	 *
+	 * @param rateLimiter rate limiter to unregister
+	 * @return true if the rate limiter was registered
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized boolean unregisterRateLimiter(@NotNull RateLimiter rateLimiter) {
+		List<RateLimiter> rateLimiters = new ArrayList<>(Arrays.asList(this.rateLimiters));
+		if (!rateLimiters.remove(rateLimiter))
+			return false;
+		this.rateLimiters = rateLimiters.toArray(new RateLimiter[0]);
+		return true;
+	}
+
+	/**
+	 * Registers an {@link Interceptor} which wraps the handling of every incoming request.
+	 * Interceptors wrap those which were registered before them, and all interceptors wrap the
+	 * usual processing of requests, including rate limiting and checks.
+	 *
+	 * @param interceptor interceptor to register
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized void registerInterceptor(@NotNull Interceptor interceptor) {
+		interceptors.add(ExceptionUtil.validateNotNull(interceptor, "interceptor"));
+		chain = InterceptorChain.build(interceptors, terminal);
+	}
+
+	/**
+	 * Unregisters an {@link Interceptor} which was registered using {@link #registerInterceptor(Interceptor)}.
+	 * Requests which are already passing through the interceptor are unaffected.
+	 *
+	 * @param interceptor interceptor to unregister
+	 * @return true if the interceptor was registered
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public synchronized boolean unregisterInterceptor(@NotNull Interceptor interceptor) {
+		if (!interceptors.remove(interceptor))
+			return false;
+		chain = InterceptorChain.build(interceptors, terminal);
+		return true;
 	}
 
 	/**
@@ -399,8 +1022,7 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("3.3.0")
 	public boolean hasHandler(@NotNull String effect) {
-		effect = effect.toLowerCase(Locale.ENGLISH);
-		return effectHandlers.containsKey(effect) || asyncHandlers.containsKey(effect);
+		return router.id(effect) != EffectRouter.NOT_FOUND;
 	}
 
 	/**
@@ -412,30 +1034,153 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	@ApiStatus.AvailableSince("1.0.0")
 	@ApiStatus.Internal
 	public void handle(@NotNull Request request) {
+		chain.proceed(request);
+	}
+
+	/**
+	 * Handles a request once it has passed through every registered {@link Interceptor}.
+	 *
+	 * @param request an incoming request
+	 */
+	private void process(@NotNull Request request) {
+		if (isExpired(request))
+			return;
+
+		RateLimiter[] rateLimiters = this.rateLimiters;
+		if (rateLimiters.length > 0 && RateLimiter.isLimited(request)) {
+			RateLimiter rejected = RateLimiter.tryAcquireAll(rateLimiters, request);
+			if (rejected != null) {
+				request.buildResponse().type(rejected.getRejection()).message("Too many requests").sendAsync();
+				return;
+			}
+		}
+
 		for (Function<Request, CheckResult> check : globalChecks) {
 			if (check.apply(request) == CheckResult.DISALLOW) {
-				request.buildResponse().type(Response.ResultType.FAILURE).message("The game is unavailable").send();
+				request.buildResponse().type(Response.ResultType.FAILURE).message("The game is unavailable").sendAsync();
+				return;
 			}
 		}
 
 		String effect = request.getEffect();
+		EffectRouter router = this.router;
+		int id = router.id(effect);
+
+		if (id == EffectRouter.NOT_FOUND) {
+			if (effect != null && !effect.isEmpty() && request.getType() != null && request.getType().isEffectType()) {
+				request.buildResponse().type(Response.ResultType.UNAVAILABLE).message("The effect couldn't be found").sendAsync();
+				request.buildResponse().id(0).packetType(Response.PacketType.EFFECT_STATUS).type(Response.ResultType.NOT_VISIBLE).sendAsync();
+			}
+			return;
+		}
+
+		EffectRouter.Route route = router.route(id);
+		Duration window = coalescer.window(request);
+		if (window == null) {
+			execute(route, request);
+			return;
+		}
+
+		RequestCoalescer.Batch batch = coalescer.offer(request);
+		if (batch == null)
+			return;
+		if (tickExecutor != null) {
+			// identical requests which are already queued for this tick join the batch before it closes
+			tickExecutor.execute(() -> execute(route, batch));
+			return;
+		}
+		coalescer.schedule(batch, window, requestExecutor, closed -> execute(route, closed));
+	}
+
+	/**
+	 * Closes a batch of coalesced requests and executes the merged request unless the batch has
+	 * waited for too long.
+	 *
+	 * @param route handler of the requests' effect
+	 * @param batch batch to close
+	 */
+	private void execute(@NotNull EffectRouter.Route route, RequestCoalescer.@NotNull Batch batch) {
+		Request request = coalescer.close(batch);
+		if (!isExpired(request))
+			execute(route, request);
+	}
+
+	/**
+	 * Executes the handler of a request within the limits of the effect's {@link Bulkhead}, if any.
+	 *
+	 * @param route   handler of the request's effect
+	 * @param request request to handle
+	 */
+	private void execute(@NotNull EffectRouter.Route route, @NotNull Request request) {
+		Bulkhead bulkhead = route.bulkhead;
+		if (bulkhead == null)
+			dispatch(route, request);
+		else if (!bulkhead.execute(() -> {
+			if (!isExpired(request))
+				dispatch(route, request);
+		}))
+			request.buildResponse().type(Response.ResultType.RETRY).message("The effect is busy").sendAsync();
+	}
 
+	/**
+	 * Determines if a request has waited longer than the {@link CrowdControlBuilder#maxQueueAge(Duration)
+	 * maximum queue age}, in which case it is answered with {@link Response.ResultType#RETRY RETRY}.
+	 * Only requests which start or test an effect can expire.
+	 *
+	 * @param request request to check
+	 * @return true if the request has expired and should not be handled
+	 */
+	private boolean isExpired(@NotNull Request request) {
+		long receivedTime = request.getReceivedTime();
+		if (maxQueueAge == 0 || receivedTime == 0 || System.nanoTime() - receivedTime <= maxQueueAge)
+			return false;
+		Request.Type type = request.getType();
+		if (type != Request.Type.START && type != Request.Type.TEST)
+			return false;
+		request.buildResponse().type(Response.ResultType.RETRY).message("The request expired before it could be handled").sendAsync();
+		return true;
+	}
+
+	/**
+	 * Executes the handler of a request, responding with a failure if it throws an exception.
+	 *
+	 * @param route   handler of the request's effect
+	 * @param request request to handle
+	 */
+	private void dispatch(@NotNull EffectRouter.Route route, @NotNull Request request) {
+		Watchdog.Watch watch = watchdog.watch(request);
 		try {
-			if (effectHandlers.containsKey(effect))
-				effectHandlers.get(effect).apply(request).send();
-			else if (asyncHandlers.containsKey(effect))
-				asyncHandlers.get(effect).accept(request);
-			else if (effect != null && !effect.isEmpty() && request.getType() != null && request.getType().isEffectType()) {
-				request.buildResponse().type(Response.ResultType.UNAVAILABLE).message("The effect couldn't be found").send();
-				request.buildResponse().id(0).packetType(Response.PacketType.EFFECT_STATUS).type(Response.ResultType.NOT_VISIBLE).send();
+			CompletionStage<Response> stage = route.handle(request);
+			if (stage != null) {
+				stage.whenComplete((response, exc) -> {
+					if (exc != null)
+						fail(request, exc instanceof CompletionException && exc.getCause() != null ? exc.getCause() : exc);
+					else if (response == null)
+						request.buildResponse().type(Response.ResultType.FAILURE).message("Effect handler returned a null response").sendAsync();
+					else
+						response.sendAsync();
+				});
 			}
 		} catch (Exception e) {
-			if (ExceptionUtil.isCause(NoApplicableTarget.class, e)) {
-				request.buildResponse().type(Response.ResultType.FAILURE).message("Streamer(s) unavailable").send();
-			} else {
-				logger.error("Failed to handle effect " + request, e);
-				request.buildResponse().type(Response.ResultType.FAILURE).message("Requested effect failed to execute").send();
-			}
+			fail(request, e);
+		} finally {
+			if (watch != null)
+				watch.release();
+		}
+	}
+
+	/**
+	 * Responds to a request whose handler failed with an exception.
+	 *
+	 * @param request request which failed
+	 * @param exc     exception thrown by the handler
+	 */
+	private static void fail(@NotNull Request request, @NotNull Throwable exc) {
+		if (ExceptionUtil.isCause(NoApplicableTarget.class, exc)) {
+			request.buildResponse().type(Response.ResultType.FAILURE).message("Streamer(s) unavailable").sendAsync();
+		} else {
+			logger.error("Failed to handle effect " + request, exc);
+			request.buildResponse().type(Response.ResultType.FAILURE).message("Requested effect failed to execute").sendAsync();
 		}
 	}
 
@@ -452,6 +1197,7 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	// yes, I know that I am overriding a deprecated method, deal with it
 	@Deprecated
 	public void shutdown() {
+		watchdog.shutdown();
 		try {
 			socketManager.shutdown(null, null);
 		} catch (IOException e) {
@@ -468,6 +1214,7 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("3.1.0")
 	public void shutdown(@Nullable String reason) {
+		watchdog.shutdown();
 		try {
 			socketManager.shutdown(null, reason);
 		} catch (IOException e) {
@@ -485,6 +1232,7 @@ public final class CrowdControl implements SocketManager, RequestManager {
 	 */
 	@ApiStatus.AvailableSince("3.1.0")
 	public void shutdown(@Nullable Request cause, @Nullable String reason) {
+		watchdog.shutdown();
 		try {
 			socketManager.shutdown(cause, reason);
 		} catch (IOException e) {
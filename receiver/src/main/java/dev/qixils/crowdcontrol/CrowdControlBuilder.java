@@ -1,5 +1,6 @@
 package dev.qixils.crowdcontrol;
 
+import dev.qixils.crowdcontrol.socket.BackpressurePolicy;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -7,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.CheckReturnValue;
 import java.net.InetAddress;
+import java.time.Duration;
 
 /**
  * Builds a new {@link CrowdControl} instance.
@@ -57,6 +59,83 @@ interface CrowdControlBuilder<B extends CrowdControlBuilder<B>> {
 	@Contract("_ -> this")
 	B port(int port) throws IllegalArgumentException;
 
+	/**
+	 * Sets whether socket loops and effect handlers should run on virtual threads.
+	 * <p>
+	 * This allows handlers which block, such as those waiting on the game's main thread,
+	 * to do so without occupying an operating system thread for every in-flight request.
+	 * Virtual threads require Java 21 or newer; older runtimes ignore this setting
+	 * and continue to use platform threads.
+	 *
+	 * @param virtualThreads whether to use virtual threads
+	 * @return this builder
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@NotNull
+	@Contract("_ -> this")
+	B virtualThreads(boolean virtualThreads);
+
+	/**
+	 * Limits the amount of unsent data that may be queued for each connection.
+	 * <p>
+	 * By default, there is no limit and responses queue for as long as a client takes to receive them.
+	 * Setting a limit with a non-{@link BackpressurePolicy#BLOCK blocking} policy prevents a stalled
+	 * client from holding up the threads which send responses to other clients.
+	 *
+	 * @param maxBytes maximum number of unsent bytes per connection
+	 * @param policy   what to do when a response would exceed the limit
+	 * @return this builder
+	 * @throws IllegalArgumentException {@code maxBytes} was not positive or {@code policy} was null
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@NotNull
+	@Contract("_, _ -> this")
+	B outboundLimit(int maxBytes, @NotNull BackpressurePolicy policy) throws IllegalArgumentException;
+
+	/**
+	 * Handles requests on the game's thread rather than on a thread pool.
+	 * <p>
+	 * Incoming requests are queued until the game calls {@link CrowdControl#tick()}, which then
+	 * handles them on the calling thread. This avoids the need for effect handlers to schedule
+	 * their work on the game's thread. To keep the duration of each tick predictable, handling stops
+	 * once the provided budget has been spent and any remaining requests are carried over to the
+	 * next tick.
+	 *
+	 * @param budget maximum time to spend handling requests per tick
+	 * @return this builder
+	 * @throws IllegalArgumentException {@code budget} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@NotNull
+	@Contract("_ -> this")
+	B tickExecutor(@NotNull Duration budget) throws IllegalArgumentException;
+
+	/**
+	 * Sets the maximum time that an effect request may wait to be handled after it is received.
+	 * <p>
+	 * Requests which wait longer than this, such as during a garbage collection pause or while
+	 * other handlers are stalled, are answered with {@link dev.qixils.crowdcontrol.socket.Response.ResultType#RETRY RETRY}
+	 * without calling their handler, as the Crowd Control app may already have given up on them.
+	 * This includes time spent waiting for a thread, a {@link #tickExecutor(Duration) tick},
+	 * or a {@link Bulkhead}.
+	 *
+	 * @param maxAge maximum time a request may wait
+	 * @return this builder
+	 * @throws IllegalArgumentException {@code maxAge} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@NotNull
+	@Contract("_ -> this")
+	B maxQueueAge(@NotNull Duration maxAge) throws IllegalArgumentException;
+
 	/**
 	 * Builds a new {@link CrowdControl} instance using the provided variables.
 	 *
@@ -1,7 +1,9 @@
 package dev.qixils.crowdcontrol;
 
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import dev.qixils.crowdcontrol.socket.BackpressurePolicy;
 import dev.qixils.crowdcontrol.socket.SocketManager;
+import dev.qixils.crowdcontrol.socket.SocketOptions;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -12,6 +14,8 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.CheckReturnValue;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -50,6 +54,48 @@ abstract class CrowdControlBuilderBase<B extends CrowdControlBuilderBase<B>> imp
 	@ApiStatus.AvailableSince("3.0.0")
 	protected int port = -1;
 
+	/**
+	 * Whether the client/server should run on virtual threads.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	protected boolean virtualThreads = false;
+
+	/**
+	 * The maximum number of unsent bytes queued per connection, or 0 for no limit.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	protected int outboundLimit = 0;
+
+	/**
+	 * What to do when a connection reaches its {@link #outboundLimit}.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	protected @NotNull BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+
+	/**
+	 * The maximum time to spend handling requests per game tick,
+	 * or null if requests should be handled on a thread pool.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	protected @Nullable Duration tickBudget = null;
+
+	/**
+	 * The maximum time that a request may wait to be handled,
+	 * or null if requests may wait indefinitely.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	protected @Nullable Duration maxQueueAge = null;
+
 	/**
 	 * Create a new {@link CrowdControl} using a function that creates a new {@link SocketManager}.
 	 *
@@ -74,6 +120,79 @@ abstract class CrowdControlBuilderBase<B extends CrowdControlBuilderBase<B>> imp
 		return (B) this;
 	}
 
+	@Override
+	@CheckReturnValue
+	@Contract("_ -> this")
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull B virtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+		return (B) this;
+	}
+
+	@Override
+	@CheckReturnValue
+	@Contract("_, _ -> this")
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull B outboundLimit(int maxBytes, @NotNull BackpressurePolicy policy) throws IllegalArgumentException {
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("maxBytes must be positive");
+		}
+		this.backpressurePolicy = ExceptionUtil.validateNotNull(policy, "policy");
+		this.outboundLimit = maxBytes;
+		return (B) this;
+	}
+
+	@Override
+	@CheckReturnValue
+	@Contract("_ -> this")
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull B tickExecutor(@NotNull Duration budget) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(budget, "budget");
+		if (budget.isNegative() || budget.isZero()) {
+			throw new IllegalArgumentException("budget must be positive");
+		}
+		this.tickBudget = budget;
+		return (B) this;
+	}
+
+	@Override
+	@CheckReturnValue
+	@Contract("_ -> this")
+	@ApiStatus.AvailableSince("3.10.0")
+	public @NotNull B maxQueueAge(@NotNull Duration maxAge) throws IllegalArgumentException {
+		ExceptionUtil.validateNotNull(maxAge, "maxAge");
+		if (maxAge.isNegative() || maxAge.isZero()) {
+			throw new IllegalArgumentException("maxAge must be positive");
+		}
+		this.maxQueueAge = maxAge;
+		return (B) this;
+	}
+
+	/**
+	 * Creates the executor which handles requests when the game ticks.
+	 *
+	 * @return tick executor, or null if requests should be handled on a thread pool
+	 */
+	@CheckReturnValue
+	@Nullable TickExecutor tickExecutor() {
+		return tickBudget == null ? null : new TickExecutor(tickBudget.toNanos());
+	}
+
+	/**
+	 * Creates the settings used by the connections of the built {@link CrowdControl} instance.
+	 *
+	 * @param requestExecutor executor which handles incoming requests, or null to use a thread pool
+	 * @return socket settings
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	protected @NotNull SocketOptions socketOptions(@Nullable Executor requestExecutor) {
+		if (!virtualThreads && outboundLimit == 0 && requestExecutor == null)
+			return SocketOptions.DEFAULT;
+		return new SocketOptions(virtualThreads, outboundLimit, backpressurePolicy, requestExecutor);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
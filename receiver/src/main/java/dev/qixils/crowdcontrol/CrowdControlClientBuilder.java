@@ -1,6 +1,7 @@
 package dev.qixils.crowdcontrol;
 
 import dev.qixils.crowdcontrol.socket.ClientSocketManager;
+import dev.qixils.crowdcontrol.socket.SocketOptions;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -44,6 +45,10 @@ public final class CrowdControlClientBuilder extends CrowdControlBuilderBase<Cro
 		if (IP == null) {
 			throw new IllegalStateException("IP must be set using #ip(String)");
 		}
-		return new CrowdControl(IP, port, socketManagerCreator);
+		TickExecutor tickExecutor = tickExecutor();
+		SocketOptions options = socketOptions(tickExecutor);
+		if (options != SocketOptions.DEFAULT)
+			return new CrowdControl(IP, port, tickExecutor, maxQueueAge, crowdControl -> new ClientSocketManager(crowdControl, options));
+		return new CrowdControl(IP, port, null, maxQueueAge, socketManagerCreator);
 	}
 }
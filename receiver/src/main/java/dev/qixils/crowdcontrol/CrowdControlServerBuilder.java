@@ -1,7 +1,9 @@
 package dev.qixils.crowdcontrol;
 
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import dev.qixils.crowdcontrol.socket.NioServerSocketManager;
 import dev.qixils.crowdcontrol.socket.ServerSocketManager;
+import dev.qixils.crowdcontrol.socket.SocketOptions;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -17,6 +19,8 @@ import javax.annotation.CheckReturnValue;
 @ApiStatus.AvailableSince("3.0.0")
 public final class CrowdControlServerBuilder extends CrowdControlBuilderBase<CrowdControlServerBuilder> {
 	private String password;
+	private int selectorThreads = 0;
+	private int acceptBacklog = SocketOptions.DEFAULT_ACCEPT_BACKLOG;
 
 	/**
 	 * Creates a new {@link CrowdControl} server builder.
@@ -49,6 +53,52 @@ public final class CrowdControlServerBuilder extends CrowdControlBuilderBase<Cro
 		return this;
 	}
 
+	/**
+	 * Services connections using non-blocking channels multiplexed over the provided number of
+	 * selector threads instead of starting a thread for every connected client.
+	 * <p>
+	 * This is recommended for servers which expect many concurrent connections.
+	 * Responses sent over this transport are queued if the client cannot immediately receive them.
+	 *
+	 * @param selectorThreads number of threads used to service connections
+	 * @return this builder
+	 * @throws IllegalArgumentException the number of threads was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@Contract("_ -> this")
+	public @NotNull CrowdControlServerBuilder selectorThreads(int selectorThreads) throws IllegalArgumentException {
+		if (selectorThreads < 1) {
+			throw new IllegalArgumentException("selectorThreads must be positive");
+		}
+		this.selectorThreads = selectorThreads;
+		return this;
+	}
+
+	/**
+	 * Services connections using non-blocking channels multiplexed over the provided number of
+	 * selector threads instead of starting a thread for every connected client.
+	 *
+	 * @param selectorThreads number of threads used to service connections
+	 * @param acceptBacklog   maximum number of pending connections to queue before refusing new ones
+	 *                        (defaults to {@value SocketOptions#DEFAULT_ACCEPT_BACKLOG})
+	 * @return this builder
+	 * @throws IllegalArgumentException the number of threads or the backlog was not positive
+	 * @see #selectorThreads(int)
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@Contract("_, _ -> this")
+	public @NotNull CrowdControlServerBuilder selectorThreads(int selectorThreads, int acceptBacklog) throws IllegalArgumentException {
+		if (acceptBacklog < 1) {
+			throw new IllegalArgumentException("acceptBacklog must be positive");
+		}
+		this.acceptBacklog = acceptBacklog;
+		return selectorThreads(selectorThreads);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -67,6 +117,17 @@ public final class CrowdControlServerBuilder extends CrowdControlBuilderBase<Cro
 		if (password == null) {
 			throw new IllegalStateException("Password must be set using #password(String)");
 		}
-		return new CrowdControl(IP, port, password, socketManagerCreator);
+		TickExecutor tickExecutor = tickExecutor();
+		SocketOptions options = socketOptions(tickExecutor);
+		if (selectorThreads > 0) {
+			int threads = selectorThreads;
+			SocketOptions nioOptions = acceptBacklog == SocketOptions.DEFAULT_ACCEPT_BACKLOG
+					? options
+					: new SocketOptions(virtualThreads, outboundLimit, backpressurePolicy, tickExecutor, acceptBacklog);
+			return new CrowdControl(IP, port, password, tickExecutor, maxQueueAge, crowdControl -> new NioServerSocketManager(crowdControl, threads, nioOptions));
+		}
+		if (options != SocketOptions.DEFAULT)
+			return new CrowdControl(IP, port, password, tickExecutor, maxQueueAge, crowdControl -> new ServerSocketManager(crowdControl, options));
+		return new CrowdControl(IP, port, password, null, maxQueueAge, socketManagerCreator);
 	}
 }
@@ -0,0 +1,174 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An immutable table which routes {@link Request}s to the handler of their effect.
+ * <p>
+ * Effect names are interned to dense integer IDs when the table is built, so dispatching a request
+ * costs one hash lookup to resolve its ID followed by an array access, regardless of the shape of
+ * the effect's handler.
+ * <p>
+ * Tables are never modified once built. Registering or unregistering a handler instead creates a
+ * modified copy which is then published in place of the original, allowing tables to be read by
+ * any number of threads without locking.
+ */
+final class EffectRouter {
+	static final int NOT_FOUND = -1;
+	static final @NotNull EffectRouter EMPTY = new EffectRouter(Collections.emptyMap());
+	private final @NotNull Map<String, Route> handlers;
+	private final @NotNull Map<String, Integer> ids;
+	private final @NotNull Route @NotNull [] routes;
+
+	/**
+	 * Builds a routing table.
+	 *
+	 * @param handlers handlers keyed by their lowercase effect names,
+	 *                 which must not be modified once the table is built
+	 */
+	EffectRouter(@NotNull Map<String, Route> handlers) {
+		this.handlers = Collections.unmodifiableMap(handlers);
+		this.ids = new HashMap<>((int) (handlers.size() / 0.75f) + 1);
+		this.routes = new Route[handlers.size()];
+		int id = 0;
+		for (Map.Entry<String, Route> entry : handlers.entrySet()) {
+			ids.put(entry.getKey(), id);
+			routes[id++] = entry.getValue();
+		}
+	}
+
+	/**
+	 * Creates a copy of this table with an additional handler.
+	 *
+	 * @param effect lowercase name of the effect
+	 * @param route  handler of the effect
+	 * @return a new routing table
+	 */
+	@NotNull EffectRouter with(@Nullable String effect, @NotNull Route route) {
+		Map<String, Route> copy = new LinkedHashMap<>(handlers);
+		copy.put(effect, route);
+		return new EffectRouter(copy);
+	}
+
+	/**
+	 * Creates a copy of this table without the handler of an effect.
+	 *
+	 * @param effect lowercase name of the effect
+	 * @return a new routing table, or this table if the effect has no handler
+	 */
+	@NotNull EffectRouter without(@Nullable String effect) {
+		if (!handlers.containsKey(effect))
+			return this;
+		Map<String, Route> copy = new LinkedHashMap<>(handlers);
+		copy.remove(effect);
+		return new EffectRouter(copy);
+	}
+
+	/**
+	 * Resolves the ID of an effect. Effect names are case-insensitive, although names which are
+	 * already lowercase are resolved without allocating.
+	 *
+	 * @param effect name of the effect
+	 * @return ID of the effect, or {@link #NOT_FOUND} if it has no handler
+	 */
+	int id(@Nullable String effect) {
+		Integer id = ids.get(effect);
+		if (id == null && effect != null && hasUpperCase(effect))
+			id = ids.get(effect.toLowerCase(Locale.ENGLISH));
+		return id == null ? NOT_FOUND : id;
+	}
+
+	/**
+	 * Gets the handler of an effect.
+	 *
+	 * @param id ID of the effect as returned by {@link #id(String)}
+	 * @return the effect's handler
+	 */
+	@NotNull Route route(int id) {
+		return routes[id];
+	}
+
+	static boolean hasUpperCase(@NotNull String effect) {
+		for (int i = 0; i < effect.length(); i++) {
+			if (Character.isUpperCase(effect.charAt(i)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The handler of an effect, which either returns a {@link Response}, returns a stage which
+	 * completes with a {@link Response}, or sends its own.
+	 */
+	static final class Route {
+		private final @Nullable Function<Request, Response> function;
+		private final @Nullable Function<Request, ? extends CompletionStage<Response>> asyncFunction;
+		private final @Nullable Consumer<Request> consumer;
+		final @Nullable Bulkhead bulkhead;
+
+		Route(@NotNull Function<Request, Response> function) {
+			this(function, null);
+		}
+
+		Route(@NotNull Consumer<Request> consumer) {
+			this(consumer, null);
+		}
+
+		Route(@NotNull Function<Request, Response> function, @Nullable Bulkhead bulkhead) {
+			this(function, null, null, bulkhead);
+		}
+
+		Route(@NotNull Consumer<Request> consumer, @Nullable Bulkhead bulkhead) {
+			this(null, null, consumer, bulkhead);
+		}
+
+		private Route(@Nullable Function<Request, Response> function,
+					  @Nullable Function<Request, ? extends CompletionStage<Response>> asyncFunction,
+					  @Nullable Consumer<Request> consumer,
+					  @Nullable Bulkhead bulkhead) {
+			this.function = function;
+			this.asyncFunction = asyncFunction;
+			this.consumer = consumer;
+			this.bulkhead = bulkhead;
+		}
+
+		/**
+		 * Creates the route of a handler which completes asynchronously.
+		 *
+		 * @param asyncFunction handler of the effect
+		 * @param bulkhead      limits on the concurrency of the handler, if any
+		 * @return a new route
+		 */
+		static @NotNull Route async(@NotNull Function<Request, ? extends CompletionStage<Response>> asyncFunction, @Nullable Bulkhead bulkhead) {
+			return new Route(null, asyncFunction, null, bulkhead);
+		}
+
+		/**
+		 * Executes the handler.
+		 *
+		 * @param request request to handle
+		 * @return the stage which will complete with the handler's response if it is asynchronous,
+		 *         or null if the handler has already responded or will send its own response
+		 */
+		@Nullable CompletionStage<Response> handle(@NotNull Request request) {
+			if (function != null) {
+				function.apply(request).sendAsync();
+			} else if (asyncFunction != null) {
+				CompletionStage<Response> stage = asyncFunction.apply(request);
+				return stage != null ? stage : CompletableFuture.completedFuture(null);
+			} else if (consumer != null) {
+				consumer.accept(request);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.socket.SocketManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A {@link SocketManager} which forwards all calls to another socket, allowing subclasses to
+ * observe or alter the responses written to a single request by replacing its originating socket.
+ */
+abstract class ForwardingSocket implements SocketManager {
+	protected final @NotNull SocketManager delegate;
+
+	ForwardingSocket(@NotNull SocketManager delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void write(@NotNull Response response) throws IOException {
+		delegate.write(response);
+	}
+
+	@Override
+	public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		return delegate.writeAsync(response);
+	}
+
+	@Override
+	public @NotNull String getDisplayName() {
+		return delegate.getDisplayName();
+	}
+
+	@Override
+	public Response.@NotNull Builder buildResponse() {
+		return delegate.buildResponse();
+	}
+
+	@Override
+	public void shutdown(@Nullable Request cause, @Nullable String reason) throws IOException {
+		delegate.shutdown(cause, reason);
+	}
+
+	@Override
+	public void addConnectListener(@NotNull Consumer<SocketManager> consumer) {
+		delegate.addConnectListener(consumer);
+	}
+
+	@Override
+	public void addLoginListener(@NotNull Consumer<SocketManager> consumer) {
+		delegate.addLoginListener(consumer);
+	}
+
+	@Override
+	public @NotNull Set<Request.Source> getSources() {
+		return delegate.getSources();
+	}
+
+	@Override
+	public @NotNull List<? extends SocketManager> getConnections() {
+		return delegate.getConnections();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return delegate.isClosed();
+	}
+
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+}
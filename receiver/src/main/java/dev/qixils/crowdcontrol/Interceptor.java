@@ -0,0 +1,95 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Observes or alters the handling of every incoming {@link Request}, such as to record metrics,
+ * audit requests, or reject requests from unauthorized viewers.
+ * <p>
+ * Interceptors are {@link CrowdControl#registerInterceptor(Interceptor) registered} in order and
+ * wrap one another, so the first interceptor to be registered is the first to see each request
+ * and the last to see it leave. The innermost interceptor wraps the usual processing of the
+ * request, i.e. {@link CrowdControl#registerRateLimiter(RateLimiter) rate limiting},
+ * {@link CrowdControl#registerCheck(java.util.function.Function) checks}, and the call to the
+ * effect's handler.
+ * <p>
+ * Simple interceptors need only override {@link #before(Request)} and/or {@link #after(Request)},
+ * while interceptors which must control how the rest of the chain is called may instead override
+ * {@link #around(Request, Chain)}.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public interface Interceptor {
+	/**
+	 * Called before a request is passed on to the rest of the chain.
+	 *
+	 * @param request the incoming request
+	 * @return a response to send instead of handling the request, such as one obtained from
+	 *         {@link Request#buildResponse()}, or null to continue handling the request
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	default Response.@Nullable Builder before(@NotNull Request request) {
+		return null;
+	}
+
+	/**
+	 * Called once the rest of the chain has returned, even if it threw an exception.
+	 * This is not called if {@link #before(Request)} returned a response.
+	 * <p>
+	 * Handlers which respond asynchronously may not have responded yet when this is called.
+	 *
+	 * @param request the incoming request
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	default void after(@NotNull Request request) {
+	}
+
+	/**
+	 * Handles a request by calling the rest of the chain. The default implementation calls
+	 * {@link #before(Request)}, proceeds unless it returned a response, and then calls
+	 * {@link #after(Request)}.
+	 *
+	 * @param request the incoming request
+	 * @param chain   the rest of the chain, which should be called at most once
+	 * @return a response to send instead of handling the request, or null if the request was
+	 *         passed on or answered by this interceptor
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	default Response.@Nullable Builder around(@NotNull Request request, @NotNull Chain chain) {
+		Response.Builder response = before(request);
+		if (response != null)
+			return response;
+		try {
+			chain.proceed(request);
+		} finally {
+			after(request);
+		}
+		return null;
+	}
+
+	/**
+	 * The remainder of an interceptor chain.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@FunctionalInterface
+	interface Chain {
+		/**
+		 * Passes a request on to the next interceptor, or handles it if there are no more.
+		 *
+		 * @param request the request to pass on
+		 * @since 3.10.0
+		 */
+		@ApiStatus.AvailableSince("3.10.0")
+		void proceed(@NotNull Request request);
+	}
+}
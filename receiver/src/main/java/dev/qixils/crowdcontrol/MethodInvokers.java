@@ -0,0 +1,123 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Creates functional objects which directly invoke {@link Subscribe} methods.
+ * <p>
+ * Where possible, these are generated using {@link LambdaMetafactory} so that invoking a handler
+ * costs the same as invoking a lambda. Handlers whose classes are not visible to this library
+ * (such as those loaded by a child class loader) are instead invoked through a bound
+ * {@link MethodHandle}. In both cases, exceptions thrown by the handler are propagated as-is.
+ */
+final class MethodInvokers {
+	private static final MethodHandles.@NotNull Lookup LOOKUP = MethodHandles.lookup();
+	private static final @NotNull MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final @NotNull MethodType CONSUMER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private MethodInvokers() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Creates a function which invokes a method that returns a value.
+	 *
+	 * @param target object to invoke the method on
+	 * @param method method which accepts a single {@link Request}
+	 * @return a function invoking the method
+	 * @throws IllegalAccessException the method is not accessible
+	 */
+	@SuppressWarnings("unchecked")
+	static @NotNull Function<Request, Object> function(@NotNull Object target, @NotNull Method method) throws IllegalAccessException {
+		MethodHandle handle = LOOKUP.unreflect(method);
+		if (canSpin(method)) {
+			try {
+				return (Function<Request, Object>) spin(Function.class, "apply", FUNCTION_TYPE, target, method, handle);
+			} catch (Throwable ignored) {
+				// fall back to invoking the method handle
+			}
+		}
+
+		MethodHandle bound = bind(target, method, handle).asType(MethodType.methodType(Object.class, Request.class));
+		return request -> {
+			try {
+				return (Object) bound.invokeExact(request);
+			} catch (Throwable t) {
+				throw MethodInvokers.<RuntimeException>sneakyThrow(t);
+			}
+		};
+	}
+
+	/**
+	 * Creates a consumer which invokes a method that does not return a value.
+	 *
+	 * @param target object to invoke the method on
+	 * @param method method which accepts a single {@link Request}
+	 * @return a consumer invoking the method
+	 * @throws IllegalAccessException the method is not accessible
+	 */
+	@SuppressWarnings("unchecked")
+	static @NotNull Consumer<Request> consumer(@NotNull Object target, @NotNull Method method) throws IllegalAccessException {
+		MethodHandle handle = LOOKUP.unreflect(method);
+		if (canSpin(method)) {
+			try {
+				return (Consumer<Request>) spin(Consumer.class, "accept", CONSUMER_TYPE, target, method, handle);
+			} catch (Throwable ignored) {
+				// fall back to invoking the method handle
+			}
+		}
+
+		MethodHandle bound = bind(target, method, handle).asType(MethodType.methodType(void.class, Request.class));
+		return request -> {
+			try {
+				bound.invokeExact(request);
+			} catch (Throwable t) {
+				throw MethodInvokers.<RuntimeException>sneakyThrow(t);
+			}
+		};
+	}
+
+	/**
+	 * Determines if the generated lambda class will be able to link against the method,
+	 * which requires its declaring class to be public and visible from this class loader.
+	 */
+	private static boolean canSpin(@NotNull Method method) {
+		for (Class<?> clazz = method.getDeclaringClass(); clazz != null; clazz = clazz.getEnclosingClass()) {
+			if (!Modifier.isPublic(clazz.getModifiers()))
+				return false;
+		}
+		Class<?> declaringClass = method.getDeclaringClass();
+		try {
+			return Class.forName(declaringClass.getName(), false, MethodInvokers.class.getClassLoader()) == declaringClass;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	private static @NotNull Object spin(@NotNull Class<?> type, @NotNull String name, @NotNull MethodType samType,
+										@NotNull Object target, @NotNull Method method, @NotNull MethodHandle handle) throws Throwable {
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		MethodType factoryType = isStatic
+				? MethodType.methodType(type)
+				: MethodType.methodType(type, method.getDeclaringClass());
+		MethodType instantiatedType = MethodType.methodType(method.getReturnType(), Request.class);
+		CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, factoryType, samType, handle, instantiatedType);
+		return isStatic ? site.getTarget().invoke() : site.getTarget().invoke(target);
+	}
+
+	private static @NotNull MethodHandle bind(@NotNull Object target, @NotNull Method method, @NotNull MethodHandle handle) {
+		return Modifier.isStatic(method.getModifiers()) ? handle : handle.bindTo(target);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Throwable> @NotNull RuntimeException sneakyThrow(@NotNull Throwable t) throws T {
+		throw (T) t;
+	}
+}
@@ -0,0 +1,223 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.CheckReturnValue;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Limits the rate at which effects may be requested, using a separate token bucket for each key
+ * such as the requesting viewer.
+ * <p>
+ * Each bucket holds up to {@code capacity} tokens and is refilled at a rate of {@code capacity}
+ * tokens per {@code period}. Every {@link Request.Type#START START} or {@link Request.Type#TEST TEST}
+ * request consumes a token, and requests which find their bucket empty are rejected before
+ * any {@link CrowdControl#registerCheck(Function) checks} or effect handlers are called.
+ * A request which is rejected by one rate limiter does not consume tokens from the others.
+ * <p>
+ * Buckets are stored as a single timestamp which is updated atomically, so checking a request does
+ * not lock or allocate once its key has been seen. Buckets which have refilled completely are
+ * periodically discarded.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public final class RateLimiter {
+	private static final int SWEEP_INTERVAL = 1024;
+	private static final @NotNull Object NULL_KEY = new Object();
+	private final @NotNull Function<Request, ?> key;
+	private final long interval; // nanoseconds between tokens
+	private final long period; // nanoseconds to refill an empty bucket
+	private final @NotNull Response.ResultType rejection;
+	private final @NotNull ConcurrentMap<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final @NotNull AtomicInteger untilSweep = new AtomicInteger(SWEEP_INTERVAL);
+
+	/**
+	 * Creates a new rate limiter.
+	 *
+	 * @param key       function which gets the key of the bucket that a request should consume from
+	 * @param capacity  maximum number of requests which may be made at once by a key
+	 * @param period    time taken for an empty bucket to refill
+	 * @param rejection type of response sent to rejected requests,
+	 *                  i.e. {@link Response.ResultType#RETRY RETRY} or {@link Response.ResultType#FAILURE FAILURE}
+	 * @throws IllegalArgumentException {@code capacity} or {@code period} was not positive,
+	 *                                  or {@code rejection} is not a result type for effects
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public RateLimiter(@NotNull Function<Request, ?> key, int capacity, @NotNull Duration period, @NotNull Response.ResultType rejection) throws IllegalArgumentException {
+		this.key = ExceptionUtil.validateNotNull(key, "key");
+		ExceptionUtil.validateNotNull(period, "period");
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity must be positive");
+		if (period.isNegative() || period.isZero())
+			throw new IllegalArgumentException("period must be positive");
+		this.rejection = ExceptionUtil.validateNotNull(rejection, "rejection");
+		if (rejection.isStatus())
+			throw new IllegalArgumentException("rejection must be a result type for effects");
+		this.period = period.toNanos();
+		this.interval = Math.max(1, this.period / capacity);
+	}
+
+	/**
+	 * Creates a rate limiter which limits each viewer and responds to rejected requests with
+	 * {@link Response.ResultType#RETRY RETRY}.
+	 *
+	 * @param capacity maximum number of requests which may be made at once by a viewer
+	 * @param period   time taken for a viewer's empty bucket to refill
+	 * @return new rate limiter
+	 * @throws IllegalArgumentException {@code capacity} or {@code period} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public static @NotNull RateLimiter perViewer(int capacity, @NotNull Duration period) throws IllegalArgumentException {
+		return new RateLimiter(Request::getViewer, capacity, period, Response.ResultType.RETRY);
+	}
+
+	/**
+	 * Creates a rate limiter which limits each {@link Request.Source source}, i.e. each connected
+	 * streamer, and responds to rejected requests with {@link Response.ResultType#RETRY RETRY}.
+	 *
+	 * @param capacity maximum number of requests which may be made at once by a source
+	 * @param period   time taken for a source's empty bucket to refill
+	 * @return new rate limiter
+	 * @throws IllegalArgumentException {@code capacity} or {@code period} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public static @NotNull RateLimiter perSource(int capacity, @NotNull Duration period) throws IllegalArgumentException {
+		return new RateLimiter(Request::getSource, capacity, period, Response.ResultType.RETRY);
+	}
+
+	/**
+	 * Creates a rate limiter which limits each effect and responds to rejected requests with
+	 * {@link Response.ResultType#RETRY RETRY}.
+	 *
+	 * @param capacity maximum number of requests which may be made at once for an effect
+	 * @param period   time taken for an effect's empty bucket to refill
+	 * @return new rate limiter
+	 * @throws IllegalArgumentException {@code capacity} or {@code period} was not positive
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public static @NotNull RateLimiter perEffect(int capacity, @NotNull Duration period) throws IllegalArgumentException {
+		return new RateLimiter(Request::getEffect, capacity, period, Response.ResultType.RETRY);
+	}
+
+	/**
+	 * Gets the type of response sent to rejected requests.
+	 *
+	 * @return rejection result type
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	public Response.@NotNull ResultType getRejection() {
+		return rejection;
+	}
+
+	/**
+	 * Consumes a token for a request.
+	 *
+	 * @param request incoming request
+	 * @return true if the request may proceed, false if it should be rejected
+	 */
+	boolean tryAcquire(@NotNull Request request) {
+		long now = System.nanoTime();
+		if (untilSweep.decrementAndGet() <= 0) {
+			untilSweep.set(SWEEP_INTERVAL);
+			sweep(now);
+		}
+
+		Object key = this.key.apply(request);
+		if (key == null)
+			key = NULL_KEY;
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null)
+			bucket = buckets.computeIfAbsent(key, $ -> new AtomicLong(now));
+
+		// the bucket stores the time at which it will be full again (generic cell rate algorithm)
+		while (true) {
+			long full = bucket.get();
+			long next = Math.max(full, now) + interval;
+			if (next - now > period)
+				return false;
+			if (bucket.compareAndSet(full, next))
+				return true;
+		}
+	}
+
+	/**
+	 * Returns the token consumed by a request which was then rejected by another rate limiter.
+	 *
+	 * @param request request which was {@link #tryAcquire(Request) acquired}
+	 */
+	void release(@NotNull Request request) {
+		Object key = this.key.apply(request);
+		AtomicLong bucket = buckets.get(key == null ? NULL_KEY : key);
+		if (bucket != null)
+			bucket.addAndGet(-interval);
+	}
+
+	/**
+	 * Consumes a token for a request from each of several rate limiters, returning the tokens
+	 * which were consumed if any of the rate limiters rejects the request.
+	 *
+	 * @param rateLimiters rate limiters to consume from, in order
+	 * @param request      incoming request
+	 * @return the rate limiter which rejected the request, or null if the request may proceed
+	 */
+	static @Nullable RateLimiter tryAcquireAll(@NotNull RateLimiter @NotNull [] rateLimiters, @NotNull Request request) {
+		for (int i = 0; i < rateLimiters.length; i++) {
+			if (rateLimiters[i].tryAcquire(request))
+				continue;
+			for (int j = 0; j < i; j++)
+				rateLimiters[j].release(request);
+			return rateLimiters[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Discards the buckets which have refilled completely, which are equivalent to new buckets.
+	 *
+	 * @param now current time
+	 */
+	private void sweep(long now) {
+		buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+	}
+
+	/**
+	 * Gets the number of buckets currently being tracked.
+	 *
+	 * @return number of buckets
+	 */
+	int size() {
+		return buckets.size();
+	}
+
+	/**
+	 * Determines if a request is subject to rate limiting.
+	 *
+	 * @param request incoming request
+	 * @return true if the request starts or tests an effect
+	 */
+	static boolean isLimited(@NotNull Request request) {
+		Request.Type type = request.getType();
+		return type == Request.Type.START || type == Request.Type.TEST;
+	}
+}
@@ -0,0 +1,256 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.socket.SocketManager;
+import dev.qixils.crowdcontrol.util.TimingWheel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Merges identical {@link Request.Type#START START} requests which arrive within a short window
+ * of each other into a single request whose quantity is the sum of the merged quantities.
+ * <p>
+ * Requests are identical if they were received from the same socket and source and share the same
+ * effect, targets, and duration. The merged request is a copy of the first request in its batch,
+ * so the other requests' viewers and costs are not visible to the handler. Responses to the merged
+ * request are repeated for the ID of every request in the batch.
+ * <p>
+ * Batches wait for their window on the shared {@link TimingWheel} rather than on a sleeping
+ * thread, and are then handed to the executor which handles the instance's other requests.
+ */
+final class RequestCoalescer {
+	private static final @NotNull TimingWheel TIMER = TimingWheel.shared();
+	private final @NotNull ConcurrentMap<String, Duration> windows = new ConcurrentHashMap<>();
+	private final @NotNull ConcurrentMap<Key, Batch> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * Enables coalescing for an effect.
+	 *
+	 * @param effect lowercase name of the effect
+	 * @param window time to wait for identical requests after the first request of a batch
+	 */
+	void register(@NotNull String effect, @NotNull Duration window) {
+		windows.put(effect, window);
+	}
+
+	/**
+	 * Disables coalescing for an effect. Batches which are already pending are unaffected.
+	 *
+	 * @param effect lowercase name of the effect
+	 * @return true if coalescing was enabled
+	 */
+	boolean unregister(@NotNull String effect) {
+		return windows.remove(effect) != null;
+	}
+
+	/**
+	 * Gets the coalescing window of a request's effect.
+	 *
+	 * @param request incoming request
+	 * @return coalescing window, or null if the request should not be coalesced
+	 */
+	@Nullable Duration window(@NotNull Request request) {
+		String effect = request.getEffect();
+		if (windows.isEmpty() || effect == null || request.getType() != Request.Type.START || request.getOriginatingSocket() == null)
+			return null;
+		Duration window = windows.get(effect);
+		if (window == null && EffectRouter.hasUpperCase(effect))
+			window = windows.get(effect.toLowerCase(Locale.ENGLISH));
+		return window;
+	}
+
+	/**
+	 * Adds a request to the pending batch of identical requests, opening a new batch if there is none.
+	 *
+	 * @param request incoming request
+	 * @return the new batch if the request opened one, in which case the caller must
+	 *         {@link #close(Batch) close} it once the window has passed, or null if the request
+	 *         joined an existing batch
+	 */
+	@Nullable Batch offer(@NotNull Request request) {
+		Key key = new Key(request);
+		while (true) {
+			Batch batch = pending.get(key);
+			if (batch == null) {
+				batch = new Batch(key, request);
+				if (pending.putIfAbsent(key, batch) == null)
+					return batch;
+			} else if (batch.add(request)) {
+				return null;
+			} else {
+				// the batch was closed between being read and being joined
+				pending.remove(key, batch);
+			}
+		}
+	}
+
+	/**
+	 * Closes a batch, preventing further requests from joining it.
+	 *
+	 * @param batch batch returned by {@link #offer(Request)}
+	 * @return the request to handle on behalf of the batch
+	 */
+	@NotNull Request close(@NotNull Batch batch) {
+		List<Request> requests = batch.close();
+		pending.remove(batch.key, batch);
+		Request first = requests.get(0);
+		if (requests.size() == 1)
+			return first;
+
+		long quantity = 0;
+		long receivedTime = 0;
+		int[] ids = new int[requests.size()];
+		for (int i = 0; i < ids.length; i++) {
+			Request request = requests.get(i);
+			quantity += request.getQuantityOrDefault();
+			ids[i] = request.getId();
+			long time = request.getReceivedTime();
+			if (time != 0 && (receivedTime == 0 || time - receivedTime < 0))
+				receivedTime = time;
+		}
+		Request merged = first.toBuilder()
+				.quantity((int) Math.min(quantity, Integer.MAX_VALUE))
+				.originatingSocket(new FanOutSocket(first.getOriginatingSocket(), first.getId(), ids))
+				.build();
+		// the batch expires with its oldest request
+		merged.setReceivedTime(receivedTime);
+		return merged;
+	}
+
+	/**
+	 * Closes a batch once its window has passed and handles its merged request on an executor.
+	 *
+	 * @param batch    batch returned by {@link #offer(Request)}
+	 * @param window   time to wait for identical requests
+	 * @param executor executor which runs the handler
+	 * @param handler  handler of the batch, which is responsible for {@link #close(Batch) closing} it
+	 */
+	void schedule(@NotNull Batch batch, @NotNull Duration window, @NotNull Executor executor, @NotNull Consumer<Batch> handler) {
+		// the handler may block, so it must not run on the timer's thread
+		TIMER.schedule(() -> executor.execute(() -> handler.accept(batch)), window.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the number of batches which are waiting to be closed.
+	 *
+	 * @return number of pending batches
+	 */
+	int size() {
+		return pending.size();
+	}
+
+	/**
+	 * The properties which must be shared by requests for them to be merged.
+	 */
+	private static final class Key {
+		private final @Nullable SocketManager socket;
+		private final Request.@Nullable Source source;
+		private final @NotNull String effect;
+		private final @NotNull Request.Target @NotNull [] targets;
+		private final @Nullable Duration duration;
+		private final int hash;
+
+		private Key(@NotNull Request request) {
+			this.socket = request.getOriginatingSocket();
+			this.source = request.getSource();
+			this.effect = request.getEffect().toLowerCase(Locale.ENGLISH);
+			this.targets = request.getTargets();
+			this.duration = request.getDuration();
+			this.hash = 31 * Objects.hash(System.identityHashCode(socket), source, effect, duration) + Arrays.hashCode(targets);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return hash == key.hash
+					&& socket == key.socket
+					&& Objects.equals(source, key.source)
+					&& effect.equals(key.effect)
+					&& Arrays.equals(targets, key.targets)
+					&& Objects.equals(duration, key.duration);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * A group of identical requests which will be handled together.
+	 */
+	static final class Batch {
+		private final @NotNull Key key;
+		private final @NotNull List<Request> requests = new ArrayList<>(4);
+		private boolean closed = false;
+
+		private Batch(@NotNull Key key, @NotNull Request first) {
+			this.key = key;
+			this.requests.add(first);
+		}
+
+		private synchronized boolean add(@NotNull Request request) {
+			if (closed)
+				return false;
+			requests.add(request);
+			return true;
+		}
+
+		private synchronized @NotNull List<Request> close() {
+			closed = true;
+			return requests;
+		}
+	}
+
+	/**
+	 * Wraps the socket of a merged request, repeating each response to the merged request for
+	 * every request which was merged into it.
+	 */
+	static final class FanOutSocket extends ForwardingSocket {
+		private final int mergedId;
+		private final int @NotNull [] ids;
+
+		FanOutSocket(@NotNull SocketManager delegate, int mergedId, int @NotNull [] ids) {
+			super(delegate);
+			this.mergedId = mergedId;
+			this.ids = ids;
+		}
+
+		private boolean isFannedOut(@NotNull Response response) {
+			return response.getId() == mergedId && response.getPacketType() == Response.PacketType.EFFECT_RESULT;
+		}
+
+		@Override
+		public void write(@NotNull Response response) throws IOException {
+			if (!isFannedOut(response)) {
+				delegate.write(response);
+				return;
+			}
+			for (int id : ids)
+				delegate.write(response.toBuilder().id(id).build());
+		}
+
+		@Override
+		public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+			if (!isFannedOut(response))
+				return delegate.writeAsync(response);
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[ids.length];
+			for (int i = 0; i < ids.length; i++)
+				futures[i] = delegate.writeAsync(response.toBuilder().id(ids[i]).build());
+			return CompletableFuture.allOf(futures);
+		}
+	}
+}
@@ -42,4 +42,27 @@ public @interface Subscribe {
 	@ApiStatus.AvailableSince("3.5.3")
 	@NotNull
 	String value() default ""; // remove default in 4.0.0
+
+	/**
+	 * The maximum number of requests for this effect which may be handled at once,
+	 * or 0 for no limit.
+	 *
+	 * @return concurrency limit
+	 * @see Bulkhead
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	int maxConcurrent() default 0;
+
+	/**
+	 * The maximum number of requests for this effect which may wait for the
+	 * {@link #maxConcurrent() concurrency limit}, beyond which requests are rejected.
+	 * Requires a concurrency limit to be set.
+	 *
+	 * @return queue depth
+	 * @see Bulkhead
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	int maxQueued() default 0;
 }
@@ -0,0 +1,49 @@
+package dev.qixils.crowdcontrol;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers the {@link Subscribe} methods of a class without the use of reflection.
+ * <p>
+ * Implementations are generated by the {@code crowd-control-processor} annotation processor and
+ * are located by {@link CrowdControl#registerHandlers(Object)} using the name of the class they
+ * register, in which underscores are doubled and nesting separators become {@code _$}, i.e.
+ * {@code com.example.Outer$Inner} is registered by {@code com.example.Outer_$Inner_CrowdControlRegistrar}
+ * and {@code com.example.Outer_Inner} by {@code com.example.Outer__Inner_CrowdControlRegistrar}.
+ * This is intended only for use by generated code.
+ *
+ * @param <T> type of the class whose methods are registered
+ * @since 3.10.0
+ */
+@ApiStatus.Internal
+@ApiStatus.AvailableSince("3.10.0")
+public interface SubscribeRegistrar<T> {
+
+	/**
+	 * The suffix appended to the name of a class to obtain the name of its registrar.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@NotNull String SUFFIX = "_CrowdControlRegistrar";
+
+	/**
+	 * Gets the class whose methods are registered, which is verified before the registrar is used.
+	 *
+	 * @return registered class
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@NotNull Class<?> target();
+
+	/**
+	 * Registers the {@link Subscribe} methods of the provided object.
+	 *
+	 * @param handlers     object whose methods should be registered
+	 * @param crowdControl instance to register the methods with
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	void register(@NotNull T handlers, @NotNull CrowdControl crowdControl);
+}
@@ -0,0 +1,85 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A check which does not require knowledge of the {@link Request}, and whose result may therefore
+ * be reused across requests for a period of time or for the remainder of a game tick.
+ * <p>
+ * Checks are equal if they wrap the same supplier, allowing them to be unregistered using only
+ * the supplier.
+ */
+final class SupplierCheck implements Function<Request, CheckResult> {
+	private final @NotNull Supplier<CheckResult> supplier;
+	private final @Nullable LongSupplier clock;
+	private final long validity;
+	private volatile @Nullable Cached cached;
+
+	/**
+	 * An immutable pairing of a result and the time at which it was computed, allowing both to be
+	 * published atomically.
+	 */
+	private static final class Cached {
+		private final @Nullable CheckResult result;
+		private final long time;
+
+		private Cached(@Nullable CheckResult result, long time) {
+			this.result = result;
+			this.time = time;
+		}
+	}
+
+	/**
+	 * Creates a check which calls the supplier for every request.
+	 *
+	 * @param supplier check to wrap
+	 */
+	SupplierCheck(@NotNull Supplier<CheckResult> supplier) {
+		this(supplier, null, 0);
+	}
+
+	/**
+	 * Creates a check which caches its result.
+	 *
+	 * @param supplier check to wrap
+	 * @param clock    source of the current time, such as {@link System#nanoTime()} or the current tick
+	 * @param validity number of units of the clock that a result may be reused for
+	 */
+	SupplierCheck(@NotNull Supplier<CheckResult> supplier, @Nullable LongSupplier clock, long validity) {
+		this.supplier = supplier;
+		this.clock = clock;
+		this.validity = validity;
+	}
+
+	@Override
+	public CheckResult apply(Request request) {
+		if (clock == null)
+			return supplier.get();
+
+		long now = clock.getAsLong();
+		Cached cached = this.cached;
+		if (cached != null && now - cached.time < validity)
+			return cached.result;
+
+		// concurrent misses may each call the supplier, in which case the last result is kept
+		CheckResult result = supplier.get();
+		this.cached = new Cached(result, now);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof SupplierCheck && ((SupplierCheck) o).supplier.equals(supplier);
+	}
+
+	@Override
+	public int hashCode() {
+		return supplier.hashCode();
+	}
+}
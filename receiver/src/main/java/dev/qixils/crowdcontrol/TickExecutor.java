@@ -0,0 +1,68 @@
+package dev.qixils.crowdcontrol;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * An executor which queues tasks until the game {@link CrowdControl#tick() ticks}, at which point
+ * they are run in a batch on the game's thread.
+ * <p>
+ * Each batch is limited to a time budget so that a burst of requests cannot stall the game.
+ * Tasks which do not fit within the budget remain queued for the next tick.
+ */
+final class TickExecutor implements Executor {
+	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/TickExecutor");
+	private final @NotNull Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+	private final long budget;
+
+	/**
+	 * Creates a new tick executor.
+	 *
+	 * @param budget maximum time in nanoseconds to spend running tasks per tick
+	 */
+	TickExecutor(long budget) {
+		this.budget = budget;
+	}
+
+	@Override
+	public void execute(@NotNull Runnable command) {
+		queue.add(command);
+	}
+
+	/**
+	 * Runs queued tasks until the queue is empty or the time budget has been exhausted.
+	 * At least one task is run per call so that the queue always makes progress.
+	 *
+	 * @return number of tasks which were run
+	 */
+	int drain() {
+		long start = System.nanoTime();
+		int ran = 0;
+		Runnable task;
+		while ((task = queue.poll()) != null) {
+			try {
+				task.run();
+			} catch (Throwable exc) {
+				logger.error("Queued task threw an exception", exc);
+			}
+			ran++;
+			if (System.nanoTime() - start >= budget)
+				break;
+		}
+		return ran;
+	}
+
+	/**
+	 * Gets the number of tasks awaiting the next tick.
+	 *
+	 * @return number of queued tasks
+	 */
+	int size() {
+		return queue.size();
+	}
+}
@@ -0,0 +1,246 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.socket.SocketManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces deadlines on the handlers of effects, answering requests on their behalf if they do not
+ * respond in time.
+ * <p>
+ * A request is watched from when its handler is called until the first effect result with its ID
+ * is sent. If the deadline passes first, the configured response is sent instead, any later
+ * results from the handler are discarded, and the handler's thread is optionally interrupted.
+ */
+final class Watchdog {
+	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/Watchdog");
+	private final @NotNull ConcurrentMap<String, Timeout> timeouts = new ConcurrentHashMap<>();
+	private final @NotNull AtomicInteger inFlight = new AtomicInteger();
+	private final @NotNull AtomicLong timedOut = new AtomicLong();
+	private @Nullable ScheduledThreadPoolExecutor scheduler; // guarded by this
+	private boolean shutdown = false; // guarded by this
+
+	/**
+	 * The deadline of an effect and how to respond once it has passed.
+	 */
+	static final class Timeout {
+		private final long nanos;
+		private final Response.@NotNull ResultType type;
+		private final boolean interrupt;
+
+		Timeout(long nanos, Response.@NotNull ResultType type, boolean interrupt) {
+			this.nanos = nanos;
+			this.type = type;
+			this.interrupt = interrupt;
+		}
+	}
+
+	/**
+	 * Sets the deadline of an effect.
+	 *
+	 * @param effect  lowercase name of the effect
+	 * @param timeout deadline of the effect
+	 */
+	void register(@NotNull String effect, @NotNull Timeout timeout) {
+		timeouts.put(effect, timeout);
+	}
+
+	/**
+	 * Removes the deadline of an effect. Requests which are already being watched are unaffected.
+	 *
+	 * @param effect lowercase name of the effect
+	 * @return true if the effect had a deadline
+	 */
+	boolean unregister(@NotNull String effect) {
+		return timeouts.remove(effect) != null;
+	}
+
+	/**
+	 * Starts watching a request whose handler is about to be called on the current thread.
+	 * If the request's effect has a deadline, the request's originating socket is replaced so that
+	 * its responses can be observed.
+	 *
+	 * @param request request being handled
+	 * @return the watch, which must be {@link Watch#release() released} once the handler returns,
+	 *         or null if the request is not being watched or the watchdog has been shut down
+	 */
+	@Nullable Watch watch(@NotNull Request request) {
+		String effect = request.getEffect();
+		SocketManager socket = request.getOriginatingSocket();
+		if (timeouts.isEmpty() || effect == null || socket == null)
+			return null;
+		Request.Type type = request.getType();
+		if (type != Request.Type.START && type != Request.Type.TEST)
+			return null;
+		Timeout timeout = timeouts.get(effect);
+		if (timeout == null && EffectRouter.hasUpperCase(effect))
+			timeout = timeouts.get(effect.toLowerCase(Locale.ENGLISH));
+		if (timeout == null)
+			return null;
+		ScheduledExecutorService scheduler = scheduler();
+		if (scheduler == null)
+			return null;
+
+		Watch watch = new Watch(socket, request, timeout);
+		request.setOriginatingSocket(watch);
+		inFlight.incrementAndGet();
+		try {
+			watch.deadline = scheduler.schedule(watch::expire, timeout.nanos, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			// the watchdog was shut down concurrently
+			request.setOriginatingSocket(socket);
+			inFlight.decrementAndGet();
+			return null;
+		}
+		return watch;
+	}
+
+	private synchronized @Nullable ScheduledExecutorService scheduler() {
+		if (shutdown)
+			return null;
+		if (scheduler == null) {
+			scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+				Thread thread = new Thread(task, "CrowdControl Watchdog");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.setRemoveOnCancelPolicy(true);
+		}
+		return scheduler;
+	}
+
+	/**
+	 * Gets the number of requests which are being watched.
+	 *
+	 * @return number of unanswered requests
+	 */
+	int inFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Gets the number of requests which have not been answered before their deadline.
+	 *
+	 * @return number of expired requests
+	 */
+	long timedOut() {
+		return timedOut.get();
+	}
+
+	/**
+	 * Stops the watchdog's thread. Requests which are still being watched will not expire, and
+	 * requests handled afterwards are not watched.
+	 */
+	synchronized void shutdown() {
+		shutdown = true;
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * A request which is being watched, which replaces the request's originating socket in order to
+	 * observe the responses sent by its handler.
+	 */
+	final class Watch extends ForwardingSocket {
+		private static final int PENDING = 0;
+		private static final int ANSWERED = 1;
+		private static final int EXPIRED = 2;
+		private final @NotNull Request request;
+		private final @NotNull Timeout timeout;
+		private volatile @Nullable Future<?> deadline;
+		private int state = PENDING; // guarded by this
+		private @Nullable Thread thread = Thread.currentThread(); // guarded by this
+		private boolean interrupted = false; // guarded by this
+
+		private Watch(@NotNull SocketManager delegate, @NotNull Request request, @NotNull Timeout timeout) {
+			super(delegate);
+			this.request = request;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * Marks the request as answered if the response is an effect result for it.
+		 *
+		 * @param response response being written
+		 * @return false if the response should be discarded as the request has expired
+		 */
+		private boolean answer(@NotNull Response response) {
+			if (response.getId() != request.getId() || response.getPacketType() != Response.PacketType.EFFECT_RESULT)
+				return true;
+			synchronized (this) {
+				if (state == EXPIRED)
+					return false;
+				if (state != PENDING)
+					return true;
+				state = ANSWERED;
+			}
+			inFlight.decrementAndGet();
+			Future<?> deadline = this.deadline;
+			if (deadline != null)
+				deadline.cancel(false);
+			return true;
+		}
+
+		@Override
+		public void write(@NotNull Response response) throws IOException {
+			if (answer(response))
+				delegate.write(response);
+		}
+
+		@Override
+		public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+			if (answer(response))
+				return delegate.writeAsync(response);
+			return CompletableFuture.completedFuture(null);
+		}
+
+		private void expire() {
+			synchronized (this) {
+				if (state != PENDING)
+					return;
+				state = EXPIRED;
+			}
+			inFlight.decrementAndGet();
+			timedOut.incrementAndGet();
+			logger.warn("Handler of effect " + request.getEffect() + " did not respond to request " + request.getId() + " in time");
+			if (!delegate.isClosed()) {
+				delegate.writeAsync(request.buildResponse().type(timeout.type).message("The effect timed out").build())
+						.whenComplete(($, exc) -> {
+							if (exc != null)
+								logger.warn("Failed to write timeout response to socket", exc);
+						});
+			}
+			// interrupt last so that the handler observes the request as expired once it wakes
+			synchronized (this) {
+				if (timeout.interrupt && thread != null) {
+					interrupted = true;
+					thread.interrupt();
+				}
+			}
+		}
+
+		/**
+		 * Notifies the watchdog that the handler has returned, after which its thread will no
+		 * longer be interrupted. The request remains watched until it is answered.
+		 */
+		void release() {
+			synchronized (this) {
+				thread = null;
+				if (interrupted)
+					Thread.interrupted(); // don't leak the interrupt into the thread's next task
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Determines what happens when a response is sent to a connection whose queue of unsent data
+ * has reached its configured limit, such as when a client has stopped reading from its socket.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public enum BackpressurePolicy {
+	/**
+	 * The sending thread waits until the connection has caught up.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	BLOCK,
+	/**
+	 * The response is discarded and an {@link java.io.IOException} is thrown to the sender.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	FAIL,
+	/**
+	 * Queued {@link Response.PacketType#EFFECT_STATUS EFFECT_STATUS} updates are discarded when a
+	 * newer update for the same effects replaces them. If this does not free enough space, the
+	 * response is discarded and an {@link java.io.IOException} is thrown to the sender.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	COLLAPSE,
+}
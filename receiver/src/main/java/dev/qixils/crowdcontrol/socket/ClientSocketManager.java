@@ -15,8 +15,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -25,10 +25,11 @@ import java.util.function.Consumer;
  * @since 3.0.0
  */
 @ApiStatus.AvailableSince("3.0.0")
-public final class ClientSocketManager implements SocketManager {
+public final class ClientSocketManager implements SocketManager, RequestExecutorProvider {
 	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/ClientSocket");
 	final @NotNull RequestManager crowdControl;
-	final @NotNull Executor effectPool = Executors.newCachedThreadPool();
+	final @NotNull Executor effectPool;
+	final @NotNull SocketOptions options;
 	private final @NotNull List<Consumer<SocketManager>> onConnectListeners = new ArrayList<>();
 	final @NotNull List<Consumer<SocketManager>> onLoginListeners = new ArrayList<>();
 	@Nullable Socket socket;
@@ -47,8 +48,30 @@ public final class ClientSocketManager implements SocketManager {
 	@ApiStatus.Internal
 	@ApiStatus.AvailableSince("3.0.0")
 	public ClientSocketManager(@NotNull RequestManager serverConfig) {
+		this(serverConfig, SocketOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates a new client-side socket manager. This is intended only for use by the library.
+	 *
+	 * @param serverConfig Crowd Control instance
+	 * @param options      settings for the connection
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public ClientSocketManager(@NotNull RequestManager serverConfig, @NotNull SocketOptions options) {
 		this.crowdControl = ExceptionUtil.validateNotNull(serverConfig, "serverConfig");
-		new Thread(this::loop, "crowd-control-socket-loop").start();
+		this.options = ExceptionUtil.validateNotNull(options, "options");
+		boolean virtual = VirtualThreads.resolve(options.virtualThreads);
+		this.effectPool = VirtualThreads.newEffectPool(virtual);
+		VirtualThreads.newThread(virtual, this::loop, "crowd-control-socket-loop").start();
+	}
+
+	@Override
+	public @NotNull Executor getRequestExecutor() {
+		return options.requestExecutor(effectPool);
 	}
 
 	@Override
@@ -129,6 +152,8 @@ public final class ClientSocketManager implements SocketManager {
 		running = false;
 		if (socket != null && !socket.isClosed()) {
 			Response.ofDisconnectMessage(this, reason).send();
+			if (effectExecutor != null)
+				effectExecutor.awaitWrites();
 			socket.close();
 		}
 	}
@@ -157,6 +182,16 @@ public final class ClientSocketManager implements SocketManager {
 		effectExecutor.write(response);
 	}
 
+	@Override
+	public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		if (effectExecutor == null) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			future.completeExceptionally(new IOException("Socket is not connected"));
+			return future;
+		}
+		return effectExecutor.writeAsync(response);
+	}
+
 	@Override
 	public @NotNull String getDisplayName() {
 		return "Client";
@@ -1,6 +1,7 @@
 package dev.qixils.crowdcontrol.socket;
 
 import com.google.gson.JsonParseException;
+import dev.qixils.crowdcontrol.RequestIntake;
 import dev.qixils.crowdcontrol.RequestManager;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
 import dev.qixils.crowdcontrol.exceptions.NoApplicableTarget;
@@ -10,12 +11,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -25,9 +29,12 @@ import java.util.function.Predicate;
 final class EffectExecutor {
 	private static final Logger logger = LoggerFactory.getLogger("CrowdControl/EffectExecutor");
 	private final @Nullable SocketManager socketThread;
-	private final Socket socket;
+	private final @Nullable Socket socket; // null if the connection is managed by a selector
+	private final @Nullable FrameDecoder decoder;
+	private final @Nullable OutboundQueue outbound;
+	private final @Nullable InetAddress address;
 	private final Executor effectPool;
-	private final InputStream input;
+	private final Executor requestPool;
 	private final RequestManager crowdControl;
 	private final @Nullable String password;
 	private final @NotNull Set<@NotNull Id> notVisible = new HashSet<>();
@@ -40,7 +47,10 @@ final class EffectExecutor {
 		this.socketThread = socketThread;
 		this.socket = socketThread.socket;
 		this.effectPool = socketThread.socketManager.effectPool;
-		this.input = socket.getInputStream();
+		this.decoder = new FrameDecoder(socket.getInputStream());
+		this.requestPool = socketThread.socketManager.options.requestExecutor(effectPool);
+		this.outbound = new OutboundQueue(socket.getOutputStream(), socketThread.socketManager.options, effectPool);
+		this.address = socket.getInetAddress();
 		this.crowdControl = socketThread.socketManager.crowdControl;
 		this.password = crowdControl.getPassword();
 		this.onLoginListeners = Collections.unmodifiableList(socketThread.socketManager.onLoginListeners);
@@ -52,42 +62,90 @@ final class EffectExecutor {
 		if (this.socket == null)
 			throw new IOException("Socket is null");
 		this.effectPool = csm.effectPool;
-		this.input = socket.getInputStream();
+		this.decoder = new FrameDecoder(socket.getInputStream());
+		this.requestPool = csm.options.requestExecutor(effectPool);
+		this.outbound = new OutboundQueue(socket.getOutputStream(), csm.options, effectPool);
+		this.address = socket.getInetAddress();
 		this.crowdControl = csm.crowdControl;
 		this.password = crowdControl.getPassword();
 		this.onLoginListeners = Collections.unmodifiableList(csm.onLoginListeners);
 	}
 
+	EffectExecutor(NioSocketConnection connection) {
+		this.socketThread = connection;
+		this.socket = null;
+		this.decoder = null;
+		this.outbound = null;
+		this.address = connection.getInetAddress();
+		this.effectPool = connection.socketManager.effectPool;
+		this.requestPool = connection.socketManager.options.requestExecutor(effectPool);
+		this.crowdControl = connection.socketManager.crowdControl;
+		this.password = crowdControl.getPassword();
+		this.onLoginListeners = Collections.unmodifiableList(connection.socketManager.onLoginListeners);
+	}
+
 	Request.@NotNull Source getSource() {
 		if (player == null)
-			player = new Request.Source.Builder().ip(socket.getInetAddress()).build();
+			player = new Request.Source.Builder().ip(address).build();
 		return player;
 	}
 
 	void run() throws IOException {
+		if (socket == null || decoder == null)
+			throw new IllegalStateException("Connection is managed by a selector");
+
 		// get incoming data
 		Request request;
 		try {
-			request = JsonObject.fromInputStream(input, Request::fromJSON);
+			request = JsonObject.fromFrameDecoder(decoder, Request::fromJSON);
 		} catch (JsonParseException e) {
 			logger.error("Failed to parse JSON from socket", e);
 			return;
 		}
 
+		if (handle(request))
+			return;
+
+		// stop reading until the consumer of the request intake is ready for more requests
+		do {
+			CountDownLatch demand = new CountDownLatch(1);
+			onDemand(demand::countDown);
+			try {
+				while (!demand.await(100, TimeUnit.MILLISECONDS)) {
+					if (isClosed())
+						throw new IOException("Socket is closed");
+				}
+			} catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for demand for requests");
+			}
+		} while (!submit(request));
+	}
+
+	/**
+	 * Processes a request which has been read from the connection.
+	 *
+	 * @param request the incoming request, or {@code null} if a blank packet was received
+	 * @return false if the request was withheld because the {@link RequestIntake request intake}
+	 *         has no demand, in which case it must be {@link #submit(Request) resubmitted} once there is
+	 * @throws IOException an I/O exception occurred while closing the socket
+	 */
+	boolean handle(@Nullable Request request) throws IOException {
 		if (request == null) {
 			logger.debug("Received a blank packet; assuming client has disconnected");
 			try {
 				if (socketThread != null)
 					socketThread.shutdown("Received a blank packet; assuming client has disconnected");
-				else
+				else if (socket != null)
 					socket.close();
 			} catch (IOException e) {
 				logger.debug("Ignoring exception thrown by socket; likely just a result of the socket terminating");
 			}
-			return;
+			return true;
 		}
 
 		request.setOriginatingSocket(socketThread);
+		request.setReceivedTime(System.nanoTime());
 
 		if (request.getType() == Request.Type.PLAYER_INFO) {
 			Request.Source.Builder source = getSource().toBuilder();
@@ -102,7 +160,7 @@ final class EffectExecutor {
 
 		if (request.getType() == Request.Type.KEEP_ALIVE) {
 			request.buildResponse().packetType(Response.PacketType.KEEP_ALIVE).send();
-			return;
+			return true;
 		}
 
 		// login handling
@@ -125,11 +183,26 @@ final class EffectExecutor {
 				logger.info("Aborting connection due to incorrect password (" + socketThread.getDisplayName() + ")");
 				socketThread.shutdown(request, "Incorrect password");
 			}
-			return;
+			return true;
 		}
 
 		// process request
-		effectPool.execute(() -> {
+		return submit(request);
+	}
+
+	/**
+	 * Delivers a processed request to the {@link RequestIntake request intake} if one is open,
+	 * or else queues it to be handled by the request pool.
+	 *
+	 * @param request the incoming request
+	 * @return false if the request intake has no demand for the request
+	 */
+	boolean submit(@NotNull Request request) {
+		RequestIntake intake = crowdControl.getRequestIntake();
+		if (intake != null)
+			return intake.offer(request);
+
+		requestPool.execute(() -> {
 			try {
 				crowdControl.handle(request);
 			} catch (Throwable exc) {
@@ -141,14 +214,37 @@ final class EffectExecutor {
 				}
 			}
 		});
+		return true;
+	}
+
+	/**
+	 * Registers a callback to be run once a withheld request may be {@link #submit(Request) resubmitted}.
+	 *
+	 * @param callback the callback to run, possibly immediately or by another thread
+	 */
+	void onDemand(@NotNull Runnable callback) {
+		RequestIntake intake = crowdControl.getRequestIntake();
+		if (intake != null)
+			intake.onDemand(callback);
+		else
+			callback.run();
 	}
 
 	boolean isClosed() {
+		if (socket == null)
+			throw new IllegalStateException("Connection is managed by a selector");
 		return socket.isClosed() || !socket.isConnected() || socket.isOutputShutdown();
 	}
 
+	/**
+	 * Removes the effect IDs of an {@link Response.PacketType#EFFECT_STATUS} packet whose state
+	 * has already been sent to this connection.
+	 *
+	 * @param response the response to be sent
+	 * @return the response to send, or {@code null} if nothing needs to be sent
+	 */
 	@Nullable
-	private Response update(@NotNull Response response) {
+	synchronized Response update(@NotNull Response response) {
 		// determine if this response should be sent
 		if (response.getPacketType() == Response.PacketType.EFFECT_STATUS) {
 			// create variables
@@ -200,7 +296,8 @@ final class EffectExecutor {
 					idFilter = id -> false;
 			}
 			// filter IDs
-			builder.ids().removeIf(id -> idFilter.test(new Id(id, type)));
+			if (!builder.ids().removeIf(id -> idFilter.test(new Id(id, type))))
+				return response; // nothing was filtered; reuse the already encoded response
 			// rebuild
 			try {
 				return builder.build();
@@ -214,19 +311,65 @@ final class EffectExecutor {
 	}
 
 	void write(@NotNull Response response) throws IOException {
+		if (outbound == null)
+			throw new IllegalStateException("Connection is managed by a selector");
+		OutboundPacket packet = encode(response, null);
+		if (packet != null)
+			outbound.write(packet);
+	}
+
+	/**
+	 * Queues a response to be written by the effect pool.
+	 *
+	 * @param response the response to write
+	 * @return a future which completes once the response has been written
+	 */
+	@NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		if (outbound == null)
+			throw new IllegalStateException("Connection is managed by a selector");
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			OutboundPacket packet = encode(response, future);
+			if (packet != null)
+				outbound.writeAsync(packet);
+			else
+				future.complete(null);
+		} catch (IOException exc) {
+			future.completeExceptionally(exc);
+		}
+		return future;
+	}
+
+	private @Nullable OutboundPacket encode(@NotNull Response response, @Nullable CompletableFuture<Void> future) {
 		// update response
 		response = update(response);
 		if (response == null)
-			return;
+			return null;
 
-		// send response
-		String json = response.toJSON();
-		logger.debug("Sending response to client: " + json);
-		synchronized (socket) {
-			OutputStream output = socket.getOutputStream();
-			output.write(json.getBytes(StandardCharsets.UTF_8));
-			output.write(0x00);
-			output.flush();
-		}
+		// encode response
+		byte[] packet = response.toBytes();
+		if (logger.isDebugEnabled())
+			logger.debug("Sending response to client: " + new String(packet, 0, packet.length - 1, StandardCharsets.UTF_8));
+		return new OutboundPacket(packet, response, future);
+	}
+
+	/**
+	 * Writes an already encoded packet to the connection.
+	 *
+	 * @param packet encoded packet, including its terminator
+	 * @throws IOException an I/O exception occurred while writing to the socket
+	 */
+	void write(byte @NotNull [] packet) throws IOException {
+		if (outbound == null)
+			throw new IllegalStateException("Connection is managed by a selector");
+		outbound.write(new OutboundPacket(packet));
+	}
+
+	/**
+	 * Waits briefly for any responses being written by other threads to be sent.
+	 */
+	void awaitWrites() {
+		if (outbound != null)
+			outbound.awaitIdle(1000);
 	}
 }
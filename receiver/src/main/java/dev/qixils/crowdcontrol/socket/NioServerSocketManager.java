@@ -0,0 +1,295 @@
+package dev.qixils.crowdcontrol.socket;
+
+import dev.qixils.crowdcontrol.RequestManager;
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Manages the connection to Crowd Control clients using non-blocking channels.
+ * <p>
+ * Unlike {@link ServerSocketManager}, which starts a thread for every connected client, this
+ * manager multiplexes all of its connections over a fixed number of selector threads.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.AvailableSince("3.10.0")
+public final class NioServerSocketManager implements SocketManager, RequestExecutorProvider {
+	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/NioServerSocket");
+	final @NotNull RequestManager crowdControl;
+	final @NotNull Executor effectPool;
+	final @NotNull SocketOptions options;
+	final @NotNull List<Consumer<SocketManager>> onConnectListeners = new ArrayList<>();
+	final @NotNull List<Consumer<SocketManager>> onLoginListeners = new ArrayList<>();
+	private final @NotNull List<NioSocketConnection> connections = new CopyOnWriteArrayList<>();
+	private final @Nullable SelectorLoop @NotNull [] selectorLoops;
+	volatile boolean running = true;
+	private ServerSocketChannel serverChannel;
+
+	/**
+	 * Creates a new non-blocking server-side socket manager. This is intended only for use by the library.
+	 *
+	 * @param crowdControl    Crowd Control instance
+	 * @param selectorThreads number of threads used to service connections
+	 * @throws IllegalArgumentException if {@code selectorThreads} is not positive
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public NioServerSocketManager(@NotNull RequestManager crowdControl, int selectorThreads) throws IllegalArgumentException {
+		this(crowdControl, selectorThreads, SocketOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates a new non-blocking server-side socket manager. This is intended only for use by the library.
+	 * <p>
+	 * Selector threads are always platform threads as they never block on anything but their selector.
+	 *
+	 * @param crowdControl    Crowd Control instance
+	 * @param selectorThreads number of threads used to service connections
+	 * @param options         settings for client connections
+	 * @throws IllegalArgumentException if {@code selectorThreads} is not positive
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public NioServerSocketManager(@NotNull RequestManager crowdControl, int selectorThreads, @NotNull SocketOptions options) throws IllegalArgumentException {
+		this.crowdControl = ExceptionUtil.validateNotNull(crowdControl, "crowdControl");
+		this.options = ExceptionUtil.validateNotNull(options, "options");
+		if (selectorThreads < 1)
+			throw new IllegalArgumentException("selectorThreads must be positive");
+		this.selectorLoops = new SelectorLoop[selectorThreads];
+		boolean virtual = VirtualThreads.resolve(options.virtualThreads);
+		this.effectPool = VirtualThreads.newEffectPool(virtual);
+		VirtualThreads.newThread(virtual, this::loop, "crowd-control-socket-loop").start();
+	}
+
+	@Override
+	public @NotNull Executor getRequestExecutor() {
+		return options.requestExecutor(effectPool);
+	}
+
+	@Override
+	public void addConnectListener(@NotNull Consumer<SocketManager> consumer) {
+		onConnectListeners.add(ExceptionUtil.validateNotNull(consumer, "consumer"));
+	}
+
+	@Override
+	public void addLoginListener(@NotNull Consumer<SocketManager> consumer) {
+		onLoginListeners.add(ExceptionUtil.validateNotNull(consumer, "consumer"));
+	}
+
+	@Override
+	public Response.@NotNull Builder buildResponse() {
+		return new ServerResponse.Builder(this);
+	}
+
+	void removeConnection(@NotNull NioSocketConnection connection) {
+		connections.remove(connection);
+	}
+
+	private void loop() {
+		if (!running)
+			return;
+
+		try {
+			serverChannel = ServerSocketChannel.open();
+			serverChannel.bind(new InetSocketAddress(crowdControl.getIP(), crowdControl.getPort()), options.acceptBacklog);
+			for (int i = 0; i < selectorLoops.length; i++) {
+				SelectorLoop selectorLoop = new SelectorLoop(Selector.open());
+				selectorLoops[i] = selectorLoop;
+				new Thread(selectorLoop, "crowd-control-selector-" + i).start();
+			}
+		} catch (IOException exc) {
+			logger.error("Could not register port " + crowdControl.getPort() + ". This is a fatal exception; attempts to reconnect will not be made.", exc);
+			return;
+		}
+
+		int next = 0;
+		while (running) {
+			try {
+				SocketChannel channel = serverChannel.accept();
+				if (!running) {
+					channel.close();
+					break;
+				}
+				channel.configureBlocking(false);
+				SelectorLoop selectorLoop = Objects.requireNonNull(selectorLoops[next]);
+				next = (next + 1) % selectorLoops.length;
+				NioSocketConnection connection = new NioSocketConnection(this, channel, selectorLoop);
+				connections.add(connection);
+				connection.start();
+			} catch (IOException exc) {
+				if (running)
+					logger.warn("Failed to accept new socket connection", exc);
+			}
+		}
+	}
+
+	@Override
+	@ApiStatus.AvailableSince("3.10.0")
+	public void shutdown(@Nullable Request cause, @Nullable String reason) throws IOException {
+		if (!running) return;
+		running = false;
+		for (NioSocketConnection connection : connections) {
+			connection.shutdown(cause, reason);
+		}
+		for (SelectorLoop selectorLoop : selectorLoops) {
+			if (selectorLoop != null)
+				selectorLoop.wakeup();
+		}
+		if (serverChannel != null && serverChannel.isOpen())
+			serverChannel.close();
+	}
+
+	@Override
+	public @NotNull Set<Request.Source> getSources() {
+		Set<Request.Source> sources = new HashSet<>();
+		for (NioSocketConnection connection : connections)
+			sources.addAll(connection.getSources());
+		return Collections.unmodifiableSet(sources);
+	}
+
+	@Override
+	public @NotNull List<? extends SocketManager> getConnections() {
+		connections.removeIf(NioSocketConnection::isClosed);
+		return Collections.unmodifiableList(new ArrayList<>(connections));
+	}
+
+	@Override
+	public boolean isClosed() {
+		return !running;
+	}
+
+	@Override
+	public void write(@NotNull Response response) throws IOException {
+		ServerResponse.broadcast(response, connections);
+	}
+
+	@Override
+	public @NotNull String getDisplayName() {
+		return "Server";
+	}
+
+	/**
+	 * Services the reads and queued writes of the connections registered to a single selector.
+	 */
+	final class SelectorLoop implements Runnable {
+		private final @NotNull Selector selector;
+		private final @NotNull Queue<NioSocketConnection> pending = new ConcurrentLinkedQueue<>();
+		private final @NotNull Queue<NioSocketConnection> resumed = new ConcurrentLinkedQueue<>();
+		private final @NotNull ByteBuffer readBuffer = ByteBuffer.allocateDirect(8192);
+		private volatile @Nullable Thread thread;
+
+		private SelectorLoop(@NotNull Selector selector) {
+			this.selector = selector;
+		}
+
+		/**
+		 * Registers a connection with this loop's selector once the selector thread is available.
+		 *
+		 * @param connection connection to register
+		 */
+		void register(@NotNull NioSocketConnection connection) {
+			pending.add(connection);
+			selector.wakeup();
+		}
+
+		/**
+		 * Resumes reading from a suspended connection once the selector thread is available.
+		 *
+		 * @param connection connection to resume
+		 */
+		void resume(@NotNull NioSocketConnection connection) {
+			resumed.add(connection);
+			selector.wakeup();
+		}
+
+		/**
+		 * Wakes up the selector thread so that it may observe changes to a connection's interests.
+		 */
+		void wakeup() {
+			selector.wakeup();
+		}
+
+		/**
+		 * Determines if the calling thread is this loop's selector thread.
+		 *
+		 * @return true if called by the selector thread
+		 */
+		boolean isSelectorThread() {
+			return Thread.currentThread() == thread;
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			while (running) {
+				try {
+					selector.select();
+				} catch (IOException exc) {
+					logger.error("Selector encountered a fatal exception", exc);
+					break;
+				}
+
+				NioSocketConnection connection;
+				while ((connection = pending.poll()) != null)
+					connection.register(selector);
+				while ((connection = resumed.poll()) != null) {
+					try {
+						connection.resume();
+					} catch (CancelledKeyException ignored) {
+						// the connection was closed by another thread
+					} catch (IOException exc) {
+						connection.onError(exc);
+					}
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					connection = (NioSocketConnection) key.attachment();
+					try {
+						if (key.isValid() && key.isReadable())
+							connection.read(readBuffer);
+						if (key.isValid() && key.isWritable())
+							connection.flush();
+					} catch (CancelledKeyException ignored) {
+						// the connection was closed by another thread
+					} catch (IOException exc) {
+						connection.onError(exc);
+					}
+				}
+			}
+
+			// close any connections which are still registered to this selector
+			for (SelectionKey key : new ArrayList<>(selector.keys()))
+				((NioSocketConnection) key.attachment()).close();
+			NioSocketConnection connection;
+			while ((connection = pending.poll()) != null)
+				connection.close();
+			try {
+				selector.close();
+			} catch (IOException exc) {
+				logger.debug("Ignoring exception thrown by selector; likely just a result of the server terminating");
+			}
+		}
+	}
+}
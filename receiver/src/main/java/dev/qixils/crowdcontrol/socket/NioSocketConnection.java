@@ -0,0 +1,415 @@
+package dev.qixils.crowdcontrol.socket;
+
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Handles the connection to a Crowd Control client when operating in non-blocking server mode.
+ * <p>
+ * Reads are performed by the selector thread that this connection is registered to. Writes are
+ * attempted immediately by the calling thread and any data which the socket cannot yet accept
+ * is queued for the selector thread to flush, subject to the manager's {@link SocketOptions}.
+ * <p>
+ * If the {@link dev.qixils.crowdcontrol.RequestIntake request intake} has no demand for a request,
+ * reading is suspended until it does, without blocking the selector thread.
+ */
+final class NioSocketConnection implements SocketManager {
+	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/NioSocketConnection");
+	final @NotNull NioServerSocketManager socketManager;
+	private final @NotNull SocketChannel channel;
+	private final NioServerSocketManager.@NotNull SelectorLoop selectorLoop;
+	private final @NotNull FrameDecoder decoder = new FrameDecoder();
+	private final @NotNull EffectExecutor effectExecutor;
+	private final @NotNull Deque<OutboundPacket> outbound = new ArrayDeque<>(); // guarded by this
+	private int outboundBytes = 0; // guarded by this
+	private @Nullable SelectionKey key; // guarded by this
+	private boolean closeAfterFlush = false; // guarded by this
+	private boolean suspended = false; // guarded by this
+	private boolean inputClosed = false; // guarded by this
+	private @Nullable Request withheld; // accessed only by the selector thread
+	final @NotNull String displayName = UUID.randomUUID().toString().substring(30).toUpperCase(Locale.ENGLISH);
+	private volatile boolean running = true;
+
+	NioSocketConnection(@NotNull NioServerSocketManager socketManager, @NotNull SocketChannel channel, NioServerSocketManager.@NotNull SelectorLoop selectorLoop) {
+		this.socketManager = socketManager;
+		this.channel = channel;
+		this.selectorLoop = selectorLoop;
+		this.effectExecutor = new EffectExecutor(this);
+	}
+
+	@Nullable InetAddress getInetAddress() {
+		return channel.socket().getInetAddress();
+	}
+
+	/**
+	 * Notifies listeners of the new connection, prompts the client for a password,
+	 * and hands the connection to its selector thread.
+	 */
+	void start() {
+		logger.info("Successfully connected to a new client (" + displayName + ")");
+		for (Consumer<SocketManager> listener : socketManager.onConnectListeners) {
+			try {
+				listener.accept(this);
+			} catch (Throwable t) {
+				logger.warn("Error while calling connect listener", t);
+			}
+		}
+
+		try {
+			enqueue(new OutboundPacket(SocketThread.PASSWORD_REQUEST));
+		} catch (IOException exc) {
+			onError(exc);
+			return;
+		}
+		selectorLoop.register(this);
+	}
+
+	/**
+	 * Registers this connection with its selector. Called by the selector thread.
+	 *
+	 * @param selector the selector to register with
+	 */
+	synchronized void register(@NotNull Selector selector) {
+		if (!channel.isOpen())
+			return;
+		try {
+			int ops = outbound.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+			key = channel.register(selector, ops, this);
+		} catch (ClosedChannelException exc) {
+			close();
+		}
+	}
+
+	/**
+	 * Reads available data from the socket and processes any complete packets.
+	 * Called by the selector thread.
+	 *
+	 * @param buffer buffer to read into
+	 * @throws IOException an I/O exception occurred while reading from the socket
+	 */
+	void read(@NotNull ByteBuffer buffer) throws IOException {
+		buffer.clear();
+		if (channel.read(buffer) == -1) {
+			// stop selecting for reads, which would otherwise report the end of the stream again
+			// for as long as the disconnect message is waiting to be flushed
+			synchronized (this) {
+				inputClosed = true;
+				if (key != null && key.isValid())
+					key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+			}
+			// the stream has ended, so treat the remaining data as a final (likely blank) packet
+			effectExecutor.handle(null);
+			return;
+		}
+		buffer.flip();
+		decoder.feed(buffer);
+		process();
+	}
+
+	/**
+	 * Handles the complete packets which have been read, suspending reads if the request intake
+	 * has no demand for them. Called by the selector thread.
+	 *
+	 * @throws IOException an I/O exception occurred while closing the socket
+	 */
+	private void process() throws IOException {
+		if (withheld != null) {
+			if (!effectExecutor.submit(withheld)) {
+				suspend();
+				return;
+			}
+			withheld = null;
+		}
+
+		ByteBuffer frame;
+		while (running && (frame = decoder.pollFrame()) != null) {
+			Request request;
+			try {
+				request = JsonObject.fromFrame(decoder, frame, Request::fromJSON);
+			} catch (JsonParseException e) {
+				logger.error("Failed to parse JSON from socket", e);
+				continue;
+			}
+			if (!effectExecutor.handle(request)) {
+				withheld = request;
+				suspend();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stops reading from the socket until the request intake has demand for the withheld request.
+	 * Called by the selector thread.
+	 */
+	private void suspend() {
+		synchronized (this) {
+			suspended = true;
+			if (key != null && key.isValid())
+				key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+		}
+		effectExecutor.onDemand(() -> selectorLoop.resume(this));
+	}
+
+	/**
+	 * Resumes reading from the socket once the request intake has demand. Called by the selector thread.
+	 *
+	 * @throws IOException an I/O exception occurred while closing the socket
+	 */
+	void resume() throws IOException {
+		synchronized (this) {
+			if (!suspended || key == null || !key.isValid())
+				return;
+			suspended = false;
+			if (!inputClosed)
+				key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+		}
+		process();
+	}
+
+	/**
+	 * Writes as much queued data as the socket will accept. Called by the selector thread.
+	 *
+	 * @throws IOException an I/O exception occurred while writing to the socket
+	 */
+	synchronized void flush() throws IOException {
+		while (!outbound.isEmpty()) {
+			// write all queued packets with a single gathering write
+			ByteBuffer[] buffers = new ByteBuffer[outbound.size()];
+			int i = 0;
+			for (OutboundPacket packet : outbound)
+				buffers[i++] = packet.buffer;
+			channel.write(buffers);
+			for (ByteBuffer buffer : buffers) {
+				if (buffer.hasRemaining())
+					break;
+				OutboundPacket sent = outbound.poll();
+				outboundBytes -= sent.data.length;
+				sent.complete();
+			}
+			notifyAll();
+			if (buffers[buffers.length - 1].hasRemaining())
+				return;
+		}
+		if (closeAfterFlush) {
+			close();
+			return;
+		}
+		if (key != null && key.isValid())
+			key.interestOps(suspended || inputClosed ? 0 : SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Writes a packet to the socket, queueing whatever the socket cannot immediately accept.
+	 *
+	 * @param packet packet to write
+	 * @throws IOException an I/O exception occurred while writing to the socket
+	 */
+	private synchronized void enqueue(@NotNull OutboundPacket packet) throws IOException {
+		if (outbound.isEmpty() && key != null) {
+			try {
+				channel.write(packet.buffer);
+			} catch (IOException exc) {
+				close();
+				throw exc;
+			}
+			if (!packet.buffer.hasRemaining()) {
+				packet.complete();
+				return;
+			}
+		} else {
+			int limit = socketManager.options.outboundLimit;
+			if (limit > 0 && outboundBytes + packet.data.length > limit)
+				makeRoom(packet, limit);
+		}
+		outbound.add(packet);
+		outboundBytes += packet.data.length;
+		if (key != null && key.isValid()) {
+			key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+			selectorLoop.wakeup();
+		}
+	}
+
+	/**
+	 * Applies the backpressure policy to a packet which would exceed the outbound limit.
+	 *
+	 * @param packet packet which is being queued
+	 * @param limit  maximum number of queued bytes
+	 * @throws IOException the packet could not be queued
+	 */
+	private void makeRoom(@NotNull OutboundPacket packet, int limit) throws IOException {
+		int size = packet.data.length;
+		switch (socketManager.options.backpressurePolicy) {
+			case BLOCK:
+				// only the selector thread can empty the queue, so replies which it sends itself
+				// (such as to keep-alive and login packets) are allowed to exceed the limit
+				if (selectorLoop.isSelectorThread())
+					return;
+				// a packet larger than the limit is allowed through once the queue is empty
+				while (!outbound.isEmpty() && outboundBytes + size > limit) {
+					if (isClosed())
+						throw new IOException("Socket is closed");
+					try {
+						wait(100);
+					} catch (InterruptedException exc) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted while waiting for the client to receive data");
+					}
+				}
+				return;
+			case COLLAPSE:
+				Iterator<OutboundPacket> iterator = outbound.iterator();
+				while (iterator.hasNext()) {
+					OutboundPacket queued = iterator.next();
+					// a partially written packet must be completed
+					if (queued.buffer.position() == 0 && packet.supersedes(queued)) {
+						iterator.remove();
+						outboundBytes -= queued.data.length;
+						queued.complete(); // the client will receive the newer state instead
+					}
+				}
+				if (outboundBytes + size <= limit)
+					return;
+				// fall through
+			default:
+				throw new IOException("Outbound queue is full; the client is not receiving data fast enough");
+		}
+	}
+
+	/**
+	 * Handles an exception thrown while servicing this connection.
+	 *
+	 * @param exc the exception
+	 */
+	void onError(@NotNull IOException exc) {
+		if ("Connection reset".equals(exc.getMessage()))
+			logger.info("Client disconnected from server (" + displayName + ")");
+		else if (running)
+			logger.warn("Erroneously disconnected from client socket (" + displayName + ")", exc);
+		else
+			logger.info("Client socket shutting down (" + displayName + ")");
+		close();
+	}
+
+	/**
+	 * Immediately closes the underlying channel, discarding any queued data.
+	 */
+	synchronized void close() {
+		running = false;
+		IOException closed = new IOException("Socket is closed");
+		for (OutboundPacket packet : outbound)
+			packet.fail(closed);
+		outbound.clear();
+		outboundBytes = 0;
+		notifyAll();
+		if (key != null)
+			key.cancel();
+		try {
+			channel.close();
+		} catch (IOException exc) {
+			logger.debug("Ignoring exception thrown by socket; likely just a result of the socket terminating");
+		}
+		socketManager.removeConnection(this);
+	}
+
+	@Override
+	public void addConnectListener(@NotNull Consumer<SocketManager> consumer) {
+		socketManager.addConnectListener(consumer);
+	}
+
+	@Override
+	public void addLoginListener(@NotNull Consumer<SocketManager> consumer) {
+		socketManager.addLoginListener(consumer);
+	}
+
+	@Override
+	public Response.@NotNull Builder buildResponse() {
+		return new Response.Builder().originatingSocket(this);
+	}
+
+	@Override
+	public void shutdown(@Nullable Request cause, @Nullable String reason) throws IOException {
+		if (!running) return;
+		logger.info("Disconnecting from client socket (" + displayName + ")");
+		try {Response.ofDisconnectMessage(this, reason).rawSend();}
+		catch (IOException exc) {logger.debug("Ignoring exception thrown by socket; likely just a result of the socket terminating");}
+		running = false;
+		synchronized (this) {
+			// close once the disconnect message has been flushed
+			closeAfterFlush = true;
+			if (outbound.isEmpty())
+				close();
+		}
+	}
+
+	@Override
+	public @NotNull Set<Request.Source> getSources() {
+		return Collections.singleton(effectExecutor.getSource());
+	}
+
+	@Override
+	public Request.@Nullable Source getSource() {
+		return effectExecutor.getSource();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return !running || !channel.isOpen();
+	}
+
+	@Override
+	public void write(@NotNull Response response) throws IOException {
+		send(response, null);
+	}
+
+	@Override
+	public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			send(response, future);
+		} catch (IOException exc) {
+			future.completeExceptionally(exc);
+		}
+		return future;
+	}
+
+	private void send(@NotNull Response response, @Nullable CompletableFuture<Void> future) throws IOException {
+		if (isClosed()) throw new IOException("Socket is closed");
+
+		// update response
+		Response filtered = effectExecutor.update(response);
+		if (filtered == null) {
+			if (future != null)
+				future.complete(null);
+			return;
+		}
+
+		// send response
+		byte[] packet = filtered.toBytes();
+		if (logger.isDebugEnabled())
+			logger.debug("Sending response to client: " + new String(packet, 0, packet.length - 1, StandardCharsets.UTF_8));
+		enqueue(new OutboundPacket(packet, filtered, future));
+	}
+
+	@NotNull
+	@Override
+	public String getDisplayName() {
+		return displayName;
+	}
+}
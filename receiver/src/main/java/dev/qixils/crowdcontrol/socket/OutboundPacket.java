@@ -0,0 +1,105 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An encoded packet awaiting transmission to a connection.
+ */
+final class OutboundPacket {
+	final byte @NotNull [] data;
+	final @NotNull ByteBuffer buffer;
+	private final @Nullable Response status; // set if this packet may be superseded by a later status update
+	private final @Nullable CompletableFuture<Void> future;
+	private final @NotNull AtomicBoolean claimed = new AtomicBoolean();
+
+	OutboundPacket(byte @NotNull [] data) {
+		this(data, null, null);
+	}
+
+	OutboundPacket(byte @NotNull [] data, @Nullable Response response) {
+		this(data, response, null);
+	}
+
+	OutboundPacket(byte @NotNull [] data, @Nullable Response response, @Nullable CompletableFuture<Void> future) {
+		this.data = data;
+		this.future = future;
+		this.buffer = ByteBuffer.wrap(data);
+		this.status = response != null
+				&& response.getPacketType() == Response.PacketType.EFFECT_STATUS
+				&& statusGroup(response.getResultType()) != 0
+				? response : null;
+	}
+
+	/**
+	 * Returns the group of effect states that a status update modifies,
+	 * or 0 if the result type is not a menu status.
+	 */
+	private static int statusGroup(@Nullable Response.ResultType type) {
+		if (type == null)
+			return 0;
+		switch (type) {
+			case VISIBLE:
+			case NOT_VISIBLE:
+				return 1;
+			case SELECTABLE:
+			case NOT_SELECTABLE:
+				return 2;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Notifies the sender that this packet has been written, or no longer needs to be.
+	 */
+	void complete() {
+		if (future != null)
+			future.complete(null);
+	}
+
+	/**
+	 * Notifies the sender that this packet could not be written.
+	 *
+	 * @param cause the reason the packet could not be written
+	 */
+	void fail(@NotNull Throwable cause) {
+		if (future != null)
+			future.completeExceptionally(cause);
+	}
+
+	/**
+	 * Claims this packet for either transmission or removal, ensuring that only one thread may do so.
+	 *
+	 * @return true if this packet was not yet claimed
+	 */
+	boolean claim() {
+		return claimed.compareAndSet(false, true);
+	}
+
+	/**
+	 * Determines if this packet makes an older packet obsolete, i.e. they are both status updates
+	 * of the same kind and this packet updates every effect that the older packet does.
+	 *
+	 * @param older packet which was queued before this one
+	 * @return true if the older packet no longer needs to be sent
+	 */
+	boolean supersedes(@NotNull OutboundPacket older) {
+		if (status == null || older.status == null)
+			return false;
+		if (status.getIdType() != older.status.getIdType())
+			return false;
+		if (statusGroup(status.getResultType()) != statusGroup(older.status.getResultType()))
+			return false;
+		String[] ids = status.getIds();
+		String[] olderIds = older.status.getIds();
+		if (ids == null || olderIds == null)
+			return false;
+		return Arrays.asList(ids).containsAll(Arrays.asList(olderIds));
+	}
+}
@@ -0,0 +1,272 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free queue of encoded packets awaiting transmission over a blocking socket.
+ * <p>
+ * Any number of threads may enqueue packets concurrently. Whichever thread finds the queue idle
+ * becomes its writer and transmits every pending packet, coalescing them into as few writes as
+ * possible, while the remaining threads return as soon as their packet has been queued.
+ * <p>
+ * Packets queued {@link #writeAsync(OutboundPacket) asynchronously} are instead written by a
+ * separate executor, as are all packets if the queue is limited and does not
+ * {@link BackpressurePolicy#BLOCK block}, so that no sender may become stuck writing to a
+ * stalled client. Such senders return as soon as their packet has been queued, and a failed write
+ * is instead reported to every later sender.
+ */
+final class OutboundQueue {
+	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/OutboundQueue");
+	private static final int BUFFER_SIZE = 16384;
+	private final @NotNull OutputStream output;
+	private final int limit;
+	private final @NotNull BackpressurePolicy policy;
+	private final @NotNull Executor writer;
+	private final boolean alwaysAsync;
+	private final @NotNull Queue<OutboundPacket> pending = new ConcurrentLinkedQueue<>();
+	private final @NotNull AtomicInteger pendingBytes = new AtomicInteger();
+	private final @NotNull AtomicBoolean writing = new AtomicBoolean();
+	private final byte @NotNull [] buffer = new byte[BUFFER_SIZE]; // only accessed by the writer
+	private final @NotNull List<OutboundPacket> batch = new ArrayList<>(); // only accessed by the writer
+	private volatile @Nullable IOException failure;
+
+	OutboundQueue(@NotNull OutputStream output) {
+		this(output, SocketOptions.DEFAULT, Runnable::run);
+	}
+
+	/**
+	 * Creates a new outbound queue.
+	 *
+	 * @param output  stream to write to
+	 * @param options settings which determine the limit of the queue
+	 * @param writer  executor used to write packets which must not block their senders
+	 */
+	OutboundQueue(@NotNull OutputStream output, @NotNull SocketOptions options, @NotNull Executor writer) {
+		this.output = output;
+		this.limit = options.outboundLimit;
+		this.policy = options.backpressurePolicy;
+		this.writer = writer;
+		this.alwaysAsync = limit > 0 && policy != BackpressurePolicy.BLOCK;
+	}
+
+	/**
+	 * Queues a packet for transmission, writing it and any other pending packets if no other
+	 * thread is currently doing so.
+	 *
+	 * @param packet encoded packet, including its terminator
+	 * @throws IOException an I/O exception occurred while writing to the socket, either now or
+	 *                     during a previous write, or the queue is full
+	 */
+	void write(@NotNull OutboundPacket packet) throws IOException {
+		add(packet);
+		if (alwaysAsync) {
+			scheduleWrite();
+			return;
+		}
+
+		// a producer which loses the race to become the writer may return immediately as the
+		// writer re-checks the queue after releasing its claim
+		while (!pending.isEmpty() && writing.compareAndSet(false, true)) {
+			try {
+				writePending();
+			} catch (IOException exc) {
+				fail(exc);
+				throw exc;
+			} finally {
+				writing.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Queues a packet for transmission by the writer executor.
+	 * The packet's future is completed once it has been written.
+	 *
+	 * @param packet encoded packet, including its terminator
+	 * @throws IOException a previous write failed or the queue is full
+	 */
+	void writeAsync(@NotNull OutboundPacket packet) throws IOException {
+		add(packet);
+		scheduleWrite();
+	}
+
+	private void add(@NotNull OutboundPacket packet) throws IOException {
+		checkFailure();
+		if (limit > 0)
+			reserve(packet);
+		pending.add(packet);
+	}
+
+	/**
+	 * Reserves room in the queue for a packet, applying the backpressure policy if there is none.
+	 *
+	 * @param packet packet which is being queued
+	 * @throws IOException the packet could not be queued
+	 */
+	private void reserve(@NotNull OutboundPacket packet) throws IOException {
+		int size = packet.data.length;
+		while (true) {
+			int queued = pendingBytes.get();
+			// a packet larger than the limit is allowed through a blocking queue once it is empty
+			if (queued + size <= limit || (queued == 0 && policy == BackpressurePolicy.BLOCK)) {
+				if (pendingBytes.compareAndSet(queued, queued + size))
+					return;
+			} else {
+				makeRoom(packet);
+			}
+		}
+	}
+
+	private void scheduleWrite() {
+		if (!writing.compareAndSet(false, true))
+			return;
+		try {
+			writer.execute(this::drain);
+		} catch (RuntimeException exc) {
+			writing.set(false);
+			throw exc;
+		}
+	}
+
+	private void drain() {
+		do {
+			try {
+				writePending();
+			} catch (IOException exc) {
+				logger.debug("Failed to write to socket", exc);
+				fail(exc);
+			} finally {
+				writing.set(false);
+			}
+		} while (!pending.isEmpty() && writing.compareAndSet(false, true));
+	}
+
+	private void checkFailure() throws IOException {
+		IOException failure = this.failure;
+		if (failure != null)
+			throw new IOException("Socket is closed", failure);
+	}
+
+	private void fail(@NotNull IOException exc) {
+		this.failure = exc;
+		for (OutboundPacket packet : batch)
+			packet.fail(exc);
+		batch.clear();
+		OutboundPacket packet;
+		while ((packet = pending.poll()) != null) {
+			if (packet.claim())
+				packet.fail(exc);
+		}
+		pendingBytes.set(0);
+		if (policy == BackpressurePolicy.BLOCK) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Applies the backpressure policy to a packet which would exceed the limit of the queue.
+	 *
+	 * @param packet packet which is being queued
+	 * @throws IOException the packet could not be queued
+	 */
+	private void makeRoom(@NotNull OutboundPacket packet) throws IOException {
+		int size = packet.data.length;
+		switch (policy) {
+			case BLOCK:
+				// a packet larger than the limit is allowed through once the queue is empty
+				synchronized (this) {
+					int queued;
+					while ((queued = pendingBytes.get()) > 0 && queued + size > limit) {
+						checkFailure();
+						try {
+							wait(100);
+						} catch (InterruptedException exc) {
+							Thread.currentThread().interrupt();
+							throw new InterruptedIOException("Interrupted while waiting for the client to receive data");
+						}
+					}
+				}
+				return;
+			case COLLAPSE:
+				for (OutboundPacket queued : pending) {
+					if (packet.supersedes(queued) && queued.claim()) {
+						pendingBytes.addAndGet(-queued.data.length);
+						queued.complete(); // the client will receive the newer state instead
+					}
+				}
+				if (pendingBytes.get() + size <= limit)
+					return;
+				// fall through
+			default:
+				throw new IOException("Outbound queue is full; the client is not receiving data fast enough");
+		}
+	}
+
+	/**
+	 * Waits for another thread to finish writing any pending packets, such as before closing the socket.
+	 *
+	 * @param timeout maximum time to wait in milliseconds
+	 */
+	void awaitIdle(long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+		while ((writing.get() || !pending.isEmpty()) && failure == null && System.currentTimeMillis() < deadline)
+			Thread.yield();
+	}
+
+	private void writePending() throws IOException {
+		int length = 0;
+		int written = 0;
+		OutboundPacket packet;
+		while ((packet = pending.poll()) != null) {
+			if (!packet.claim())
+				continue; // superseded by a later packet
+			batch.add(packet);
+			byte[] data = packet.data;
+			written += data.length;
+			if (length + data.length > buffer.length) {
+				if (length > 0) {
+					output.write(buffer, 0, length);
+					length = 0;
+				}
+				if (data.length > buffer.length) {
+					output.write(data);
+					continue;
+				}
+			}
+			System.arraycopy(data, 0, buffer, length, data.length);
+			length += data.length;
+		}
+		if (length > 0)
+			output.write(buffer, 0, length);
+		output.flush();
+
+		for (OutboundPacket sent : batch)
+			sent.complete();
+		batch.clear();
+
+		if (limit > 0) {
+			pendingBytes.addAndGet(-written);
+			if (policy == BackpressurePolicy.BLOCK) {
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+	}
+}
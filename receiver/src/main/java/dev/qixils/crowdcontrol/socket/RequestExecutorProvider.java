@@ -0,0 +1,30 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.CheckReturnValue;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link SocketManager} which handles incoming requests on an executor of its own.
+ * This is intended only for use by the library.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.Internal
+@ApiStatus.AvailableSince("3.10.0")
+public interface RequestExecutorProvider {
+
+	/**
+	 * Gets the executor which handles incoming requests, i.e. the
+	 * {@link SocketOptions#SocketOptions(boolean, int, BackpressurePolicy, Executor) configured request executor}
+	 * or else the thread pool of the socket manager.
+	 *
+	 * @return request executor
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	@CheckReturnValue
+	@NotNull Executor getRequestExecutor();
+}
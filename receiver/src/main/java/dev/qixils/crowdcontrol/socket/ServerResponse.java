@@ -5,12 +5,15 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @ApiStatus.Internal
 final class ServerResponse extends Response {
-	private final transient @NotNull ServerSocketManager manager;
+	private final transient @NotNull SocketManager manager;
 
 	private ServerResponse(@NotNull Builder builder) {
 		super(builder);
@@ -27,26 +30,75 @@ final class ServerResponse extends Response {
 		return true;
 	}
 
-	@Override
-	void rawSend() throws IllegalStateException, IOException {
-		List<SocketThread> threads = manager.getSocketThreads();
-		List<IOException> exceptions = new ArrayList<>(threads.size());
-		for (SocketThread thread : threads) {
-			try {
-				new Response.Builder(this).originatingSocket(thread).build().rawSend();
-			} catch (IOException e) {
-				exceptions.add(e);
-			}
+	/**
+	 * Queues a response for every open connection without waiting for it to be written, so that
+	 * a stalled client cannot delay the delivery of the response to the other clients.
+	 *
+	 * @param response    response to send
+	 * @param connections connections to send the response to
+	 * @throws IOException the response could not be queued for one or more connections
+	 */
+	static void broadcast(@NotNull Response response, @NotNull Collection<? extends SocketManager> connections) throws IOException {
+		List<IOException> exceptions = new ArrayList<>();
+		// every connection writes this same instance so that it is only encoded once
+		for (SocketManager connection : connections) {
+			if (connection.isClosed())
+				continue;
+			CompletableFuture<Void> future = connection.writeAsync(response);
+			if (future.isCompletedExceptionally())
+				exceptions.add(cause(future));
 		}
 		if (!exceptions.isEmpty())
 			throw new AggregatedIOException(exceptions);
 	}
 
+	/**
+	 * Gets the exception which a failed write completed with.
+	 *
+	 * @param future future of the write, which must have completed exceptionally
+	 * @return the cause of the failure
+	 */
+	private static @NotNull IOException cause(@NotNull CompletableFuture<Void> future) {
+		try {
+			future.join();
+			throw new IllegalStateException("Write did not fail");
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		}
+	}
+
+	@Override
+	void rawSend() throws IllegalStateException, IOException {
+		broadcast(this, manager.getConnections());
+	}
+
+	@Override
+	@NotNull CompletableFuture<Void> rawSendAsync() {
+		List<? extends SocketManager> threads = manager.getConnections();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(threads.size());
+		for (SocketManager thread : threads) {
+			if (thread.isClosed())
+				continue;
+			futures.add(thread.writeAsync(this));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((ignored, exc) -> {
+			if (exc == null)
+				return null;
+			List<IOException> exceptions = new ArrayList<>();
+			for (CompletableFuture<Void> future : futures) {
+				if (future.isCompletedExceptionally())
+					exceptions.add(cause(future));
+			}
+			throw new CompletionException(new AggregatedIOException(exceptions));
+		});
+	}
+
 	@ApiStatus.Internal
 	static final class Builder extends Response.Builder {
-		private final @NotNull ServerSocketManager manager;
+		private final @NotNull SocketManager manager;
 
-		Builder(@NotNull ServerSocketManager manager) {
+		Builder(@NotNull SocketManager manager) {
 			this.manager = manager;
 		}
 
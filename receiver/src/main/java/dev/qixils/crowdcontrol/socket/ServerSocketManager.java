@@ -14,7 +14,6 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.*;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -23,13 +22,15 @@ import java.util.function.Consumer;
  * @since 3.0.0
  */
 @ApiStatus.AvailableSince("3.0.0")
-public final class ServerSocketManager implements SocketManager {
+public final class ServerSocketManager implements SocketManager, RequestExecutorProvider {
 	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/ServerSocket");
 	final @NotNull RequestManager crowdControl;
-	final @NotNull Executor effectPool = Executors.newCachedThreadPool();
+	final @NotNull Executor effectPool;
 	final @NotNull List<Consumer<SocketManager>> onConnectListeners = new ArrayList<>();
 	final @NotNull List<Consumer<SocketManager>> onLoginListeners = new ArrayList<>();
 	private final @NotNull List<SocketThread> socketThreads = new ArrayList<>();
+	final @NotNull SocketOptions options;
+	private final boolean virtualThreads;
 	volatile boolean running = true;
 	private ServerSocket serverSocket;
 
@@ -43,8 +44,30 @@ public final class ServerSocketManager implements SocketManager {
 	@ApiStatus.Internal
 	@ApiStatus.AvailableSince("3.0.0")
 	public ServerSocketManager(@NotNull RequestManager crowdControl) {
+		this(crowdControl, SocketOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates a new server-side socket manager. This is intended only for use by the library.
+	 *
+	 * @param crowdControl Crowd Control instance
+	 * @param options      settings for client connections
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.Internal
+	@ApiStatus.AvailableSince("3.10.0")
+	public ServerSocketManager(@NotNull RequestManager crowdControl, @NotNull SocketOptions options) {
 		this.crowdControl = ExceptionUtil.validateNotNull(crowdControl, "crowdControl");
-		new Thread(this::loop, "crowd-control-socket-loop").start();
+		this.options = ExceptionUtil.validateNotNull(options, "options");
+		this.virtualThreads = VirtualThreads.resolve(options.virtualThreads);
+		this.effectPool = VirtualThreads.newEffectPool(this.virtualThreads);
+		VirtualThreads.newThread(this.virtualThreads, this::loop, "crowd-control-socket-loop").start();
+	}
+
+	@Override
+	public @NotNull Executor getRequestExecutor() {
+		return options.requestExecutor(effectPool);
 	}
 
 	@Override
@@ -88,7 +111,7 @@ public final class ServerSocketManager implements SocketManager {
 					break;
 				}
 				socketThreads.add(socketThread);
-				socketThread.start();
+				VirtualThreads.newThread(virtualThreads, socketThread, "crowd-control-socket-" + socketThread.displayName).start();
 			} catch (IOException exc) {
 				if (running)
 					logger.warn("Failed to accept new socket connection", exc);
@@ -128,11 +151,7 @@ public final class ServerSocketManager implements SocketManager {
 
 	@Override
 	public void write(@NotNull Response response) throws IOException {
-		for (SocketThread socketThread : getSocketThreads()) {
-			if (socketThread.isClosed())
-				continue;
-			socketThread.write(response);
-		}
+		ServerResponse.broadcast(response, getSocketThreads());
 	}
 
 	@Override
@@ -0,0 +1,113 @@
+package dev.qixils.crowdcontrol.socket;
+
+import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.CheckReturnValue;
+import java.util.concurrent.Executor;
+
+/**
+ * Settings shared by the connections of a {@link SocketManager}.
+ * This is intended only for use by the library.
+ *
+ * @since 3.10.0
+ */
+@ApiStatus.Internal
+@ApiStatus.AvailableSince("3.10.0")
+public final class SocketOptions {
+
+	/**
+	 * The default settings: platform threads and an unlimited outbound queue.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public static final @NotNull SocketOptions DEFAULT = new SocketOptions(false, 0, BackpressurePolicy.BLOCK);
+
+	/**
+	 * The default number of pending connections which a non-blocking server will queue
+	 * before refusing new ones.
+	 *
+	 * @since 3.10.0
+	 */
+	@ApiStatus.AvailableSince("3.10.0")
+	public static final int DEFAULT_ACCEPT_BACKLOG = 128;
+
+	final boolean virtualThreads;
+	final int outboundLimit;
+	final @NotNull BackpressurePolicy backpressurePolicy;
+	final @Nullable Executor requestExecutor;
+	final int acceptBacklog;
+
+	/**
+	 * Creates new socket settings which handle requests using the thread pool of the socket manager.
+	 *
+	 * @param virtualThreads     whether to use virtual threads (ignored on runtimes older than Java 21)
+	 * @param outboundLimit      maximum number of unsent bytes queued per connection, or 0 for no limit
+	 * @param backpressurePolicy what to do when a connection reaches its outbound limit
+	 * @throws IllegalArgumentException {@code outboundLimit} was negative or {@code backpressurePolicy} was null
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.AvailableSince("3.10.0")
+	public SocketOptions(boolean virtualThreads, int outboundLimit, @NotNull BackpressurePolicy backpressurePolicy) throws IllegalArgumentException {
+		this(virtualThreads, outboundLimit, backpressurePolicy, null);
+	}
+
+	/**
+	 * Creates new socket settings.
+	 *
+	 * @param virtualThreads     whether to use virtual threads (ignored on runtimes older than Java 21)
+	 * @param outboundLimit      maximum number of unsent bytes queued per connection, or 0 for no limit
+	 * @param backpressurePolicy what to do when a connection reaches its outbound limit
+	 * @param requestExecutor    executor which handles incoming requests, or null to use the thread pool
+	 *                           which is also responsible for sending responses
+	 * @throws IllegalArgumentException {@code outboundLimit} was negative or {@code backpressurePolicy} was null
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.AvailableSince("3.10.0")
+	public SocketOptions(boolean virtualThreads, int outboundLimit, @NotNull BackpressurePolicy backpressurePolicy, @Nullable Executor requestExecutor) throws IllegalArgumentException {
+		this(virtualThreads, outboundLimit, backpressurePolicy, requestExecutor, DEFAULT_ACCEPT_BACKLOG);
+	}
+
+	/**
+	 * Creates new socket settings.
+	 *
+	 * @param virtualThreads     whether to use virtual threads (ignored on runtimes older than Java 21)
+	 * @param outboundLimit      maximum number of unsent bytes queued per connection, or 0 for no limit
+	 * @param backpressurePolicy what to do when a connection reaches its outbound limit
+	 * @param requestExecutor    executor which handles incoming requests, or null to use the thread pool
+	 *                           which is also responsible for sending responses
+	 * @param acceptBacklog      maximum number of pending connections queued by a
+	 *                           {@link NioServerSocketManager non-blocking server}
+	 * @throws IllegalArgumentException {@code outboundLimit} was negative, {@code backpressurePolicy} was null,
+	 *                                  or {@code acceptBacklog} was not positive
+	 * @since 3.10.0
+	 */
+	@CheckReturnValue
+	@ApiStatus.AvailableSince("3.10.0")
+	public SocketOptions(boolean virtualThreads, int outboundLimit, @NotNull BackpressurePolicy backpressurePolicy, @Nullable Executor requestExecutor, int acceptBacklog) throws IllegalArgumentException {
+		if (outboundLimit < 0)
+			throw new IllegalArgumentException("outboundLimit cannot be negative");
+		if (acceptBacklog < 1)
+			throw new IllegalArgumentException("acceptBacklog must be positive");
+		this.virtualThreads = virtualThreads;
+		this.outboundLimit = outboundLimit;
+		this.backpressurePolicy = ExceptionUtil.validateNotNull(backpressurePolicy, "backpressurePolicy");
+		this.requestExecutor = requestExecutor;
+		this.acceptBacklog = acceptBacklog;
+	}
+
+	/**
+	 * Gets the executor which handles incoming requests.
+	 *
+	 * @param effectPool the thread pool of the socket manager
+	 * @return request executor
+	 */
+	@NotNull Executor requestExecutor(@NotNull Executor effectPool) {
+		return requestExecutor != null ? requestExecutor : effectPool;
+	}
+}
@@ -6,29 +6,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.Socket;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
  * Handles the connection to a Crowd Control client when operating in server mode.
  */
-final class SocketThread extends Thread implements SocketManager {
-	private static final @NotNull String RAW_PASSWORD_REQUEST;
-	private static final byte @NotNull [] PASSWORD_REQUEST;
+final class SocketThread implements Runnable, SocketManager {
+	static final byte @NotNull [] PASSWORD_REQUEST = new Response.Builder().packetType(Response.PacketType.LOGIN).build().toBytes();
 	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/SocketThread");
 
-	static {
-		Response resp = new Response.Builder().packetType(Response.PacketType.LOGIN).build();
-		RAW_PASSWORD_REQUEST = resp.toJSON();
-		byte[] json = RAW_PASSWORD_REQUEST.getBytes(StandardCharsets.UTF_8);
-		// array copy adds an extra 0x00 byte to the end, indicating the end of the packet
-		// (I am very smart)
-		PASSWORD_REQUEST = Arrays.copyOf(json, json.length + 1);
-	}
-
 	final @NotNull ServerSocketManager socketManager;
 	final @NotNull Socket socket;
 	final @NotNull String displayName = UUID.randomUUID().toString().substring(30).toUpperCase(Locale.ENGLISH);
@@ -55,6 +44,7 @@ final class SocketThread extends Thread implements SocketManager {
 		return new Response.Builder().originatingSocket(this);
 	}
 
+	@Override
 	public void run() {
 		logger.info("Successfully connected to a new client (" + displayName + ")");
 		for (Consumer<SocketManager> listener : socketManager.onConnectListeners) {
@@ -69,9 +59,7 @@ final class SocketThread extends Thread implements SocketManager {
 			effectExecutor = new EffectExecutor(this);
 
 			// prompt client for password
-			OutputStream output = socket.getOutputStream();
-			output.write(PASSWORD_REQUEST);
-			output.flush();
+			effectExecutor.write(PASSWORD_REQUEST);
 
 			while (running) {
 				effectExecutor.run();
@@ -118,6 +106,8 @@ final class SocketThread extends Thread implements SocketManager {
 		if (!socket.isClosed()) {
 			try {Response.ofDisconnectMessage(this, reason).rawSend();}
 			catch (IOException exc) {logger.debug("Ignoring exception thrown by socket; likely just a result of the socket terminating");}
+			if (effectExecutor != null)
+				effectExecutor.awaitWrites();
 			try {socket.close();}
 			catch (IOException exc) {logger.debug("Ignoring exception thrown by socket; likely just a result of the socket terminating");}
 		}
@@ -146,6 +136,16 @@ final class SocketThread extends Thread implements SocketManager {
 		effectExecutor.write(response);
 	}
 
+	@Override
+	public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+		if (isClosed()) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			future.completeExceptionally(new IOException("Socket is closed"));
+			return future;
+		}
+		return effectExecutor.writeAsync(response);
+	}
+
 	@NotNull
 	@Override
 	public String getDisplayName() {
@@ -0,0 +1,86 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads used by the socket managers, using virtual threads when requested and
+ * supported by the runtime.
+ * <p>
+ * Virtual threads are only available on Java 21 and newer, so they are accessed reflectively to
+ * allow the library to continue to run on Java 8.
+ */
+final class VirtualThreads {
+	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/VirtualThreads");
+	private static final @Nullable ThreadFactory FACTORY = createFactory();
+	private static boolean warned = false;
+
+	private VirtualThreads() {
+		throw new IllegalStateException("Cannot instantiate utility class");
+	}
+
+	private static @Nullable ThreadFactory createFactory() {
+		try {
+			// Thread.ofVirtual().factory()
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException exc) {
+			// the runtime is older than Java 21 (or virtual threads are a disabled preview feature)
+			return null;
+		}
+	}
+
+	/**
+	 * Determines whether virtual threads should be used, logging a warning if they were requested
+	 * but are not supported by the runtime.
+	 *
+	 * @param requested whether virtual threads were requested
+	 * @return whether virtual threads will be used
+	 */
+	static synchronized boolean resolve(boolean requested) {
+		if (!requested)
+			return false;
+		if (FACTORY != null)
+			return true;
+		if (!warned) {
+			warned = true;
+			logger.warn("Virtual threads require Java 21 or newer; falling back to platform threads");
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a new unstarted thread.
+	 *
+	 * @param virtual whether to create a virtual thread
+	 * @param task    task for the thread to run
+	 * @param name    name of the thread
+	 * @return new thread
+	 */
+	static @NotNull Thread newThread(boolean virtual, @NotNull Runnable task, @NotNull String name) {
+		if (!virtual || FACTORY == null)
+			return new Thread(task, name);
+		Thread thread = FACTORY.newThread(task);
+		thread.setName(name);
+		return thread;
+	}
+
+	/**
+	 * Creates the executor used to run effect handlers.
+	 *
+	 * @param virtual whether to run each handler on its own virtual thread
+	 * @return new executor
+	 */
+	static @NotNull Executor newEffectPool(boolean virtual) {
+		if (!virtual || FACTORY == null)
+			return Executors.newCachedThreadPool();
+		ThreadFactory factory = FACTORY;
+		return command -> factory.newThread(command).start();
+	}
+}
@@ -0,0 +1,69 @@
+package dev.qixils.crowdcontrol;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BulkheadTests {
+
+	@Test
+	public void limitTest() throws InterruptedException {
+		Bulkhead bulkhead = new Bulkhead(1, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch queuedRan = new CountDownLatch(1);
+		AtomicReference<Thread> queuedThread = new AtomicReference<>();
+
+		Thread first = new Thread(() -> bulkhead.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		first.start();
+		Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+		// the second task is queued without blocking and the third is rejected
+		Assertions.assertTrue(bulkhead.execute(() -> {
+			queuedThread.set(Thread.currentThread());
+			queuedRan.countDown();
+		}));
+		AtomicBoolean rejectedRan = new AtomicBoolean();
+		Assertions.assertFalse(bulkhead.execute(() -> rejectedRan.set(true)));
+
+		// the queued task is run by the thread which held the permit
+		release.countDown();
+		Assertions.assertTrue(queuedRan.await(1, TimeUnit.SECONDS));
+		Assertions.assertSame(first, queuedThread.get());
+		first.join();
+		Assertions.assertFalse(rejectedRan.get());
+
+		// the permit is released once the queue is empty
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		Assertions.assertTrue(bulkhead.execute(() -> thread.set(Thread.currentThread())));
+		Assertions.assertSame(Thread.currentThread(), thread.get());
+	}
+
+	@Test
+	public void exceptionTest() {
+		Bulkhead bulkhead = new Bulkhead(1, 0);
+		Assertions.assertTrue(bulkhead.execute(() -> {
+			throw new IllegalStateException("test");
+		}));
+		// a failing task must not leak its permit
+		Assertions.assertTrue(bulkhead.execute(() -> {
+		}));
+	}
+
+	@Test
+	public void constructorTest() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new Bulkhead(0, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new Bulkhead(1, -1));
+	}
+}
@@ -1,11 +1,25 @@
 package dev.qixils.crowdcontrol;
 
+import dev.qixils.crowdcontrol.exceptions.NoApplicableTarget;
 import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.RequestExecutorProvider;
 import dev.qixils.crowdcontrol.socket.Response;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @SuppressWarnings("deprecation")
 public class CrowdControlTests {
@@ -120,4 +134,366 @@ public class CrowdControlTests {
 		}));
 		Assertions.assertThrows(IllegalArgumentException.class, () -> server.registerHandler("1", (Function<Request, Response>) request -> request.buildResponse().type(Response.ResultType.SUCCESS).build()));
 	}
+
+	@Test
+	public void checkTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		AtomicInteger handled = new AtomicInteger();
+		AtomicInteger tickChecks = new AtomicInteger();
+		AtomicInteger lateChecks = new AtomicInteger();
+		server.registerHandler("effect", $ -> {
+			handled.incrementAndGet();
+		});
+		server.registerTickCheck(() -> {
+			tickChecks.incrementAndGet();
+			return CheckResult.ALLOW;
+		});
+		Supplier<CheckResult> disallow = () -> CheckResult.DISALLOW;
+		server.registerCheck(disallow, Duration.ofHours(1));
+		server.registerCheck(() -> {
+			lateChecks.incrementAndGet();
+			return CheckResult.ALLOW;
+		});
+
+		Request request = new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer("qixils").build();
+		request.setOriginatingSocket(server); // failure responses are discarded as the server is closed
+		server.handle(request);
+		server.handle(request);
+		Assertions.assertEquals(0, handled.get());
+		Assertions.assertEquals(0, lateChecks.get());
+		Assertions.assertEquals(1, tickChecks.get());
+
+		server.tick();
+		Assertions.assertTrue(server.unregisterCheck(disallow));
+		server.handle(request);
+		server.handle(request);
+		Assertions.assertEquals(2, handled.get());
+		Assertions.assertEquals(2, lateChecks.get());
+		Assertions.assertEquals(2, tickChecks.get());
+	}
+
+	@Test
+	public void rateLimiterTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		AtomicInteger handled = new AtomicInteger();
+		server.registerHandler("effect", $ -> {
+			handled.incrementAndGet();
+		});
+		RateLimiter limiter = RateLimiter.perViewer(2, Duration.ofHours(1));
+		server.registerRateLimiter(limiter);
+
+		Request request = new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer("qixils").build();
+		request.setOriginatingSocket(server); // rejections are discarded as the server is closed
+		for (int i = 0; i < 4; i++)
+			server.handle(request);
+		Assertions.assertEquals(2, handled.get());
+
+		Assertions.assertTrue(server.unregisterRateLimiter(limiter));
+		Assertions.assertFalse(server.unregisterRateLimiter(limiter));
+		server.handle(request);
+		Assertions.assertEquals(3, handled.get());
+	}
+
+	@Test
+	public void coalescingTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		List<Integer> quantities = Collections.synchronizedList(new ArrayList<>());
+		server.registerHandler("effect", request -> {
+			quantities.add(request.getQuantityOrDefault());
+		});
+		server.registerCoalescing("Effect", Duration.ofMillis(200));
+
+		Request.Builder builder = new Request.Builder().type(Request.Type.START).effect("effect").viewer("qixils").originatingSocket(server);
+		Request request = builder.id(1).build();
+		server.handle(request); // returns immediately; the batch closes once the window has passed
+		Thread.sleep(50);
+		server.handle(builder.id(2).build());
+		server.handle(builder.id(3).quantity(3).build());
+		Assertions.assertTrue(quantities.isEmpty());
+		long deadline = System.currentTimeMillis() + 1000;
+		while (quantities.isEmpty() && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assertions.assertEquals(Collections.singletonList(5), quantities);
+
+		Assertions.assertTrue(server.unregisterCoalescing("effect"));
+		server.handle(request);
+		Assertions.assertEquals(Arrays.asList(5, 1), quantities);
+	}
+
+	/**
+	 * A socket whose requests are handled by a dedicated executor.
+	 */
+	private static final class ExecutorSocket extends RecordingSocket implements RequestExecutorProvider {
+		private final @NotNull Executor executor;
+
+		private ExecutorSocket(@NotNull Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public @NotNull Executor getRequestExecutor() {
+			return executor;
+		}
+	}
+
+	@Test
+	public void coalescingExecutorTests() throws InterruptedException {
+		AtomicInteger executed = new AtomicInteger();
+		Executor executor = task -> {
+			executed.incrementAndGet();
+			new Thread(task, "request-executor").start();
+		};
+		CrowdControl server = new CrowdControl(null, PORT, "password", null, null, $ -> new ExecutorSocket(executor));
+
+		List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		server.registerHandler("effect", request -> {
+			threads.add(Thread.currentThread().getName());
+		});
+		server.registerCoalescing("effect", Duration.ofMillis(50));
+
+		// the merged request is handled by the instance's request executor
+		server.handle(new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer("qixils").originatingSocket(new RecordingSocket()).build());
+		long deadline = System.currentTimeMillis() + 1000;
+		while (threads.isEmpty() && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assertions.assertEquals(Collections.singletonList("request-executor"), threads);
+		Assertions.assertEquals(1, executed.get());
+	}
+
+	@Test
+	public void queueAgeTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").maxQueueAge(Duration.ofMillis(100)).build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		AtomicInteger handled = new AtomicInteger();
+		server.registerHandler("effect", $ -> {
+			handled.incrementAndGet();
+		});
+
+		Request request = new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer("qixils").originatingSocket(server).build();
+		server.handle(request); // requests which were not received from a socket never expire
+		request.setReceivedTime(System.nanoTime());
+		server.handle(request);
+		Assertions.assertEquals(2, handled.get());
+
+		request.setReceivedTime(System.nanoTime() - Duration.ofSeconds(1).toNanos());
+		server.handle(request);
+		Assertions.assertEquals(2, handled.get());
+
+		// only requests which start or test effects expire
+		Request stop = request.toBuilder().type(Request.Type.STOP).build();
+		stop.setReceivedTime(request.getReceivedTime());
+		server.handle(stop);
+		Assertions.assertEquals(3, handled.get());
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> CrowdControl.server().maxQueueAge(Duration.ZERO));
+	}
+
+	@Test
+	public void coalescedQueueAgeTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").maxQueueAge(Duration.ofMillis(100)).build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		AtomicInteger handled = new AtomicInteger();
+		server.registerHandler("effect", $ -> {
+			handled.incrementAndGet();
+		});
+		server.registerCoalescing("effect", Duration.ofMillis(200));
+
+		// the merged request is as old as the oldest request in its batch
+		RecordingSocket socket = new RecordingSocket();
+		Request.Builder builder = new Request.Builder().type(Request.Type.START).effect("effect").viewer("qixils").originatingSocket(socket);
+		Request first = builder.id(1).build();
+		first.setReceivedTime(System.nanoTime());
+		Request second = builder.id(2).build();
+		second.setReceivedTime(System.nanoTime());
+		server.handle(first);
+		Thread.sleep(50);
+		server.handle(second);
+
+		long deadline = System.currentTimeMillis() + 1000;
+		while (socket.responses.size() < 2 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		Assertions.assertEquals(0, handled.get());
+		Assertions.assertEquals(2, socket.responses.size());
+		Set<Integer> ids = new HashSet<>();
+		for (Response response : socket.responses) {
+			Assertions.assertEquals(Response.ResultType.RETRY, response.getResultType());
+			ids.add(response.getId());
+		}
+		Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), ids);
+	}
+
+	public static final class AsyncHandlers {
+		@Subscribe("async")
+		public CompletableFuture<Response.Builder> async(Request request) {
+			return CompletableFuture.completedFuture(request.buildResponse().type(Response.ResultType.SUCCESS));
+		}
+	}
+
+	@Test
+	public void asyncHandlerTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		CompletableFuture<Response.ResultType> result = new CompletableFuture<>();
+		server.registerAsyncHandler("effect", request -> result.thenApply(type -> request.buildResponse().type(type).build()));
+		server.registerAsyncHandler("unavailable", request -> {
+			CompletableFuture<Response> future = new CompletableFuture<>();
+			future.completeExceptionally(new NoApplicableTarget());
+			return future;
+		});
+		server.registerAsyncHandler("null", request -> CompletableFuture.completedFuture(null));
+		server.registerHandlers(new AsyncHandlers());
+
+		RecordingSocket socket = new RecordingSocket();
+		Request.Builder builder = new Request.Builder().id(1).type(Request.Type.START).viewer("qixils").originatingSocket(socket);
+		server.handle(builder.effect("effect").build());
+		Assertions.assertTrue(socket.responses.isEmpty());
+		result.complete(Response.ResultType.SUCCESS);
+
+		server.handle(builder.effect("unavailable").build());
+		server.handle(builder.effect("null").build());
+		server.handle(builder.effect("async").build());
+		Thread.sleep(10); // responses are written asynchronously
+
+		List<Response> responses = socket.responses;
+		Assertions.assertEquals(4, responses.size());
+		Assertions.assertEquals(Response.ResultType.SUCCESS, responses.get(0).getResultType());
+		Assertions.assertEquals(Response.ResultType.FAILURE, responses.get(1).getResultType());
+		Assertions.assertEquals("Streamer(s) unavailable", responses.get(1).getMessage());
+		Assertions.assertEquals(Response.ResultType.FAILURE, responses.get(2).getResultType());
+		Assertions.assertEquals(Response.ResultType.SUCCESS, responses.get(3).getResultType());
+	}
+
+	@Test
+	public void interceptorTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		server.registerHandler("effect", request -> {
+			events.add("handler");
+		});
+		Interceptor outer = new Interceptor() {
+			@Override
+			public Response.Builder before(@NotNull Request request) {
+				events.add("outer before");
+				return null;
+			}
+
+			@Override
+			public void after(@NotNull Request request) {
+				events.add("outer after");
+			}
+		};
+		Interceptor inner = new Interceptor() {
+			@Override
+			public Response.Builder around(@NotNull Request request, @NotNull Chain chain) {
+				events.add("inner around");
+				if ("blocked".equals(request.getViewer()))
+					return request.buildResponse().type(Response.ResultType.FAILURE).message("Blocked");
+				chain.proceed(request);
+				return null;
+			}
+		};
+		server.registerInterceptor(outer);
+		server.registerInterceptor(inner);
+
+		RecordingSocket socket = new RecordingSocket();
+		Request.Builder builder = new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer("qixils").originatingSocket(socket);
+		server.handle(builder.build());
+		Assertions.assertEquals(Arrays.asList("outer before", "inner around", "handler", "outer after"), events);
+
+		// interceptors may answer requests in place of the handler
+		events.clear();
+		server.handle(builder.viewer("blocked").build());
+		Assertions.assertEquals(Arrays.asList("outer before", "inner around", "outer after"), events);
+		Thread.sleep(10); // responses are written asynchronously
+		Assertions.assertEquals(1, socket.responses.size());
+		Assertions.assertEquals("Blocked", socket.responses.get(0).getMessage());
+
+		events.clear();
+		Assertions.assertTrue(server.unregisterInterceptor(outer));
+		Assertions.assertFalse(server.unregisterInterceptor(outer));
+		server.handle(builder.viewer("qixils").build());
+		Assertions.assertEquals(Arrays.asList("inner around", "handler"), events);
+	}
+
+	@Test
+	public void requestIntakeTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		RequestIntake intake = new RequestIntake() {
+			@Override
+			public boolean offer(@NotNull Request request) {
+				return false;
+			}
+
+			@Override
+			public void onDemand(@NotNull Runnable callback) {
+				callback.run();
+			}
+		};
+		Assertions.assertNull(server.getRequestIntake());
+		server.openRequestIntake(intake);
+		Assertions.assertSame(intake, server.getRequestIntake());
+		Assertions.assertThrows(IllegalStateException.class, () -> server.openRequestIntake(intake));
+		Assertions.assertTrue(server.closeRequestIntake(intake));
+		Assertions.assertFalse(server.closeRequestIntake(intake));
+		Assertions.assertNull(server.getRequestIntake());
+	}
+
+	@Test
+	public void unregisterTests() throws InterruptedException {
+		CrowdControl server = CrowdControl.server().port(PORT).password("password").build();
+		server.shutdown("test");
+		Thread.sleep(10);
+
+		server.registerHandler("Effect", $ -> {
+		});
+		Assertions.assertTrue(server.hasHandler("effect"));
+		Assertions.assertTrue(server.unregisterHandler("EFFECT"));
+		Assertions.assertFalse(server.hasHandler("effect"));
+		Assertions.assertFalse(server.unregisterHandler("effect"));
+		server.registerHandler("effect", $ -> {
+		});
+		Assertions.assertTrue(server.hasHandler("effect"));
+
+		Supplier<CheckResult> check = () -> CheckResult.ALLOW;
+		server.registerCheck(check);
+		Assertions.assertTrue(server.unregisterCheck(check));
+		Assertions.assertFalse(server.unregisterCheck(check));
+
+		// concurrent registration
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t * 100;
+			threads[t] = new Thread(() -> {
+				for (int i = offset; i < offset + 100; i++)
+					server.registerHandler("concurrent" + i, $ -> {
+					});
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		for (int i = 0; i < threads.length * 100; i++)
+			Assertions.assertTrue(server.hasHandler("concurrent" + i), "Handler " + i + " not registered");
+	}
 }
@@ -0,0 +1,33 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class EffectRouterTests {
+
+	@Test
+	public void routeTest() {
+		AtomicReference<String> handled = new AtomicReference<>();
+		Map<String, EffectRouter.Route> handlers = new LinkedHashMap<>();
+		handlers.put("summon", new EffectRouter.Route((Consumer<Request>) request -> handled.set("summon")));
+		handlers.put("kill", new EffectRouter.Route((Consumer<Request>) request -> handled.set("kill")));
+		EffectRouter router = new EffectRouter(handlers);
+
+		Assertions.assertEquals(0, router.id("summon"));
+		Assertions.assertEquals(1, router.id("kill"));
+		Assertions.assertEquals(1, router.id("KiLL"));
+		Assertions.assertEquals(EffectRouter.NOT_FOUND, router.id("heal"));
+		Assertions.assertEquals(EffectRouter.NOT_FOUND, router.id(null));
+		Assertions.assertEquals(EffectRouter.NOT_FOUND, EffectRouter.EMPTY.id("summon"));
+
+		Request request = new Request.Builder().id(1).type(Request.Type.START).effect("Summon").viewer("qixils").build();
+		router.route(router.id(request.getEffect())).handle(request);
+		Assertions.assertEquals("summon", handled.get());
+	}
+}
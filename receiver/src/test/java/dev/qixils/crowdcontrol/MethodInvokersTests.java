@@ -0,0 +1,76 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class MethodInvokersTests {
+	private static final Request REQUEST = new Request.Builder().id(1).type(Request.Type.START).effect("summon").viewer("qixils").build();
+
+	public static final class PublicHandlers {
+		public final AtomicReference<Request> received = new AtomicReference<>();
+
+		public String effect(Request request) {
+			return request.getEffect();
+		}
+
+		public void accept(Request request) {
+			received.set(request);
+		}
+
+		public String fail(Request request) throws Exception {
+			throw new Exception("checked");
+		}
+
+		public static String staticEffect(Request request) {
+			return request.getEffect();
+		}
+	}
+
+	static final class PrivateHandlers {
+		public String effect(Request request) {
+			return request.getEffect();
+		}
+
+		public void fail(Request request) throws Exception {
+			throw new Exception("checked");
+		}
+	}
+
+	@Test
+	public void lambdaTest() throws Exception {
+		PublicHandlers handlers = new PublicHandlers();
+
+		Function<Request, Object> function = MethodInvokers.function(handlers, PublicHandlers.class.getMethod("effect", Request.class));
+		Assertions.assertEquals("summon", function.apply(REQUEST));
+
+		Function<Request, Object> staticFunction = MethodInvokers.function(handlers, PublicHandlers.class.getMethod("staticEffect", Request.class));
+		Assertions.assertEquals("summon", staticFunction.apply(REQUEST));
+
+		Consumer<Request> consumer = MethodInvokers.consumer(handlers, PublicHandlers.class.getMethod("accept", Request.class));
+		consumer.accept(REQUEST);
+		Assertions.assertSame(REQUEST, handlers.received.get());
+
+		// exceptions should not be wrapped
+		Function<Request, Object> failing = MethodInvokers.function(handlers, PublicHandlers.class.getMethod("fail", Request.class));
+		Exception exc = Assertions.assertThrows(Exception.class, () -> failing.apply(REQUEST));
+		Assertions.assertEquals("checked", exc.getMessage());
+	}
+
+	@Test
+	public void methodHandleTest() throws Exception {
+		PrivateHandlers handlers = new PrivateHandlers();
+
+		Function<Request, Object> function = MethodInvokers.function(handlers, PrivateHandlers.class.getMethod("effect", Request.class));
+		Assertions.assertEquals("summon", function.apply(REQUEST));
+
+		// exceptions should not be wrapped
+		Consumer<Request> failing = MethodInvokers.consumer(handlers, PrivateHandlers.class.getMethod("fail", Request.class));
+		Exception exc = Assertions.assertThrows(Exception.class, () -> failing.accept(REQUEST));
+		Assertions.assertEquals("checked", exc.getMessage());
+	}
+}
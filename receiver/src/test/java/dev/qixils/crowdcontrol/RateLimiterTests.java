@@ -0,0 +1,72 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class RateLimiterTests {
+	private static Request request(String viewer) {
+		return new Request.Builder().id(1).type(Request.Type.START).effect("effect").viewer(viewer).build();
+	}
+
+	@Test
+	public void burstTest() {
+		RateLimiter limiter = RateLimiter.perViewer(3, Duration.ofHours(1));
+		Request request = request("qixils");
+		for (int i = 0; i < 3; i++)
+			Assertions.assertTrue(limiter.tryAcquire(request), "Request " + i + " was rejected");
+		Assertions.assertFalse(limiter.tryAcquire(request));
+		Assertions.assertFalse(limiter.tryAcquire(request));
+
+		// other viewers have their own buckets
+		Assertions.assertTrue(limiter.tryAcquire(request("sdk")));
+		Assertions.assertEquals(2, limiter.size());
+	}
+
+	@Test
+	public void refillTest() throws InterruptedException {
+		RateLimiter limiter = RateLimiter.perEffect(2, Duration.ofMillis(50));
+		Request request = request("qixils");
+		Assertions.assertTrue(limiter.tryAcquire(request));
+		Assertions.assertTrue(limiter.tryAcquire(request));
+		Assertions.assertFalse(limiter.tryAcquire(request));
+
+		Thread.sleep(60);
+		Assertions.assertTrue(limiter.tryAcquire(request));
+		Assertions.assertTrue(limiter.tryAcquire(request));
+		Assertions.assertFalse(limiter.tryAcquire(request));
+	}
+
+	@Test
+	public void chainTest() {
+		RateLimiter viewer = RateLimiter.perViewer(2, Duration.ofHours(1));
+		RateLimiter effect = RateLimiter.perEffect(1, Duration.ofHours(1));
+		RateLimiter[] chain = {viewer, effect};
+		Request request = request("qixils");
+		Assertions.assertNull(RateLimiter.tryAcquireAll(chain, request));
+		Assertions.assertSame(effect, RateLimiter.tryAcquireAll(chain, request));
+		Assertions.assertSame(effect, RateLimiter.tryAcquireAll(chain, request));
+
+		// requests rejected by a later rate limiter do not consume tokens from earlier ones
+		Assertions.assertTrue(viewer.tryAcquire(request));
+		Assertions.assertFalse(viewer.tryAcquire(request));
+	}
+
+	@Test
+	public void limitedTest() {
+		Assertions.assertTrue(RateLimiter.isLimited(request("qixils")));
+		Assertions.assertTrue(RateLimiter.isLimited(new Request.Builder().id(1).type(Request.Type.TEST).effect("effect").build()));
+		Assertions.assertFalse(RateLimiter.isLimited(new Request.Builder().id(1).type(Request.Type.STOP).effect("effect").build()));
+	}
+
+	@Test
+	public void constructorTest() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSource(0, Duration.ofSeconds(1)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSource(1, Duration.ZERO));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Request::getViewer, 1, Duration.ofSeconds(1), Response.ResultType.NOT_VISIBLE));
+		Assertions.assertEquals(Response.ResultType.FAILURE, new RateLimiter(Request::getViewer, 1, Duration.ofSeconds(1), Response.ResultType.FAILURE).getRejection());
+	}
+}
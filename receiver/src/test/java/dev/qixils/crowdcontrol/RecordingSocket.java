@@ -0,0 +1,57 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.socket.SocketManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A socket which records the responses written to it instead of sending them.
+ */
+class RecordingSocket implements SocketManager {
+	final List<Response> responses = Collections.synchronizedList(new ArrayList<>());
+
+	@Override
+	public void write(@NotNull Response response) {
+		responses.add(response);
+	}
+
+	@Override
+	public @NotNull String getDisplayName() {
+		return "recording";
+	}
+
+	@Override
+	public Response.@NotNull Builder buildResponse() {
+		return new Response.Builder().originatingSocket(this);
+	}
+
+	@Override
+	public void shutdown(@Nullable Request cause, @Nullable String reason) {
+	}
+
+	@Override
+	public void addConnectListener(@NotNull Consumer<SocketManager> consumer) {
+	}
+
+	@Override
+	public void addLoginListener(@NotNull Consumer<SocketManager> consumer) {
+	}
+
+	@Override
+	public @NotNull Set<Request.Source> getSources() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return false;
+	}
+}
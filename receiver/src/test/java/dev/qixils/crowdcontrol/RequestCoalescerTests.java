@@ -0,0 +1,69 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import dev.qixils.crowdcontrol.socket.SocketManager;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class RequestCoalescerTests {
+	private static Request request(SocketManager socket, int id, String effect, @Nullable Integer quantity) {
+		return new Request.Builder().id(id).type(Request.Type.START).effect(effect).viewer("qixils")
+				.quantity(quantity).originatingSocket(socket).build();
+	}
+
+	@Test
+	public void mergeTest() {
+		RecordingSocket socket = new RecordingSocket();
+		RequestCoalescer coalescer = new RequestCoalescer();
+		coalescer.register("summon", Duration.ofMillis(50));
+
+		Request first = request(socket, 1, "Summon", 2);
+		Assertions.assertNotNull(coalescer.window(first));
+		RequestCoalescer.Batch batch = coalescer.offer(first);
+		Assertions.assertNotNull(batch);
+		Assertions.assertNull(coalescer.offer(request(socket, 2, "summon", null)));
+		Assertions.assertNull(coalescer.offer(request(socket, 3, "summon", 3)));
+
+		// requests for other effects or from other sockets open their own batches
+		Assertions.assertNotNull(coalescer.offer(request(socket, 4, "other", null)));
+		Assertions.assertNotNull(coalescer.offer(request(new RecordingSocket(), 5, "summon", null)));
+		Assertions.assertEquals(3, coalescer.size());
+
+		Request merged = coalescer.close(batch);
+		Assertions.assertEquals(2, coalescer.size());
+		Assertions.assertEquals(6, merged.getQuantityOrDefault());
+		Assertions.assertEquals(1, merged.getId());
+
+		// each merged request receives its own response
+		merged.buildResponse().type(Response.ResultType.SUCCESS).send();
+		Assertions.assertEquals(3, socket.responses.size());
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(i + 1, socket.responses.get(i).getId());
+			Assertions.assertEquals(Response.ResultType.SUCCESS, socket.responses.get(i).getResultType());
+		}
+
+		// a closed batch cannot be joined
+		Assertions.assertNotNull(coalescer.offer(request(socket, 6, "summon", null)));
+	}
+
+	@Test
+	public void singleTest() {
+		RecordingSocket socket = new RecordingSocket();
+		RequestCoalescer coalescer = new RequestCoalescer();
+		coalescer.register("summon", Duration.ZERO);
+		Assertions.assertNull(coalescer.window(new Request.Builder().id(1).type(Request.Type.STOP).effect("summon").viewer("qixils").originatingSocket(socket).build()));
+		Assertions.assertNull(coalescer.window(request(socket, 1, "other", null)));
+
+		Request request = request(socket, 1, "summon", null);
+		RequestCoalescer.Batch batch = coalescer.offer(request);
+		Assertions.assertNotNull(batch);
+		Assertions.assertSame(request, coalescer.close(batch));
+
+		Assertions.assertTrue(coalescer.unregister("summon"));
+		Assertions.assertNull(coalescer.window(request));
+	}
+}
@@ -0,0 +1,60 @@
+package dev.qixils.crowdcontrol;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TickExecutorTests {
+
+	@Test
+	public void drainTest() {
+		TickExecutor executor = new TickExecutor(TimeUnit.SECONDS.toNanos(1));
+		AtomicInteger ran = new AtomicInteger();
+		for (int i = 0; i < 5; i++)
+			executor.execute(ran::incrementAndGet);
+		Assertions.assertEquals(0, ran.get());
+		Assertions.assertEquals(5, executor.size());
+
+		Assertions.assertEquals(5, executor.drain());
+		Assertions.assertEquals(5, ran.get());
+		Assertions.assertEquals(0, executor.size());
+		Assertions.assertEquals(0, executor.drain());
+	}
+
+	@Test
+	public void budgetTest() {
+		// tasks which exceed the budget are carried over to the next tick
+		TickExecutor executor = new TickExecutor(TimeUnit.MILLISECONDS.toNanos(5));
+		AtomicInteger ran = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			executor.execute(() -> {
+				ran.incrementAndGet();
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		for (int tick = 1; tick <= 3; tick++) {
+			Assertions.assertEquals(1, executor.drain());
+			Assertions.assertEquals(tick, ran.get());
+			Assertions.assertEquals(3 - tick, executor.size());
+		}
+	}
+
+	@Test
+	public void exceptionTest() {
+		TickExecutor executor = new TickExecutor(TimeUnit.SECONDS.toNanos(1));
+		AtomicInteger ran = new AtomicInteger();
+		executor.execute(() -> {
+			throw new IllegalStateException("test");
+		});
+		executor.execute(ran::incrementAndGet);
+		Assertions.assertEquals(2, executor.drain());
+		Assertions.assertEquals(1, ran.get());
+	}
+}
@@ -0,0 +1,108 @@
+package dev.qixils.crowdcontrol;
+
+import dev.qixils.crowdcontrol.socket.Request;
+import dev.qixils.crowdcontrol.socket.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class WatchdogTests {
+	private static Request request(RecordingSocket socket, String effect, Request.Type type) {
+		return new Request.Builder().id(1).type(type).effect(effect).viewer("qixils").originatingSocket(socket).build();
+	}
+
+	private static Watchdog.Timeout timeout(Response.ResultType type, boolean interrupt) {
+		return new Watchdog.Timeout(Duration.ofMillis(50).toNanos(), type, interrupt);
+	}
+
+	@Test
+	public void expireTest() throws InterruptedException {
+		Watchdog watchdog = new Watchdog();
+		watchdog.register("effect", timeout(Response.ResultType.RETRY, true));
+		RecordingSocket socket = new RecordingSocket();
+		Request request = request(socket, "effect", Request.Type.START);
+
+		CountDownLatch watching = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		Thread handler = new Thread(() -> {
+			Watchdog.Watch watch = watchdog.watch(request);
+			Assertions.assertNotNull(watch);
+			watching.countDown();
+			try {
+				Thread.sleep(5000);
+			} catch (InterruptedException e) {
+				interrupted.set(true);
+			}
+			// a result sent after the deadline is discarded
+			request.buildResponse().type(Response.ResultType.SUCCESS).send();
+			watch.release();
+		});
+		handler.start();
+		Assertions.assertTrue(watching.await(1, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, watchdog.inFlight());
+		handler.join(1000);
+
+		Assertions.assertTrue(interrupted.get());
+		Assertions.assertEquals(0, watchdog.inFlight());
+		Assertions.assertEquals(1, watchdog.timedOut());
+		Thread.sleep(10); // the timeout response is written asynchronously
+		Assertions.assertEquals(1, socket.responses.size());
+		Assertions.assertEquals(Response.ResultType.RETRY, socket.responses.get(0).getResultType());
+		watchdog.shutdown();
+	}
+
+	@Test
+	public void answerTest() throws InterruptedException {
+		Watchdog watchdog = new Watchdog();
+		watchdog.register("effect", timeout(Response.ResultType.FAILURE, false));
+		RecordingSocket socket = new RecordingSocket();
+		Request request = request(socket, "Effect", Request.Type.START);
+
+		Watchdog.Watch watch = watchdog.watch(request);
+		Assertions.assertNotNull(watch);
+		watch.release();
+		Assertions.assertEquals(1, watchdog.inFlight());
+		request.buildResponse().type(Response.ResultType.SUCCESS).timeRemaining(1000).send();
+		Assertions.assertEquals(0, watchdog.inFlight());
+
+		// later results are still sent once the request has been answered
+		Thread.sleep(100);
+		request.buildResponse().type(Response.ResultType.FINISHED).send();
+		Assertions.assertEquals(0, watchdog.timedOut());
+		Assertions.assertEquals(2, socket.responses.size());
+		Assertions.assertFalse(Thread.interrupted());
+		watchdog.shutdown();
+	}
+
+	@Test
+	public void unwatchedTest() {
+		Watchdog watchdog = new Watchdog();
+		RecordingSocket socket = new RecordingSocket();
+		Assertions.assertNull(watchdog.watch(request(socket, "effect", Request.Type.START)));
+
+		watchdog.register("effect", timeout(Response.ResultType.FAILURE, false));
+		Assertions.assertNull(watchdog.watch(request(socket, "other", Request.Type.START)));
+		Request stop = request(socket, "effect", Request.Type.STOP);
+		Assertions.assertNull(watchdog.watch(stop));
+		Assertions.assertSame(socket, stop.getOriginatingSocket());
+
+		Assertions.assertTrue(watchdog.unregister("effect"));
+		Assertions.assertFalse(watchdog.unregister("effect"));
+	}
+
+	@Test
+	public void shutdownTest() {
+		Watchdog watchdog = new Watchdog();
+		watchdog.register("effect", timeout(Response.ResultType.FAILURE, false));
+		watchdog.shutdown();
+		RecordingSocket socket = new RecordingSocket();
+		Request request = request(socket, "effect", Request.Type.START);
+		Assertions.assertNull(watchdog.watch(request));
+		Assertions.assertSame(socket, request.getOriginatingSocket());
+		Assertions.assertEquals(0, watchdog.inFlight());
+	}
+}
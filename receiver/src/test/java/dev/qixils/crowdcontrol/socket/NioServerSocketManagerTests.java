@@ -0,0 +1,104 @@
+package dev.qixils.crowdcontrol.socket;
+
+import dev.qixils.crowdcontrol.CrowdControl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NioServerSocketManagerTests {
+	private static final int PORT = 57578;
+
+	private static Socket connect(int receiveBuffer) throws IOException {
+		Socket socket = new Socket();
+		socket.setReceiveBufferSize(receiveBuffer);
+		socket.connect(new InetSocketAddress("localhost", PORT), 1000);
+		socket.setSoTimeout(2000);
+		return socket;
+	}
+
+	private static byte[] readPacket(InputStream input) throws IOException {
+		ByteArrayOutputStream packet = new ByteArrayOutputStream();
+		int b;
+		while ((b = input.read()) > 0)
+			packet.write(b);
+		if (b == -1)
+			throw new IOException("Stream ended");
+		return packet.toByteArray();
+	}
+
+	@Test
+	public void blockedKeepAliveTest() throws Exception {
+		char[] padding = new char[1000];
+		Arrays.fill(padding, 'a');
+		Response filler = new Response.Builder().id(1).type(Response.ResultType.SUCCESS).message(new String(padding)).build();
+		// a single queued filler packet leaves no room for any other packet
+		CrowdControl server = CrowdControl.server().port(PORT).password("password")
+				.selectorThreads(1)
+				.outboundLimit(filler.toBytes().length, BackpressurePolicy.BLOCK)
+				.build();
+		Thread.sleep(50); // let the server bind
+		try (Socket client = connect(1024)) {
+			long deadline = System.currentTimeMillis() + 5000;
+			List<? extends SocketManager> connections;
+			while ((connections = server.getConnections()).isEmpty() && System.currentTimeMillis() < deadline)
+				Thread.sleep(10);
+			Assertions.assertEquals(1, connections.size());
+			SocketManager connection = connections.get(0);
+
+			// fill the outbound queue of a client which is not reading
+			AtomicLong written = new AtomicLong();
+			Thread writer = new Thread(() -> {
+				try {
+					while (!connection.isClosed()) {
+						connection.write(filler);
+						written.incrementAndGet();
+					}
+				} catch (IOException ignored) {
+				}
+			});
+			writer.setDaemon(true);
+			writer.start();
+			long last = -1;
+			while (last != written.get() && System.currentTimeMillis() < deadline) {
+				last = written.get();
+				Thread.sleep(250);
+			}
+			Assertions.assertEquals(last, written.get(), "writes were never blocked by the outbound limit");
+
+			// the selector thread replies to a keep-alive while the queue is full
+			client.getOutputStream().write("{\"id\":2,\"type\":255}\0".getBytes(StandardCharsets.UTF_8));
+			client.getOutputStream().flush();
+			Thread.sleep(200);
+
+			// the selector thread is still servicing other connections
+			try (Socket other = connect(65536)) {
+				Response request = Response.fromJSON(new String(readPacket(other.getInputStream()), StandardCharsets.UTF_8));
+				Assertions.assertEquals(Response.PacketType.LOGIN, request.getPacketType());
+			}
+
+			// and the keep-alive is eventually received after the queued data
+			InputStream input = client.getInputStream();
+			boolean keptAlive = false;
+			try {
+				while (!keptAlive) {
+					Response response = Response.fromJSON(new String(readPacket(input), StandardCharsets.UTF_8));
+					keptAlive = response.getPacketType() == Response.PacketType.KEEP_ALIVE;
+				}
+			} catch (SocketTimeoutException ignored) {
+			}
+			Assertions.assertTrue(keptAlive);
+		} finally {
+			server.shutdown("test");
+		}
+	}
+}
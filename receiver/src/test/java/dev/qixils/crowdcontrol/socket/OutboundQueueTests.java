@@ -0,0 +1,289 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OutboundQueueTests {
+	private static OutboundPacket packet(String contents) {
+		return new OutboundPacket((contents + '\0').getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static OutboundPacket status(String contents, Response.ResultType type) {
+		Response response = new Response.Builder().packetType(Response.PacketType.EFFECT_STATUS).type(type).ids("a", "b").build();
+		return new OutboundPacket((contents + '\0').getBytes(StandardCharsets.UTF_8), response);
+	}
+
+	private static OutputStream stalledStream(CountDownLatch writing, CountDownLatch stall, ByteArrayOutputStream received) {
+		return new OutputStream() {
+			@Override
+			public void write(int b) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				writing.countDown();
+				try {
+					stall.await();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+				synchronized (received) {
+					received.write(b, off, len);
+				}
+			}
+		};
+	}
+
+	@Test
+	public void concurrentWriteTest() throws InterruptedException {
+		final int threads = 8;
+		final int packets = 500;
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		OutboundQueue queue = new OutboundQueue(new OutputStream() {
+			@Override
+			public synchronized void write(int b) {
+				received.write(b);
+			}
+
+			@Override
+			public synchronized void write(byte[] b, int off, int len) {
+				received.write(b, off, len);
+			}
+		});
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> writers = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			final int thread = t;
+			Thread writer = new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < packets; i++)
+						queue.write(packet(thread + ":" + i));
+				} catch (InterruptedException | IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			writer.start();
+			writers.add(writer);
+		}
+		start.countDown();
+		for (Thread writer : writers)
+			writer.join();
+
+		// every packet should arrive intact and in the order each thread sent them
+		String[] frames = received.toString().split("\0");
+		Assertions.assertEquals(threads * packets, frames.length);
+		Map<String, Integer> next = new HashMap<>();
+		for (String frame : frames) {
+			String[] parts = frame.split(":");
+			int expected = next.getOrDefault(parts[0], 0);
+			Assertions.assertEquals(expected, Integer.parseInt(parts[1]));
+			next.put(parts[0], expected + 1);
+		}
+	}
+
+	@Test
+	public void coalesceTest() throws IOException {
+		List<byte[]> writes = new ArrayList<>();
+		OutboundQueue[] queue = new OutboundQueue[1];
+		queue[0] = new OutboundQueue(new OutputStream() {
+			@Override
+			public void write(int b) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				writes.add(Arrays.copyOfRange(b, off, off + len));
+				// packets queued while a write is in progress should be sent together afterwards
+				if (writes.size() == 1) {
+					queue[0].write(packet("second"));
+					queue[0].write(packet("third"));
+				}
+			}
+		});
+
+		queue[0].write(packet("first"));
+		Assertions.assertEquals(2, writes.size());
+		Assertions.assertEquals("first\0", new String(writes.get(0), StandardCharsets.UTF_8));
+		Assertions.assertEquals("second\0third\0", new String(writes.get(1), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void failureTest() {
+		OutboundQueue queue = new OutboundQueue(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Connection reset");
+			}
+		});
+		Assertions.assertThrows(IOException.class, () -> queue.write(packet("first")));
+		Assertions.assertThrows(IOException.class, () -> queue.write(packet("second")));
+	}
+
+	@Test
+	public void failPolicyTest() throws IOException, InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch stall = new CountDownLatch(1);
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		SocketOptions options = new SocketOptions(false, 16, BackpressurePolicy.FAIL);
+		OutboundQueue queue = new OutboundQueue(stalledStream(writing, stall, received), options, task -> new Thread(task).start());
+
+		// the sender should not be held up by the stalled client
+		queue.write(packet("first"));
+		writing.await();
+		queue.write(packet("second"));
+		Assertions.assertThrows(IOException.class, () -> queue.write(packet("third")));
+
+		stall.countDown();
+		queue.awaitIdle(1000);
+		Thread.sleep(10);
+		synchronized (received) {
+			Assertions.assertEquals("first\0second\0", received.toString());
+		}
+	}
+
+	@Test
+	public void collapsePolicyTest() throws IOException, InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch stall = new CountDownLatch(1);
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		SocketOptions options = new SocketOptions(false, 24, BackpressurePolicy.COLLAPSE);
+		OutboundQueue queue = new OutboundQueue(stalledStream(writing, stall, received), options, task -> new Thread(task).start());
+
+		queue.write(packet("first"));
+		writing.await();
+		queue.write(status("hidden-status", Response.ResultType.NOT_VISIBLE));
+		queue.write(status("shown", Response.ResultType.VISIBLE)); // replaces the hidden update
+		queue.write(status("locked", Response.ResultType.NOT_SELECTABLE)); // does not replace visibility updates
+		Assertions.assertThrows(IOException.class, () -> queue.write(packet("fifth")));
+
+		stall.countDown();
+		queue.awaitIdle(1000);
+		Thread.sleep(10);
+		synchronized (received) {
+			Assertions.assertEquals("first\0shown\0locked\0", received.toString());
+		}
+	}
+
+	@Test
+	public void stalledWriteTest() {
+		for (BackpressurePolicy policy : new BackpressurePolicy[]{BackpressurePolicy.FAIL, BackpressurePolicy.COLLAPSE}) {
+			CountDownLatch writing = new CountDownLatch(1);
+			CountDownLatch stall = new CountDownLatch(1);
+			ByteArrayOutputStream received = new ByteArrayOutputStream();
+			SocketOptions options = new SocketOptions(false, 64, policy);
+			OutboundQueue queue = new OutboundQueue(stalledStream(writing, stall, received), options, task -> new Thread(task).start());
+
+			// synchronous senders return once their packet is queued, even if the client never reads it
+			Assertions.assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+				queue.write(packet("first"));
+				writing.await();
+				queue.write(packet("second"));
+			}, policy.name());
+			stall.countDown();
+		}
+	}
+
+	@Test
+	public void limitedFailureTest() throws IOException {
+		OutboundQueue queue = new OutboundQueue(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Connection reset");
+			}
+		}, new SocketOptions(false, 16, BackpressurePolicy.FAIL), task -> new Thread(task).start());
+
+		// the failure of the writer executor is reported to the next sender
+		queue.write(packet("first"));
+		queue.awaitIdle(1000);
+		IOException exc = Assertions.assertThrows(IOException.class, () -> queue.write(packet("second")));
+		Assertions.assertEquals("Connection reset", exc.getCause().getMessage());
+	}
+
+	@Test
+	public void concurrentLimitTest() throws InterruptedException {
+		final int threads = 16;
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch stall = new CountDownLatch(1);
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		SocketOptions options = new SocketOptions(false, 40, BackpressurePolicy.FAIL);
+		OutboundQueue queue = new OutboundQueue(stalledStream(writing, stall, received), options, task -> new Thread(task).start());
+
+		// concurrent senders may not reserve more than the limit between them
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger accepted = new AtomicInteger();
+		List<Thread> senders = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			Thread sender = new Thread(() -> {
+				try {
+					start.await();
+					queue.writeAsync(packet("123456789"));
+					accepted.incrementAndGet();
+				} catch (InterruptedException | IOException ignored) {
+				}
+			});
+			sender.start();
+			senders.add(sender);
+		}
+		start.countDown();
+		for (Thread sender : senders)
+			sender.join();
+		Assertions.assertEquals(4, accepted.get());
+		stall.countDown();
+	}
+
+	@Test
+	public void asyncWriteTest() throws IOException, InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch stall = new CountDownLatch(1);
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		OutboundQueue queue = new OutboundQueue(stalledStream(writing, stall, received), SocketOptions.DEFAULT, task -> new Thread(task).start());
+
+		// the sender should not wait for the write to complete
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		queue.writeAsync(new OutboundPacket(packet("first").data, null, future));
+		writing.await();
+		Assertions.assertFalse(future.isDone());
+
+		stall.countDown();
+		Assertions.assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS));
+		synchronized (received) {
+			Assertions.assertEquals("first\0", received.toString());
+		}
+	}
+
+	@Test
+	public void asyncFailureTest() throws IOException {
+		OutboundQueue queue = new OutboundQueue(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Connection reset");
+			}
+		}, SocketOptions.DEFAULT, task -> new Thread(task).start());
+
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		queue.writeAsync(new OutboundPacket(packet("first").data, null, future));
+		ExecutionException exc = Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+		Assertions.assertInstanceOf(IOException.class, exc.getCause());
+	}
+}
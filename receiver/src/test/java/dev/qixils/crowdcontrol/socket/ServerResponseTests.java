@@ -0,0 +1,101 @@
+package dev.qixils.crowdcontrol.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public class ServerResponseTests {
+
+	/**
+	 * A connection whose client never receives anything written to it.
+	 */
+	private static class StalledConnection implements SocketManager {
+		final List<Response> queued = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void write(@NotNull Response response) {
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+			queued.add(response);
+			return new CompletableFuture<>();
+		}
+
+		@Override
+		public @NotNull String getDisplayName() {
+			return "stalled";
+		}
+
+		@Override
+		public Response.@NotNull Builder buildResponse() {
+			return new Response.Builder().originatingSocket(this);
+		}
+
+		@Override
+		public void shutdown(@Nullable Request cause, @Nullable String reason) {
+		}
+
+		@Override
+		public void addConnectListener(@NotNull Consumer<SocketManager> consumer) {
+		}
+
+		@Override
+		public void addLoginListener(@NotNull Consumer<SocketManager> consumer) {
+		}
+
+		@Override
+		public @NotNull Set<Request.Source> getSources() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public boolean isClosed() {
+			return false;
+		}
+	}
+
+	/**
+	 * A connection which can no longer queue responses.
+	 */
+	private static final class FailedConnection extends StalledConnection {
+		@Override
+		public @NotNull CompletableFuture<Void> writeAsync(@NotNull Response response) {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			future.completeExceptionally(new IOException("Socket is closed"));
+			return future;
+		}
+	}
+
+	@Test
+	public void broadcastTest() {
+		StalledConnection stalled = new StalledConnection();
+		StalledConnection other = new StalledConnection();
+		Response response = new Response.Builder().id(1).type(Response.ResultType.SUCCESS).build();
+
+		// a stalled client neither blocks the sender nor the clients after it
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(1), () -> ServerResponse.broadcast(response, Arrays.asList(stalled, other)));
+		Assertions.assertEquals(Collections.singletonList(response), other.queued);
+
+		// connections which fail to queue the response are reported after the others are sent to
+		IOException exc = Assertions.assertThrows(IOException.class, () -> ServerResponse.broadcast(response, Arrays.asList(new FailedConnection(), other)));
+		Assertions.assertTrue(exc.getMessage().contains("Socket is closed"), exc.getMessage());
+		Assertions.assertEquals(2, other.queued.size());
+	}
+}
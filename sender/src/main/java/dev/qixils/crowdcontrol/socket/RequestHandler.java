@@ -6,6 +6,7 @@ import dev.qixils.crowdcontrol.TriState;
 import dev.qixils.crowdcontrol.exceptions.CrowdControlException;
 import dev.qixils.crowdcontrol.exceptions.EffectUnavailableException;
 import dev.qixils.crowdcontrol.exceptions.ExceptionUtil;
+import dev.qixils.crowdcontrol.util.TimingWheel;
 import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -15,7 +16,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
@@ -27,12 +27,12 @@ import java.util.concurrent.*;
 final class RequestHandler implements SimulatedService<Response> {
 	private static final @NotNull Logger logger = LoggerFactory.getLogger("CrowdControl/RequestHandler");
 	private static final @NotNull Executor executor = Executors.newCachedThreadPool();
-	private static final @NotNull ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+	private static final @NotNull TimingWheel timer = TimingWheel.shared();
 	private final @NotNull Map<Integer, EffectData> effectDataMap = new ConcurrentHashMap<>(1);
 	private final @NotNull Map<String, Boolean> effectAvailabilityMap = new ConcurrentHashMap<>(1);
 	private final Socket socket;
 	private final SimulatedService<?> parent;
-	private final InputStream inputStream;
+	private final FrameDecoder decoder;
 	private final OutputStream outputStream;
 	private final @Nullable String encryptedPassword;
 	private final Thread loopThread;
@@ -43,7 +43,7 @@ final class RequestHandler implements SimulatedService<Response> {
 	RequestHandler(@NotNull Socket socket, @NotNull SimulatedService<?> parent, @Nullable String encryptedPassword) throws IOException {
 		this.socket = ExceptionUtil.validateNotNull(socket, "socket");
 		this.parent = ExceptionUtil.validateNotNull(parent, "parent");
-		this.inputStream = socket.getInputStream();
+		this.decoder = new FrameDecoder(socket.getInputStream());
 		this.outputStream = socket.getOutputStream();
 		this.encryptedPassword = encryptedPassword;
 		loggedIn = encryptedPassword == null;
@@ -68,10 +68,10 @@ final class RequestHandler implements SimulatedService<Response> {
 		parent.shutdown();
 
 		// wait for request streams to finish
-		scheduledExecutor.schedule(() -> {
+		timer.schedule(() -> executor.execute(() -> {
 			effectDataMap.forEach(($, data) -> data.sink.error(new CrowdControlException("RequestHandler shutting down")));
 			effectDataMap.clear();
-		}, 2, TimeUnit.SECONDS);
+		}), 2, TimeUnit.SECONDS);
 	}
 
 	@Override
@@ -102,7 +102,7 @@ final class RequestHandler implements SimulatedService<Response> {
 			while (running) {
 				Response response;
 				try {
-					response = JsonObject.fromInputStream(inputStream, Response::fromJSON);
+					response = JsonObject.fromFrameDecoder(decoder, Response::fromJSON);
 				} catch (JsonParseException e) {
 					logger.error("Failed to parse JSON from socket", e);
 					return;
@@ -163,8 +163,9 @@ final class RequestHandler implements SimulatedService<Response> {
 							if (retryDelay == -1)
 								data.sink.complete();
 							else
-								scheduledExecutor.schedule(
-										() -> writeRequest(data.request, data.sink),
+								// writing may block, so leave the timer's thread free for other timers
+								timer.schedule(
+										() -> executor.execute(() -> writeRequest(data.request, data.sink)),
 										retryDelay, TimeUnit.SECONDS
 								);
 						} else if (response.getResultType() == Response.ResultType.PAUSED) {
@@ -180,8 +181,9 @@ final class RequestHandler implements SimulatedService<Response> {
 						}
 
 						if (toSchedule)
-							data.scheduledFuture = scheduledExecutor.schedule(
-									() -> {
+							// subscribers run synchronously, so leave the timer's thread free for other timers
+							data.scheduledFuture = timer.schedule(
+									() -> executor.execute(() -> {
 										// send fake FINISHED packet to flux stream
 										data.sink.next(new Response.Builder()
 												.id(response.getId())
@@ -190,7 +192,7 @@ final class RequestHandler implements SimulatedService<Response> {
 										);
 										// complete flux stream
 										data.sink.complete();
-									},
+									}),
 									ExceptionUtil.validateNotNullElse(response.getTimeRemaining(), Duration.ZERO).toMillis(),
 									TimeUnit.MILLISECONDS
 							);
@@ -231,13 +233,13 @@ final class RequestHandler implements SimulatedService<Response> {
 
 			// manage responseReceivedMap for timeout functionality
 			if (timeout != null) {
-				scheduledExecutor.schedule(() -> {
+				timer.schedule(() -> executor.execute(() -> {
 					if (!isAcceptingRequests()) return;
 					if (data.responseReceived) return;
 					final String error = "Timed out waiting for response for request " + request.getId();
 					logger.debug(error);
 					sink.error(new TimeoutException(error));
-				}, timeout.toMillis(), TimeUnit.MILLISECONDS);
+				}), timeout.toMillis(), TimeUnit.MILLISECONDS);
 			}
 
 			// send request
@@ -266,7 +268,7 @@ final class RequestHandler implements SimulatedService<Response> {
 		private long timeRemaining = 0;
 		private long timeUpdatedAt = 0;
 		private boolean paused = false;
-		private @Nullable ScheduledFuture<?> scheduledFuture;
+		private TimingWheel.@Nullable Timeout scheduledFuture;
 
 		private EffectData(int id, @NotNull Request request, @NotNull FluxSink<@NotNull Response> sink) {
 			this.id = id;
@@ -294,7 +296,7 @@ final class RequestHandler implements SimulatedService<Response> {
 			if (paused) return;
 			paused = true;
 			if (scheduledFuture != null)
-				scheduledFuture.cancel(false);
+				scheduledFuture.cancel();
 			scheduledFuture = null;
 			// update the time remaining using the elapsed time since the last update
 			updateTimeRemaining(getCurrentTimeRemaining());
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Tests for the {@code SimpleTCPClientConnector} socket protocol.
@@ -89,6 +92,128 @@ public final class SimpleTCPClientConnectorTests {
 		Thread.sleep(40); // give server time to shut down
 	}
 
+	@Test
+	public void selectorTransportTest() throws InterruptedException, UnknownHostException {
+		CrowdControl server = CrowdControl.server().port(PORT).password(CORRECT_PASSWORD).selectorThreads(2).build();
+		server.registerHandlers(EFFECT_HANDLERS);
+
+		Thread.sleep(20); // give server time to start
+
+		final int clients = 5;
+		final List<SimulatedClient> clientList = new ArrayList<>(clients);
+		for (int i = 0; i < clients; i++) {
+			SimulatedClient client = new SimulatedClient("localhost", PORT, CORRECT_PASSWORD);
+			Assertions.assertDoesNotThrow(client::start);
+			clientList.add(client);
+		}
+
+		// wait for the server to start & client to connect
+		int delay = 1;
+		while (clientList.stream().anyMatch(client -> !client.isAcceptingRequests()) && delay <= 12) {
+			Thread.sleep((long) Math.pow(2, delay++));
+		}
+
+		// test request
+		for (SimulatedClient client : clientList) {
+			Assertions.assertTrue(client.isAcceptingRequests());
+			Response response = client.sendRequest(new Request.Builder().effect("success").viewer("test")).blockFirst();
+			Assertions.assertNotNull(response);
+			Assertions.assertEquals(Response.ResultType.SUCCESS, response.getResultType());
+		}
+		Assertions.assertEquals(clients, server.getConnections().size());
+
+		// cleanup
+		server.shutdown("Test completed");
+		Thread.sleep(10);
+		clientList.forEach(SimulatedClient::shutdown);
+
+		Thread.sleep(40); // give server time to shut down
+	}
+
+	@Test
+	public void virtualThreadsTest() throws InterruptedException, UnknownHostException {
+		// falls back to platform threads on runtimes older than Java 21
+		CrowdControl server = CrowdControl.server().port(PORT).password(CORRECT_PASSWORD).virtualThreads(true).build();
+		server.registerHandlers(EFFECT_HANDLERS);
+
+		Thread.sleep(20); // give server time to start
+
+		SimulatedClient client = new SimulatedClient("localhost", PORT, CORRECT_PASSWORD);
+		Assertions.assertDoesNotThrow(client::start);
+
+		// wait for the server to start & client to connect
+		int delay = 1;
+		while (!client.isAcceptingRequests() && delay <= 12) {
+			Thread.sleep((long) Math.pow(2, delay++));
+		}
+
+		Assertions.assertTrue(client.isAcceptingRequests());
+
+		// test request
+		Response response = client.sendRequest(new Request.Builder().effect("success").viewer("test")).blockFirst();
+		Assertions.assertNotNull(response);
+		Assertions.assertEquals(Response.ResultType.SUCCESS, response.getResultType());
+
+		// cleanup
+		server.shutdown("Test completed");
+		Thread.sleep(10);
+		client.shutdown();
+
+		Thread.sleep(40); // give server time to shut down
+		Assertions.assertFalse(client.isRunning());
+	}
+
+	@Test
+	public void tickExecutorTest() throws InterruptedException, UnknownHostException {
+		CrowdControl server = CrowdControl.server().port(PORT).password(CORRECT_PASSWORD).tickExecutor(Duration.ofMillis(5)).build();
+		AtomicReference<Thread> handlerThread = new AtomicReference<>();
+		server.registerHandler("tick", (Function<Request, Response>) request -> {
+			handlerThread.set(Thread.currentThread());
+			return request.buildResponse().type(Response.ResultType.SUCCESS).build();
+		});
+
+		// simulates the game's main loop
+		Thread gameThread = new Thread(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				server.tick();
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}, "game-thread");
+		gameThread.start();
+
+		Thread.sleep(20); // give server time to start
+
+		SimulatedClient client = new SimulatedClient("localhost", PORT, CORRECT_PASSWORD);
+		Assertions.assertDoesNotThrow(client::start);
+
+		// wait for the server to start & client to connect
+		int delay = 1;
+		while (!client.isAcceptingRequests() && delay <= 12) {
+			Thread.sleep((long) Math.pow(2, delay++));
+		}
+
+		Assertions.assertTrue(client.isAcceptingRequests());
+
+		// test request
+		Response response = client.sendRequest(new Request.Builder().effect("tick").viewer("test")).blockFirst();
+		Assertions.assertNotNull(response);
+		Assertions.assertEquals(Response.ResultType.SUCCESS, response.getResultType());
+		Assertions.assertSame(gameThread, handlerThread.get());
+
+		// cleanup
+		gameThread.interrupt();
+		server.shutdown("Test completed");
+		Thread.sleep(10);
+		client.shutdown();
+
+		Thread.sleep(40); // give server time to shut down
+		Assertions.assertFalse(client.isRunning());
+	}
+
 	@Test
 	public void incorrectPasswordTest() throws InterruptedException, UnknownHostException {
 		CrowdControl server = CrowdControl.server().port(PORT).password(CORRECT_PASSWORD).build();